@@ -0,0 +1,155 @@
+package me.dio.benchmark;
+
+import me.dio.Application;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Contexto Spring sem servidor web apoiado por um banco H2 em memória exclusivo,
+ * carregado com um volume realista de usuários, categorias e tarefas para os benchmarks.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    /**
+     * Quantidade média de tarefas por usuário na massa de dados.
+     */
+    static final int TASKS_PER_USER = 1_000;
+
+    static final int CATEGORIES = 10;
+
+    private static final String[] STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final int INSERT_BATCH_SIZE = 5_000;
+
+    /**
+     * allocationSize das sequences das entidades; o otimizador pooled do Hibernate usa
+     * o valor retornado pela sequence como limite superior do bloco de IDs.
+     */
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    private final ConfigurableApplicationContext context;
+    private final int users;
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context, int users) {
+        this.context = context;
+        this.users = users;
+    }
+
+    /**
+     * Inicia a aplicação e carrega a quantidade de tarefas informada.
+     *
+     * @param tasks Quantidade de tarefas a serem carregadas.
+     * @return Banco de dados pronto para uso.
+     */
+    static BenchmarkDatabase start(int tasks) {
+        return start(tasks, WebApplicationType.NONE);
+    }
+
+    /**
+     * Inicia a aplicação, opcionalmente com o servidor web em uma porta livre, e carrega a quantidade de tarefas informada.
+     *
+     * @param tasks Quantidade de tarefas a serem carregadas.
+     * @param webApplicationType Tipo de aplicação; SERVLET inicia o Tomcat.
+     * @param properties Propriedades adicionais no formato chave=valor, com precedência sobre os arquivos de configuração.
+     * @return Banco de dados pronto para uso.
+     */
+    static BenchmarkDatabase start(int tasks, WebApplicationType webApplicationType, String... properties) {
+        String database = "bench-" + UUID.randomUUID();
+        String[] args = Stream.concat(
+                        // O perfil "reactive" acessa o mesmo banco em memória via R2DBC
+                        Stream.of("todo.reactive.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1", "todo.reactive.port=0"),
+                        Arrays.stream(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(webApplicationType)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.show-sql=false",
+                        // O controle de admissão só atua nas requisições MVC; sem ele as portas MVC e reativa são comparáveis
+                        "todo.admission.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run(args);
+        BenchmarkDatabase benchmarkDatabase = new BenchmarkDatabase(context, Math.max(1, tasks / TASKS_PER_USER));
+        benchmarkDatabase.load(tasks);
+        return benchmarkDatabase;
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int users() {
+        return users;
+    }
+
+    /**
+     * Porta em que o servidor web foi iniciado.
+     */
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Carrega a massa de dados com INSERTs em lote via JDBC e reposiciona as sequences,
+     * para que os IDs gerados pelo Hibernate continuem após os registros carregados.
+     */
+    private void load(int tasks) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= users; id++) {
+            rows.add(new Object[]{id, "user" + id, "user" + id + "@bench.dio.me", "secret"});
+        }
+        jdbc.batchUpdate("insert into tb_user (id, username, email, password, version) values (?, ?, ?, ?, 0)", rows);
+
+        rows.clear();
+        for (long id = 1; id <= CATEGORIES; id++) {
+            rows.add(new Object[]{id, "Categoria " + id});
+        }
+        jdbc.batchUpdate("insert into tb_category (id, name, version) values (?, ?, 0)", rows);
+
+        rows.clear();
+        LocalDate today = LocalDate.now();
+        for (long id = 1; id <= tasks; id++) {
+            rows.add(new Object[]{
+                    id,
+                    "Tarefa " + id,
+                    "Descrição detalhada da tarefa número " + id,
+                    STATUSES[(int) (id % STATUSES.length)],
+                    Date.valueOf(today.plusDays(id % 365 - 180)),
+                    id % users + 1,
+                    id % CATEGORIES + 1});
+            if (rows.size() == INSERT_BATCH_SIZE || id == tasks) {
+                jdbc.batchUpdate("insert into tb_todo (id, title, description, status, due_date, user_id, category_id, version) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+
+        jdbc.execute("alter sequence tb_user_seq restart with " + (users + SEQUENCE_ALLOCATION_SIZE));
+        jdbc.execute("alter sequence tb_category_seq restart with " + (CATEGORIES + SEQUENCE_ALLOCATION_SIZE));
+        jdbc.execute("alter sequence tb_todo_seq restart with " + (tasks + SEQUENCE_ALLOCATION_SIZE));
+
+        // Os dados foram carregados sem passar pelos serviços: o índice de busca e os contadores são recarregados
+        context.publishEvent(new ToDoBulkChangedEvent(null, null));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,96 @@
+package me.dio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.config.BinaryEncodingConfig;
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmark das codificações das listagens de tarefas: tempo para codificar e decodificar uma página
+ * de tarefas em JSON, JSON com gzip, Smile e CBOR. O tamanho em bytes de cada codificação é impresso
+ * no início de cada execução ("bytes por 10k tarefas" com o parâmetro padrão).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EncodingBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private CursorPageDto<ToDoDto> page;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().factory(BinaryEncodingConfig.smileFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().factory(BinaryEncodingConfig.cborFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        String[] categories = {"Trabalho", "Pessoal", "Estudos", "Casa"};
+        List<ToDoDto> toDos = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            toDos.add(new ToDoDto(id, "Tarefa " + id, "Descrição detalhada da tarefa da categoria " + categories[(int) (id % categories.length)],
+                    Status.values()[(int) (id % Status.values().length)], LocalDate.of(2030, 1, 1).plusDays(id % 365),
+                    id % 100 + 1, id % categories.length + 1, id % 5));
+        }
+        page = new CursorPageDto<>(toDos, (long) size);
+        encoded = encode();
+        System.out.printf("%n%s: %d bytes por %d tarefas%n", format, encoded.length, size);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return encode();
+    }
+
+    @Benchmark
+    public Object decodePage() throws IOException {
+        byte[] body = encoded;
+        if (format.equals("json-gzip")) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+                body = in.readAllBytes();
+            }
+        }
+        return objectMapper.readValue(body, CursorPageDto.class);
+    }
+
+    private byte[] encode() throws IOException {
+        if (!format.equals("json-gzip")) {
+            return objectMapper.writeValueAsBytes(page);
+        }
+        // Mesmo nível de compressão padrão usado pelo Tomcat em server.compression
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(gzip, page);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package me.dio.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.controller.dto.UserDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks do mapeamento entidade -> DTO e da serialização Jackson das tarefas,
+ * incluindo o grafo de entidades com @JsonManagedReference/@JsonBackReference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+
+    /**
+     * Quantidade de tarefas da categoria serializada com o grafo de entidades.
+     */
+    @Param({"100", "10000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private User user;
+    private Category category;
+    private ToDo toDo;
+    private List<ToDoDto> toDoDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("ana");
+        user.setEmail("ana@dio.me");
+        user.setPassword("secret");
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Trabalho");
+
+        List<ToDo> toDos = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            ToDo item = new ToDo();
+            item.setId(id);
+            item.setTitle("Tarefa " + id);
+            item.setDescription("Descrição detalhada da tarefa número " + id);
+            item.setStatus(Status.values()[(int) (id % Status.values().length)]);
+            item.setDueDate(LocalDate.of(2030, 1, 1).plusDays(id % 365));
+            item.setUser(user);
+            item.setCategory(category);
+            toDos.add(item);
+        }
+        user.setTodos(toDos);
+        category.setTodos(toDos);
+        toDo = toDos.get(0);
+        toDoDtos = toDos.stream().map(ToDoDto::new).toList();
+    }
+
+    @Benchmark
+    public ToDoDto toDoDtoMapping() {
+        return new ToDoDto(toDo);
+    }
+
+    @Benchmark
+    public UserDto userDtoMapping() {
+        return new UserDto(user);
+    }
+
+    @Benchmark
+    public byte[] serializeToDoEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDo);
+    }
+
+    @Benchmark
+    public byte[] serializeCategoryGraph() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(category);
+    }
+
+    @Benchmark
+    public byte[] serializeToDoDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDoDtos);
+    }
+}
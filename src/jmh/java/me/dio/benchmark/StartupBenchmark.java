@@ -0,0 +1,109 @@
+package me.dio.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo até a primeira requisição atendida (time-to-first-request) da aplicação empacotada,
+ * do início do processo da JVM até a primeira resposta de GET /api/categories, em cada modo de execução:
+ * o jar executável com java -jar, o jar extraído, o jar extraído com o arquivo AppCDS (como no Procfile)
+ * e, se o jar foi gerado com -Paot, o jar extraído com o AppCDS e o processamento AOT do Spring.
+ * Cada modo é iniciado várias vezes e são informados a mediana e o melhor tempo.
+ * <p>
+ * Argumentos: [executável java] [jar executável] [jar extraído] [arquivo AppCDS] [perfis] [aot: true/false] [execuções]
+ * (preenchidos pela task startupBenchmark do Gradle).
+ */
+public final class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        String bootJar = args[1];
+        String extractedJar = args[2];
+        String cdsArchive = args[3];
+        String profiles = args[4];
+        boolean aot = Boolean.parseBoolean(args[5]);
+        int runs = args.length > 6 ? Integer.parseInt(args[6]) : 5;
+
+        System.out.printf("Perfis: %s, execuções por modo: %d%n", profiles, runs);
+        measure("java -jar", runs, List.of(java, "-jar", bootJar), profiles);
+        measure("extraído", runs, List.of(java, "-jar", extractedJar), profiles);
+        measure("extraído + CDS", runs, List.of(java, "-XX:SharedArchiveFile=" + cdsArchive, "-Xlog:cds=off", "-jar", extractedJar), profiles);
+        if (aot) {
+            measure("extraído + CDS + AOT", runs, List.of(java, "-XX:SharedArchiveFile=" + cdsArchive, "-Xlog:cds=off",
+                    "-Dspring.aot.enabled=true", "-jar", extractedJar), profiles);
+        } else {
+            System.out.println("O modo AOT não foi medido: gere o jar com -Paot para incluí-lo.");
+        }
+    }
+
+    private static void measure(String mode, int runs, List<String> command, String profiles) throws Exception {
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = timeToFirstRequest(command, profiles);
+        }
+        Arrays.sort(times);
+        System.out.printf("%-22s mediana %6d ms  melhor %6d ms%n", mode, times[runs / 2], times[0]);
+    }
+
+    /**
+     * Inicia a aplicação em uma porta livre, aguarda a primeira resposta e encerra o processo.
+     *
+     * @return Tempo em milissegundos entre o início do processo e a primeira resposta.
+     */
+    private static long timeToFirstRequest(List<String> command, String profiles) throws Exception {
+        int port = freePort();
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--server.port=" + port);
+        fullCommand.add("--spring.config.name=Application");
+        fullCommand.add("--spring.profiles.active=" + profiles);
+        // Sem o log SQL, que no perfil dev atrasaria a criação do schema
+        fullCommand.add("--spring.jpa.show-sql=false");
+
+        File log = Files.createTempFile("startup-benchmark", ".log").toFile();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/categories")).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(fullCommand).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("A aplicação terminou antes de responder; veja " + log);
+                }
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException("A aplicação não respondeu em " + TIMEOUT.toSeconds() + "s; veja " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
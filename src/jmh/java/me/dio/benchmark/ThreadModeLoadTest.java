@@ -0,0 +1,219 @@
+package me.dio.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import me.dio.config.ReactiveServer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Teste de carga que compara a API atendida pelo Tomcat com threads de plataforma (padrão), pelo Tomcat
+ * com virtual threads (perfil "vt") e pelas rotas WebFlux com R2DBC (perfil "reactive"). Para cada modo
+ * inicia a aplicação com a mesma massa de dados e mantém uma quantidade fixa de clientes consultando páginas
+ * de tarefas de usuários aleatórios, medindo a vazão, a latência e o pico de threads e de conexões com o banco.
+ * <p>
+ * Argumentos: [tarefas] [clientes simultâneos] [segundos por modo] [propriedades chave=valor...],
+ * por exemplo para medir contra o PostgreSQL: spring.datasource.url=jdbc:postgresql://localhost:5432/todo
+ */
+public final class ThreadModeLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private ThreadModeLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        String[] properties = args.length > 3 ? Arrays.copyOfRange(args, 3, args.length) : new String[0];
+
+        System.out.printf("Tarefas: %d, clientes simultâneos: %d, duração: %ds%n", tasks, clients, duration.toSeconds());
+        Result platform = run("plataforma", tasks, clients, duration, properties);
+        print(platform);
+        Result reactive = run("reactive", tasks, clients, duration, withProfile(properties, "reactive"));
+        print(reactive);
+        System.out.printf("Vazão reactive / plataforma: %.2fx%n", reactive.throughput() / platform.throughput());
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Virtual threads exigem Java 21: execute com -PvirtualThreads para medir também esse modo.");
+            return;
+        }
+        Result virtual = run("virtual", tasks, clients, duration, withProfile(properties, "vt"));
+        print(virtual);
+        System.out.printf("Vazão virtual / plataforma: %.2fx%n", virtual.throughput() / platform.throughput());
+    }
+
+    private static String[] withProfile(String[] properties, String profile) {
+        String[] withProfile = Arrays.copyOf(properties, properties.length + 2);
+        withProfile[properties.length] = "spring.config.name=Application";
+        withProfile[properties.length + 1] = "spring.profiles.active=" + profile;
+        return withProfile;
+    }
+
+    private static Result run(String mode, int tasks, int clients, Duration duration, String[] properties) throws Exception {
+        try (BenchmarkDatabase database = BenchmarkDatabase.start(tasks, WebApplicationType.SERVLET, properties)) {
+            boolean reactive = mode.equals("reactive");
+            int port = reactive ? database.getBean(ReactiveServer.class).getPort() : database.port();
+            String baseUrl = "http://localhost:" + port + "/api/todos/user/";
+            IntSupplier activeConnections = reactive
+                    ? activeConnections((ConnectionPool) database.getBean(DatabaseClient.class).getConnectionFactory())
+                    : activeConnections(database.getBean(DataSource.class).unwrap(HikariDataSource.class));
+            int users = database.users();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+
+            load(client, baseUrl, users, clients, WARMUP);
+            try (Sampler sampler = new Sampler(activeConnections)) {
+                List<Worker> workers = load(client, baseUrl, users, clients, duration);
+                // As threads dos clientes e a do amostrador não contam como threads do servidor
+                return new Result(mode, workers, duration, sampler.peakThreads() - clients - 1, sampler.peakConnections());
+            }
+        }
+    }
+
+    private static IntSupplier activeConnections(HikariDataSource dataSource) {
+        return () -> dataSource.getHikariPoolMXBean().getActiveConnections();
+    }
+
+    private static IntSupplier activeConnections(ConnectionPool pool) {
+        return () -> pool.getMetrics().map(metrics -> metrics.acquiredSize()).orElse(0);
+    }
+
+    /**
+     * Mantém os clientes enviando requisições até o fim do intervalo e retorna as latências de cada cliente.
+     */
+    private static List<Worker> load(HttpClient client, String baseUrl, int users, int clients, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Worker> workers = new ArrayList<>(clients);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients, task -> new Thread(task, "load-client-" + threadNumber.incrementAndGet()));
+        for (int i = 0; i < clients; i++) {
+            Worker worker = new Worker(client, baseUrl, users, deadline);
+            workers.add(worker);
+            executor.execute(worker);
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        return workers;
+    }
+
+    private static void print(Result result) {
+        System.out.printf("%-10s %10.0f req/s  p50 %6.1f ms  p99 %7.1f ms  erros %d  threads %d  conexões %d%n",
+                result.mode(), result.throughput(), result.percentile(0.5), result.percentile(0.99), result.errors(),
+                result.peakThreads(), result.peakConnections());
+    }
+
+    /**
+     * Amostra periodicamente a quantidade de conexões em uso e registra os picos de conexões e de threads da JVM.
+     */
+    private static final class Sampler implements AutoCloseable {
+
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        private final AtomicInteger peakConnections = new AtomicInteger();
+
+        Sampler(IntSupplier activeConnections) {
+            threads.resetPeakThreadCount();
+            executor.scheduleAtFixedRate(() -> peakConnections.accumulateAndGet(activeConnections.getAsInt(), Math::max),
+                    0, 10, TimeUnit.MILLISECONDS);
+        }
+
+        int peakThreads() {
+            return threads.getPeakThreadCount();
+        }
+
+        int peakConnections() {
+            return peakConnections.get();
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final int users;
+        private final long deadline;
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        Worker(HttpClient client, String baseUrl, int users, long deadline) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.users = users;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                long userId = ThreadLocalRandom.current().nextLong(users) + 1;
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + userId + "?limit=50")).build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+    }
+
+    private record Result(String mode, long[] latencies, int errors, Duration duration, int peakThreads, int peakConnections) {
+
+        Result(String mode, List<Worker> workers, Duration duration, int peakThreads, int peakConnections) {
+            this(mode, merge(workers), workers.stream().mapToInt(worker -> worker.errors).sum(), duration, peakThreads, peakConnections);
+        }
+
+        double throughput() {
+            return latencies.length / (double) duration.toSeconds();
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1)] / 1_000_000.0;
+        }
+
+        private static long[] merge(List<Worker> workers) {
+            long[] merged = workers.stream()
+                    .flatMapToLong(worker -> Arrays.stream(worker.latencies, 0, worker.count))
+                    .toArray();
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+}
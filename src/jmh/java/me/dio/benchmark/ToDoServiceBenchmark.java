@@ -0,0 +1,84 @@
+package me.dio.benchmark;
+
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import me.dio.service.ToDoSearchService;
+import me.dio.service.ToDoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dos caminhos críticos do ToDoService sobre um H2 em memória
+ * carregado com 1 mil, 100 mil ou 1 milhão de tarefas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ToDoServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int tasks;
+
+    private BenchmarkDatabase database;
+    private ToDoService toDoService;
+    private ToDoSearchService toDoSearchService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(tasks);
+        toDoService = database.getBean(ToDoService.class);
+        toDoSearchService = database.getBean(ToDoSearchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Object create() {
+        return toDoService.create("Nova tarefa", "Criada pelo benchmark", Status.PENDING, "31/12/2030",
+                randomUserId(), randomCategoryId());
+    }
+
+    @Benchmark
+    public CursorPageDto<ToDoDto> findByUserIdFirstPage() {
+        return toDoService.findByUserId(randomUserId(), null, 100, false);
+    }
+
+    @Benchmark
+    public CursorPageDto<ToDoDto> findByStatusFirstPage() {
+        return toDoService.findByStatus(Status.COMPLETED, null, 100, false);
+    }
+
+    @Benchmark
+    public void streamByUserId(Blackhole blackhole) {
+        toDoService.streamByUserId(randomUserId(), blackhole::consume);
+    }
+
+    @Benchmark
+    public CursorPageDto<ToDoDto> searchByUserId() {
+        return toDoSearchService.search("tarefa detalhada 42", randomUserId(), null, 20);
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, database.users() + 1);
+    }
+
+    private static long randomCategoryId() {
+        return ThreadLocalRandom.current().nextLong(1, BenchmarkDatabase.CATEGORIES + 1);
+    }
+}
@@ -0,0 +1,76 @@
+package me.dio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra o controle de admissão ({@link AdmissionControlInterceptor}) na frente dos controladores
+ * de tarefas, usuários e categorias. Desabilitado com todo.admission.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor interceptor;
+
+    /**
+     * @param requestsPerSecond Requisições por segundo permitidas a cada usuário.
+     * @param burst Rajada de requisições permitida a um usuário parado.
+     * @param addressRequestsPerSecond Requisições por segundo permitidas a cada endereço, somados todos os usuários.
+     * @param addressBurst Rajada de requisições permitida a um endereço parado.
+     * @param maxClients Quantidade máxima de usuários e de endereços acompanhados pelos limitadores.
+     * @param maxConcurrent Quantidade máxima de requisições em andamento.
+     * @param maxWaitingForConnection Threads aguardando conexão a partir das quais novas requisições são recusadas.
+     * @param dataSources DataSources da aplicação, dos quais são obtidos os pools do Hikari.
+     * @param meterRegistry Registro das métricas.
+     */
+    public AdmissionControlConfig(@Value("${todo.admission.requests-per-second:50}") double requestsPerSecond,
+                                  @Value("${todo.admission.burst:100}") int burst,
+                                  @Value("${todo.admission.address-requests-per-second:200}") double addressRequestsPerSecond,
+                                  @Value("${todo.admission.address-burst:400}") int addressBurst,
+                                  @Value("${todo.admission.max-clients:100000}") long maxClients,
+                                  @Value("${todo.admission.max-concurrent:150}") int maxConcurrent,
+                                  @Value("${todo.admission.max-waiting-for-connection:${spring.datasource.hikari.maximum-pool-size:10}}") int maxWaitingForConnection,
+                                  ObjectProvider<DataSource> dataSources,
+                                  MeterRegistry meterRegistry) {
+        this.interceptor = new AdmissionControlInterceptor(new TokenBucketRateLimiter(requestsPerSecond, burst, maxClients),
+                new TokenBucketRateLimiter(addressRequestsPerSecond, addressBurst, maxClients),
+                maxConcurrent, maxWaitingForConnection, hikariPools(dataSources), meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/todos/**", "/api/users/**", "/api/categories/**");
+    }
+
+    /**
+     * Obtém os pools do Hikari, inclusive os envolvidos por outros DataSources, como o limitador do perfil "vt".
+     */
+    private static List<HikariDataSource> hikariPools(ObjectProvider<DataSource> dataSources) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        dataSources.orderedStream().forEach(dataSource -> {
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+                    if (pools.stream().noneMatch(existing -> existing == pool)) {
+                        pools.add(pool);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Falha ao obter o pool de conexões.", e);
+            }
+        });
+        return pools;
+    }
+}
@@ -0,0 +1,166 @@
+package me.dio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import me.dio.controller.exception.TooManyRequestsException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controle de admissão das requisições da API, aplicado antes dos controladores:
+ * <ul>
+ *     <li>limite de taxa por endereço do cliente e, nas requisições de um usuário, por usuário
+ *     ({@link TokenBucketRateLimiter}). O userId do caminho ou dos parâmetros é informado pelo próprio
+ *     cliente, por isso o bucket do usuário é também separado por endereço: um cliente não esgota o limite
+ *     de outro usuário, e variar o userId não escapa do limite do seu endereço;</li>
+ *     <li>limite global de requisições em andamento;</li>
+ *     <li>recusa de novas requisições enquanto o pool de conexões estiver saturado, isto é, com threads
+ *     demais aguardando uma conexão.</li>
+ * </ul>
+ * As requisições recusadas recebem 429 com Retry-After e são contadas em todo.admission.rejected, por motivo.
+ * Requisições assíncronas (SSE e exportações) deixam de contar como em andamento quando a thread do Tomcat é liberada.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = AdmissionControlInterceptor.class.getName() + ".ADMITTED";
+    private static final Duration SATURATED_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final TokenBucketRateLimiter addressRateLimiter;
+    private final int maxConcurrent;
+    private final int maxWaitingForConnection;
+    private final List<HikariDataSource> pools;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rateLimited;
+    private final Counter concurrencyLimited;
+    private final Counter poolSaturated;
+
+    /**
+     * @param rateLimiter Limitador de taxa por usuário e endereço.
+     * @param addressRateLimiter Limitador de taxa por endereço, aplicado a todas as requisições.
+     * @param maxConcurrent Quantidade máxima de requisições em andamento.
+     * @param maxWaitingForConnection Threads aguardando conexão a partir das quais o pool é considerado saturado.
+     * @param pools Pools de conexões observados.
+     * @param meterRegistry Registro das métricas.
+     */
+    public AdmissionControlInterceptor(TokenBucketRateLimiter rateLimiter, TokenBucketRateLimiter addressRateLimiter,
+                                       int maxConcurrent, int maxWaitingForConnection,
+                                       List<HikariDataSource> pools, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.addressRateLimiter = addressRateLimiter;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitingForConnection = maxWaitingForConnection;
+        this.pools = pools;
+        this.rateLimited = rejections(meterRegistry, "rate-limit");
+        this.concurrencyLimited = rejections(meterRegistry, "concurrency");
+        this.poolSaturated = rejections(meterRegistry, "pool-saturated");
+        Gauge.builder("todo.admission.in-flight", inFlight, AtomicInteger::get)
+                .description("API requests admitted and still being handled")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Na continuação de uma requisição assíncrona a admissão já foi feita
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String address = request.getRemoteAddr();
+        String userId = userId(request);
+        String client = "ip:" + address;
+        Duration retryAfter = addressRateLimiter.tryAcquire(address);
+        if (retryAfter.isZero() && userId != null) {
+            client = "user:" + userId + "@" + address;
+            retryAfter = rateLimiter.tryAcquire(client);
+        }
+        if (!retryAfter.isZero()) {
+            rateLimited.increment();
+            throw new TooManyRequestsException("Limite de requisições excedido para " + client + ".", retryAfter);
+        }
+        if (isPoolSaturated()) {
+            poolSaturated.increment();
+            throw new TooManyRequestsException("Servidor sobrecarregado: pool de conexões saturado.", SATURATED_RETRY_AFTER);
+        }
+        if (!tryEnter()) {
+            concurrencyLimited.increment();
+            throw new TooManyRequestsException("Servidor sobrecarregado: limite de requisições simultâneas atingido.",
+                    SATURATED_RETRY_AFTER);
+        }
+        request.setAttribute(ADMITTED, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private boolean tryEnter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private boolean isPoolSaturated() {
+        for (HikariDataSource pool : pools) {
+            // O MXBean só existe depois que o pool é iniciado, na primeira conexão
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null && mxBean.getThreadsAwaitingConnection() >= maxWaitingForConnection) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * userId do caminho ou dos parâmetros, ou o ID do caminho em /api/users/{id}; null nas requisições sem usuário.
+     */
+    @SuppressWarnings("unchecked")
+    private static String userId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String userId = variables != null ? variables.get("userId") : null;
+        if (userId == null) {
+            userId = request.getParameter("userId");
+        }
+        if (userId == null && variables != null && request.getRequestURI().startsWith("/api/users/")) {
+            userId = variables.get("id");
+        }
+        return userId;
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("todo.admission.rejected")
+                .description("API requests rejected with 429 by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package me.dio.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuração das codificações binárias das respostas da API, escolhidas pelo cabeçalho Accept:
+ * Smile (application/x-jackson-smile) e CBOR (application/cbor). Sem um desses tipos no Accept
+ * a resposta continua em JSON, comprimida com gzip pelo servidor (server.compression).
+ * Os conversores usam a mesma configuração do Jackson das respostas JSON, de modo que os DTOs têm
+ * a mesma estrutura nas três codificações.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    /**
+     * Tipo de mídia do Smile.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Cria a fábrica do Smile usada nas respostas. Além dos nomes dos campos, os valores de texto curtos
+     * repetidos, como os status e os nomes das categorias, são escritos uma vez e depois referenciados
+     * por um índice de um ou dois bytes.
+     *
+     * @return Fábrica do Smile.
+     */
+    public static SmileFactory smileFactory() {
+        return SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+
+    /**
+     * Cria a fábrica do CBOR usada nas respostas. A extensão stringref, que também referenciaria os textos
+     * repetidos, não é habilitada porque não é suportada pela maioria das bibliotecas CBOR dos clientes.
+     *
+     * @return Fábrica do CBOR.
+     */
+    public static CBORFactory cborFactory() {
+        return CBORFactory.builder().build();
+    }
+
+    /**
+     * Conversor das respostas em Smile. Substitui o conversor padrão do Spring na mesma posição,
+     * depois do conversor JSON, que continua sendo a codificação usada quando o Accept aceita qualquer tipo.
+     *
+     * @param builder Builder do ObjectMapper configurado pelo Spring Boot.
+     * @return Conversor Smile.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(smileFactory()).build());
+    }
+
+    /**
+     * Conversor das respostas em CBOR, também posicionado depois do conversor JSON.
+     *
+     * @param builder Builder do ObjectMapper configurado pelo Spring Boot.
+     * @return Conversor CBOR.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(cborFactory()).build());
+    }
+}
@@ -0,0 +1,44 @@
+package me.dio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuração do cache em memória usado na verificação de existência de categorias por nome.
+ * Usuários e categorias por ID não passam por este cache: são entidades gerenciadas, servidas pelo
+ * cache de segundo nível do Hibernate (regiões users e categories), que já é invalidado a cada alteração.
+ * O provedor pode ser trocado pela propriedade spring.cache.type; quando o Caffeine é usado,
+ * os caches são limitados em tamanho, expiram por tempo e registram estatísticas de acertos,
+ * falhas e remoções, publicadas pelo Actuator em /actuator/metrics/cache.gets e cache.evictions.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache da verificação de existência de categorias por nome.
+     */
+    public static final String CATEGORY_NAMES = "categoryNames";
+
+    /**
+     * Aplica a especificação de tamanho, expiração e estatísticas aos caches do Caffeine.
+     * Os caches são criados na inicialização para que suas métricas sejam registradas.
+     *
+     * @param spec Especificação do Caffeine (propriedade todo.cache.spec).
+     * @return Customizador do CaffeineCacheManager.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> caffeineCacheManagerCustomizer(
+            @Value("${todo.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+        return cacheManager -> {
+            cacheManager.setCacheSpecification(spec);
+            cacheManager.setCacheNames(List.of(CATEGORY_NAMES));
+        };
+    }
+}
@@ -0,0 +1,257 @@
+package me.dio.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import me.dio.controller.dto.IdempotentResponseDto;
+import me.dio.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtro que torna idempotente a criação de tarefas e de usuários quando o cliente envia o cabeçalho
+ * {@value #IDEMPOTENCY_KEY_HEADER}: a primeira resposta (exceto erros 5xx e 429, que podem ser repetidos)
+ * é registrada no {@link IdempotencyService} e devolvida nas repetições da requisição, sem chegar ao controlador.
+ * Repetições simultâneas aguardam a requisição em andamento em vez de competirem com ela, e a mesma chave
+ * usada com outra requisição é recusada com 422.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    /**
+     * Cabeçalho com a chave de idempotência escolhida pelo cliente.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Cabeçalho adicionado às respostas devolvidas a partir do registro.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/api/todos", "/api/users");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final Duration waitTimeout;
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             @Value("${todo.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.idempotencyService = idempotencyService;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getMethod().equals("POST")
+                || !IDEMPOTENT_PATHS.contains(request.getRequestURI())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, "O cabeçalho Idempotency-Key deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres.");
+            return;
+        }
+        String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedRequest);
+
+        while (true) {
+            Optional<IdempotentResponseDto> stored = idempotencyService.find(key);
+            if (stored.isPresent()) {
+                replay(stored.get(), fingerprint, response);
+                return;
+            }
+            CompletableFuture<Void> execution = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, execution);
+            if (running == null) {
+                try {
+                    execute(key, fingerprint, cachedRequest, response, filterChain);
+                } finally {
+                    inFlight.remove(key, execution);
+                    execution.complete(null);
+                }
+                return;
+            }
+            // Aguarda a requisição com a mesma chave; se ela não registrar uma resposta, esta a executa
+            if (!await(running)) {
+                reject(response, HttpStatus.CONFLICT, "Uma requisição com a mesma Idempotency-Key ainda está em andamento.");
+                return;
+            }
+        }
+    }
+
+    private void execute(String key, String fingerprint, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        // Uma repetição pode ter sido registrada entre a consulta e a reserva da chave
+        Optional<IdempotentResponseDto> stored = idempotencyService.find(key);
+        if (stored.isPresent()) {
+            replay(stored.get(), fingerprint, response);
+            return;
+        }
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, cachingResponse);
+        int status = cachingResponse.getStatus();
+        if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+            idempotencyService.save(key, new IdempotentResponseDto(fingerprint, status, cachingResponse.getContentType(),
+                    cachingResponse.getHeader(HttpHeaders.LOCATION), cachingResponse.getContentAsByteArray()));
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    private boolean await(CompletableFuture<Void> running) throws ServletException {
+        try {
+            running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrompido aguardando a requisição com a mesma Idempotency-Key.", e);
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    private static void replay(IdempotentResponseDto stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, "A Idempotency-Key já foi usada com outra requisição.");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    /**
+     * Hash SHA-256 dos parâmetros e do corpo da requisição.
+     */
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+                digest.update(parameter.getKey().getBytes(StandardCharsets.UTF_8));
+                for (String value : parameter.getValue()) {
+                    digest.update((byte) 0);
+                    digest.update(value.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) '\n');
+            }
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Requisição cujo corpo é lido uma vez, para o hash, e depois entregue de novo ao controlador.
+     * Nos formulários o corpo é lido pelo contêiner como parâmetros e não é copiado.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            String contentType = request.getContentType();
+            boolean form = contentType != null && contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+            this.body = form ? new byte[0] : request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // O corpo já está em memória: fica todo disponível de imediato, sem esperar pelo contêiner
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
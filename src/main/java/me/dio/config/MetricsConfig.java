@@ -0,0 +1,65 @@
+package me.dio.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import me.dio.metrics.EntityLoadCountingInterceptor;
+import me.dio.metrics.QueryCountingStatementInspector;
+import me.dio.metrics.RequestQueryStatsCallableInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuração da instrumentação por requisição: latência por endpoint com percentis
+ * e contagem de comandos SQL e de entidades carregadas pelo Hibernate.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    /**
+     * Registra no Hibernate os contadores de comandos SQL e de entidades carregadas.
+     *
+     * @return Customizador das propriedades do Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryStatsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+        };
+    }
+
+    /**
+     * Estende a contagem às threads que escrevem as respostas assíncronas (StreamingResponseBody).
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new RequestQueryStatsCallableInterceptor());
+    }
+
+    /**
+     * Publica os percentis p50 e p99 e o histograma da latência das requisições HTTP (http.server.requests).
+     *
+     * @return Filtro de métricas.
+     */
+    @Bean
+    public MeterFilter httpServerRequestsPercentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals("http.server.requests")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.99)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package me.dio.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Configuração do perfil "reactive": pool de conexões R2DBC com o mesmo banco do JPA e
+ * servidor Netty que atende as rotas funcionais de tarefas em uma porta própria.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Cliente R2DBC sobre um pool de conexões com as mesmas credenciais do DataSource JDBC.
+     * O pool não é exposto como bean de ConnectionFactory, o que faria a auto-configuração
+     * do DataSource (e portanto do JPA) ser desativada.
+     *
+     * @param url URL R2DBC do banco (ex.: r2dbc:postgresql://localhost:5432/todo).
+     * @param username Usuário do banco.
+     * @param password Senha do banco.
+     * @param maxConnections Quantidade máxima de conexões do pool.
+     * @return Cliente R2DBC.
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${todo.reactive.url}") String url,
+                                                 @Value("${spring.datasource.username:}") String username,
+                                                 @Value("${spring.datasource.password:}") String password,
+                                                 @Value("${todo.reactive.max-connections:10}") int maxConnections) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(Math.min(2, maxConnections))
+                .maxSize(maxConnections)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Servidor Netty das rotas reativas, que usa o mesmo ObjectMapper da API MVC.
+     *
+     * @param routes Rotas funcionais.
+     * @param objectMapper ObjectMapper da aplicação.
+     * @param port Porta do servidor reativo.
+     * @return Servidor reativo.
+     */
+    @Bean
+    public ReactiveServer reactiveServer(RouterFunction<ServerResponse> routes, ObjectMapper objectMapper,
+                                         @Value("${todo.reactive.port:8081}") int port) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveServer(RouterFunctions.toHttpHandler(routes, strategies), port);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
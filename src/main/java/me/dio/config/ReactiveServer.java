@@ -0,0 +1,57 @@
+package me.dio.config;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Servidor Netty da variante reativa da API, iniciado e encerrado junto com o contexto da aplicação,
+ * em uma porta própria ao lado do Tomcat.
+ */
+public class ReactiveServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private volatile DisposableServer server;
+
+    /**
+     * @param httpHandler Handler HTTP com as rotas reativas.
+     * @param port Porta do servidor; 0 escolhe uma porta livre.
+     */
+    public ReactiveServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Porta em que o servidor está atendendo.
+     * @return Porta do servidor.
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
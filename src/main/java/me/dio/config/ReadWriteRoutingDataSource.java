@@ -0,0 +1,171 @@
+package me.dio.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * DataSource que envia as transações somente leitura (@Transactional(readOnly = true)) para a réplica
+ * e todo o resto para o banco primário.
+ * A réplica só é usada enquanto o atraso medido pela última verificação ({@link #checkReplica()}) estiver
+ * dentro do limite configurado; se o atraso passar do limite, a verificação falhar ou a réplica recusar
+ * uma conexão, as leituras voltam ao primário até a próxima verificação bem-sucedida.
+ * A thread atual pode ainda ser fixada no primário ({@link #stickToPrimary()}), para que um cliente leia
+ * as próprias gravações logo depois de fazê-las.
+ * <p>
+ * A decisão é tomada quando a conexão é obtida, por isso este DataSource deve ficar atrás de um
+ * LazyConnectionDataSourceProxy, que só obtém a conexão no primeiro comando SQL, depois de a transação
+ * ter sido marcada como somente leitura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private volatile boolean replicaAvailable;
+    private volatile double replicaLagSeconds = Double.NaN;
+
+    /**
+     * @param primary DataSource do banco primário, usado nas gravações.
+     * @param replica DataSource da réplica, usado nas transações somente leitura.
+     * @param maxLag Atraso máximo da réplica para que ela continue recebendo leituras.
+     * @param lagQuery Consulta executada na réplica que retorna o atraso em segundos; vazia para apenas testar a conexão.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+    }
+
+    /**
+     * Fixa no primário as conexões obtidas pela thread atual até {@link #clearStickiness()}.
+     */
+    public static void stickToPrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    /**
+     * Desfaz {@link #stickToPrimary()} na thread atual.
+     */
+    public static void clearStickiness() {
+        PRIMARY_ONLY.remove();
+    }
+
+    /**
+     * Indica se a thread atual está fixada no primário por {@link #stickToPrimary()}.
+     * @return true se as conexões da thread atual vão sempre ao primário.
+     */
+    public static boolean isStuckToPrimary() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!useReplica()) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!useReplica()) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaUnavailable(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    /**
+     * Mede o atraso da réplica e decide se ela continua recebendo as leituras.
+     * Chamado periodicamente pela configuração do perfil "replica"; até a primeira verificação
+     * todas as leituras vão ao primário.
+     */
+    public void checkReplica() {
+        double lagSeconds;
+        try (Connection connection = replica.getConnection()) {
+            lagSeconds = measureLag(connection);
+        } catch (SQLException | RuntimeException e) {
+            markReplicaUnavailable(e);
+            return;
+        }
+        boolean available = lagSeconds * 1000 <= maxLag.toMillis();
+        if (available != replicaAvailable) {
+            log.info(available ? "Réplica disponível para leituras (atraso de {}s)."
+                    : "Réplica com atraso de {}s, acima do limite; leituras enviadas ao primário.", lagSeconds);
+        }
+        replicaLagSeconds = lagSeconds;
+        replicaAvailable = available;
+    }
+
+    /**
+     * Indica se a réplica está recebendo as leituras.
+     * @return true se a última verificação encontrou a réplica dentro do atraso máximo.
+     */
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Atraso da réplica medido pela última verificação.
+     * @return Atraso em segundos, ou NaN se a réplica não pôde ser consultada.
+     */
+    public double getReplicaLagSeconds() {
+        return replicaLagSeconds;
+    }
+
+    private boolean useReplica() {
+        return replicaAvailable
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && PRIMARY_ONLY.get() == null;
+    }
+
+    private double measureLag(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(lagQuery)) {
+            if (!connection.isValid((int) Math.max(1, maxLag.toSeconds()))) {
+                throw new SQLException("Conexão com a réplica inválida.");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                throw new SQLException("A consulta de atraso da réplica não retornou linhas.");
+            }
+            return resultSet.getDouble(1);
+        }
+    }
+
+    private void markReplicaUnavailable(Exception e) {
+        if (replicaAvailable) {
+            log.warn("Réplica indisponível; leituras enviadas ao primário: {}", e.getMessage());
+        }
+        replicaAvailable = false;
+        replicaLagSeconds = Double.NaN;
+    }
+}
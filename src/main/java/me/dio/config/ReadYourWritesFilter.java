@@ -0,0 +1,92 @@
+package me.dio.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Filtro que garante a leitura das próprias gravações com a réplica de leitura.
+ * As requisições que alteram dados (POST, PUT, PATCH e DELETE) são atendidas inteiramente pelo primário
+ * e devolvem o cookie {@value #COOKIE_NAME}; enquanto o cookie for válido, as leituras do mesmo cliente
+ * também vão ao primário, de modo que uma alteração não "desaparece" na leitura seguinte por causa do
+ * atraso da réplica. Depois desse tempo a réplica já terá recebido a alteração ou estará fora das leituras.
+ * Executa antes dos filtros da aplicação, como o {@link IdempotencyFilter}, para que as consultas feitas
+ * por eles também sigam essa regra.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter implements Ordered {
+
+    /**
+     * Cookie com o instante, em milissegundos, até o qual as leituras do cliente vão ao primário.
+     */
+    public static final String COOKIE_NAME = "todo-primary-until";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Duration stickyFor;
+
+    /**
+     * @param stickyFor Tempo em que as leituras continuam no primário depois de uma alteração.
+     */
+    public ReadYourWritesFilter(Duration stickyFor) {
+        this.stickyFor = stickyFor;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean mutating = MUTATING_METHODS.contains(request.getMethod());
+        if (mutating) {
+            // O cookie é enviado antes do corpo da resposta, que pode ser gravado em partes
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + stickyFor.toMillis()));
+            cookie.setPath("/api");
+            cookie.setMaxAge((int) Math.max(1, stickyFor.toSeconds()));
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (!mutating && !isSticky(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadWriteRoutingDataSource.stickToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.clearStickiness();
+        }
+    }
+
+    private static boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookie.getName().equals(COOKIE_NAME)) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,154 @@
+package me.dio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuração do perfil "replica": as transações somente leitura são atendidas por uma réplica de leitura
+ * (todo.replica.*) e as gravações pelo banco de spring.datasource.
+ * O DataSource da aplicação passa a ser o {@link ReadWriteRoutingDataSource}, atrás de um
+ * LazyConnectionDataSourceProxy, com um pool do Hikari para cada banco ("primary" e "replica").
+ */
+@Configuration
+@Profile("replica")
+public class ReplicaRoutingConfig {
+
+    /**
+     * Pool do banco primário, configurado por spring.datasource como o pool padrão do Spring Boot.
+     *
+     * @param properties Propriedades de spring.datasource.
+     * @return Pool do primário.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Pool da réplica de leitura. Usuário e senha são os do primário, a menos que informados em todo.replica.
+     *
+     * @param url URL JDBC da réplica.
+     * @param username Usuário da réplica.
+     * @param password Senha da réplica.
+     * @return Pool da réplica.
+     */
+    @Bean
+    @ConfigurationProperties("todo.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${todo.replica.url}") String url,
+                                              @Value("${todo.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${todo.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Roteamento entre o primário e a réplica.
+     *
+     * @param primary Pool do primário.
+     * @param replica Pool da réplica.
+     * @param maxLag Atraso máximo da réplica para que ela continue recebendo leituras.
+     * @param lagQuery Consulta que retorna o atraso da réplica em segundos.
+     * @return DataSource de roteamento.
+     */
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                                 @Qualifier("replicaDataSource") DataSource replica,
+                                                                 @Value("${todo.replica.max-lag:5s}") Duration maxLag,
+                                                                 @Value("${todo.replica.lag-query:}") String lagQuery) {
+        return new ReadWriteRoutingDataSource(primary, replica, maxLag, lagQuery);
+    }
+
+    /**
+     * Agenda a verificação do atraso da réplica, a primeira logo após a inicialização.
+     *
+     * @param routing DataSource de roteamento.
+     * @param checkInterval Intervalo entre as verificações.
+     * @return Configuração da tarefa agendada.
+     */
+    @Bean
+    public SchedulingConfigurer replicaCheck(ReadWriteRoutingDataSource routing,
+                                             @Value("${todo.replica.check-interval:1s}") Duration checkInterval) {
+        return registrar -> registrar.addFixedDelayTask(routing::checkReplica, checkInterval);
+    }
+
+    /**
+     * DataSource usado pelo JPA e pelos demais componentes da aplicação.
+     *
+     * @param routing DataSource de roteamento.
+     * @return Proxy que adia a obtenção da conexão até o primeiro comando SQL.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Faz o Hibernate devolver a conexão ao fim de cada transação, em vez de mantê-la até o fim da requisição
+     * (open-in-view), para que cada transação seja roteada para o banco adequado.
+     *
+     * @return Customizador das propriedades do Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * Filtro que mantém as leituras de um cliente no primário logo depois de uma alteração.
+     *
+     * @param stickyFor Tempo em que as leituras continuam no primário; por padrão o atraso máximo da réplica.
+     * @return Filtro de leitura das próprias gravações.
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${todo.replica.sticky-for:${todo.replica.max-lag:5s}}") Duration stickyFor) {
+        return new ReadYourWritesFilter(stickyFor);
+    }
+
+    /**
+     * Publica o atraso e a disponibilidade da réplica (todo.replica.lag e todo.replica.available).
+     *
+     * @param routing DataSource de roteamento.
+     * @return Registro das métricas.
+     */
+    @Bean
+    public MeterBinder replicaMetrics(ReadWriteRoutingDataSource routing) {
+        return registry -> {
+            Gauge.builder("todo.replica.lag", routing, ReadWriteRoutingDataSource::getReplicaLagSeconds)
+                    .description("Replica lag measured by the last check")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("todo.replica.available", routing, r -> r.isReplicaAvailable() ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package me.dio.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas com @Scheduled, como o arquivamento de tarefas encerradas.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
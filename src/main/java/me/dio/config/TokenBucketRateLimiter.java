@@ -0,0 +1,61 @@
+package me.dio.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de taxa por cliente no modelo de token bucket, implementado pelo algoritmo GCRA:
+ * em vez de contar fichas, cada cliente guarda apenas o instante teórico da próxima chegada (TAT),
+ * atualizado com compare-and-set, sem locks e sem uma thread para repor as fichas.
+ * Os estados ficam em um cache do Caffeine, limitado em quantidade e dividido internamente em segmentos;
+ * um cliente parado por mais tempo que o necessário para encher o bucket é descartado, pois o estado
+ * de um bucket cheio é igual ao de um cliente novo.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param permitsPerSecond Taxa sustentada de requisições por cliente.
+     * @param burst Quantidade de requisições que um cliente parado pode fazer de uma vez.
+     * @param maxClients Quantidade máxima de clientes acompanhados.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, long maxClients) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("A taxa deve ser positiva e a rajada de pelo menos uma requisição.");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(emissionIntervalNanos + burstToleranceNanos))
+                .build();
+    }
+
+    /**
+     * Consome uma ficha do bucket do cliente.
+     *
+     * @param key Identificação do cliente.
+     * @return Zero se a requisição foi admitida; caso contrário, o tempo até haver uma ficha disponível.
+     */
+    public Duration tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = current - now > 0 ? current : now;
+            long allowedAt = base - burstToleranceNanos;
+            if (allowedAt - now > 0) {
+                return Duration.ofNanos(allowedAt - now);
+            }
+            if (theoreticalArrival.compareAndSet(current, base + emissionIntervalNanos)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package me.dio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+/**
+ * Configuração do perfil "vt", em que o Tomcat atende as requisições com virtual threads
+ * (spring.threads.virtual.enabled) e o acesso ao banco é limitado por um semáforo do tamanho do pool do Hikari.
+ * Exige Java 21; compile e execute com -PvirtualThreads.
+ */
+@Configuration
+@Profile("vt")
+public class VirtualThreadConfig {
+
+    public VirtualThreadConfig() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("O perfil vt exige Java 21 ou superior; execute com -PvirtualThreads.");
+        }
+    }
+
+    /**
+     * Envolve cada pool do Hikari com o limitador de conexões simultâneas. Apenas os pools são envolvidos:
+     * os DataSources montados sobre eles, como o roteamento e o proxy do perfil "replica", já passam pelo
+     * limitador do pool que escolhem, e envolvê-los somaria semáforos na mesma conexão.
+     *
+     * @param maxConcurrency Quantidade máxima de conexões em uso ao mesmo tempo em cada pool, limitada ao tamanho do pool.
+     * @param acquireTimeout Tempo máximo de espera por uma vaga.
+     * @return Pós-processador que substitui os pools.
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(
+            @Value("${todo.db.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+            @Value("${todo.db.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConcurrencyLimitingDataSource(pool, Math.min(maxConcurrency, pool.getMaximumPoolSize()), acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
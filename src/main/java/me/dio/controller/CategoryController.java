@@ -2,10 +2,16 @@ package me.dio.controller;
 
 import me.dio.domain.model.Category;
 import me.dio.controller.dto.CategoryDto;
+import me.dio.controller.dto.PurgeJobDto;
+import me.dio.controller.dto.ToDoStatsDto;
 import me.dio.service.CategoryService;
+import me.dio.service.PurgeService;
+import me.dio.service.ToDoStatsService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,15 +24,20 @@ import java.util.NoSuchElementException;
 
 /**
  * Controlador REST para operações relacionadas a categorias.
+ * As respostas podem ser pedidas em Smile ou CBOR pelo cabeçalho Accept.
  */
 @RestController
 @RequestMapping("/api/categories")
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ToDoStatsService toDoStatsService;
+    private final PurgeService purgeService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ToDoStatsService toDoStatsService, PurgeService purgeService) {
         this.categoryService = categoryService;
+        this.toDoStatsService = toDoStatsService;
+        this.purgeService = purgeService;
     }
 
     /**
@@ -54,6 +65,7 @@ public class CategoryController {
 
     /**
      * Recupera uma categoria pelo ID.
+     * O ETag é a versão da categoria, fraco e acompanhado de Vary: Accept; com If-None-Match igual à versão atual a resposta é 304, sem corpo.
      *
      * @param id ID da categoria a ser recuperada.
      * @return Resposta com a categoria encontrada ou um status de não encontrado.
@@ -62,39 +74,66 @@ public class CategoryController {
     @Operation(summary = "Get category by ID", description = "Retrieve category details by category ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Category found"),
+            @ApiResponse(responseCode = "304", description = "Category not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
     public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
         try {
             Category category = categoryService.findById(id);
-            return ResponseEntity.ok(new CategoryDto(category));
+            return ResponseEntity.ok().eTag(ETags.version(category.getVersion())).varyBy(HttpHeaders.ACCEPT).body(new CategoryDto(category));
         } catch (NoSuchElementException e) {
             throw new NoSuchElementException("Categoria não encontrada com o ID: " + id);
         }
     }
 
+    /**
+     * Recupera as estatísticas das tarefas de uma categoria.
+     *
+     * @param id ID da categoria.
+     * @return Resposta com a quantidade de tarefas por status, o total e as vencidas.
+     */
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Get category task stats", description = "Retrieve the number of tasks per status, the total and the overdue tasks of a category.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stats retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ResponseEntity<ToDoStatsDto> getCategoryStats(@PathVariable Long id) {
+        categoryService.findById(id);
+        return ResponseEntity.ok(toDoStatsService.findCategoryStats(id));
+    }
+
     /**
      * Recupera todas as categorias.
+     * O ETag é obtido com uma consulta agregada, de modo que uma resposta 304 não carrega nenhuma categoria.
      *
+     * @param request Requisição, usada para avaliar o If-None-Match.
      * @return Resposta com a lista de todas as categorias.
      */
     @GetMapping
     @Operation(summary = "Get all categories", description = "Retrieve all categories in the system.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of categories")
+            @ApiResponse(responseCode = "200", description = "List of categories"),
+            @ApiResponse(responseCode = "304", description = "Categories not modified since the ETag in If-None-Match")
     })
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request) {
+        String eTag = ETags.weak(categoryService.versionTag());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<Category> categories = categoryService.findAll();
         List<CategoryDto> categoryDtos = categories.stream()
                 .map(CategoryDto::new)
                 .toList();
-        return ResponseEntity.ok(categoryDtos);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(categoryDtos);
     }
 
     /**
      * Atualiza uma categoria existente.
+     * Com If-Match, a categoria só é atualizada se ainda estiver na versão informada.
      *
      * @param id           ID da categoria a ser atualizada.
+     * @param ifMatch      ETag da versão sobre a qual a alteração foi feita (opcional).
      * @param categoryDto  Dados atualizados da categoria.
      * @return Resposta com a categoria atualizada ou um status de não encontrado.
      */
@@ -103,17 +142,21 @@ public class CategoryController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Category updated successfully"),
             @ApiResponse(responseCode = "404", description = "Category not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid category data provided")
+            @ApiResponse(responseCode = "400", description = "Invalid category data provided"),
+            @ApiResponse(responseCode = "412", description = "Category no longer matches the version in If-Match")
     })
-    public ResponseEntity<CategoryDto> update(@PathVariable Long id, @Valid @RequestBody CategoryDto categoryDto) {
+    public ResponseEntity<CategoryDto> update(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @Valid @RequestBody CategoryDto categoryDto) {
         try {
-            // Converte DTO para entidade
+            // Converte DTO para entidade, com a versão esperada
             Category categoryToUpdate = categoryDto.toModel();
+            categoryToUpdate.setVersion(ETags.expectedVersion(ifMatch));
             // Atualiza a categoria no serviço
             Category updatedCategory = categoryService.update(id, categoryToUpdate);
 
-            // Retorna a resposta com a categoria atualizada
-            return ResponseEntity.ok(new CategoryDto(updatedCategory));
+            // Retorna a resposta com a categoria atualizada e o ETag da nova versão
+            return ResponseEntity.ok().eTag(ETags.version(updatedCategory.getVersion())).varyBy(HttpHeaders.ACCEPT).body(new CategoryDto(updatedCategory));
         } catch (NoSuchElementException e) {
             // Categoria não encontrada
             throw new NoSuchElementException("Categoria não encontrada com o ID: " + id);
@@ -143,4 +186,22 @@ public class CategoryController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+
+    /**
+     * Inicia a remoção em segundo plano de uma categoria e de todas as suas tarefas, indicada para categorias
+     * com muitas tarefas. O andamento é consultado no endereço retornado em Location.
+     *
+     * @param id ID da categoria a ser removida.
+     * @return Resposta com o andamento da remoção.
+     */
+    @PostMapping("/{id}/purge")
+    @Operation(summary = "Purge a category", description = "Delete a category and all its tasks in the background, in chunks; poll the job in the Location header for progress")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Purge started, or already running for this category"),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ResponseEntity<PurgeJobDto> purgeCategory(@PathVariable Long id) {
+        PurgeJobDto job = purgeService.purgeCategory(id);
+        return ResponseEntity.accepted().location(URI.create(String.format("/api/purge-jobs/%s", job.id()))).body(job);
+    }
 }
@@ -0,0 +1,76 @@
+package me.dio.controller;
+
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.repository.VersionSummary;
+
+/**
+ * Leitura das versões informadas nas requisições condicionais.
+ * O ETag de um recurso é a sua versão; o de uma listagem, o resumo das versões dos registros listados.
+ * Os dois são fracos: a mesma versão é servida em JSON, Smile ou CBOR conforme o Accept, que as respostas
+ * declaram em Vary, e um ETag forte afirmaria que os bytes das três codificações são os mesmos.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Monta o ETag fraco de uma listagem. O resumo das versões identifica o conteúdo da listagem, e não os bytes
+     * da resposta, que mudam com a codificação (JSON, Smile, CBOR) e com o gzip; um ETag forte também impediria
+     * o Tomcat de comprimir a resposta.
+     *
+     * @param versionTag Resumo das versões dos registros listados.
+     * @return ETag fraco da listagem.
+     */
+    static String weak(String versionTag) {
+        return "W/\"" + versionTag + "\"";
+    }
+
+    /**
+     * Monta o ETag fraco de uma página de tarefas a partir das tarefas retornadas, sem nova consulta;
+     * é igual ao ETag de {@code versionTagByUserId} e {@code versionTagByStatus} para a mesma página.
+     *
+     * @param page Página de tarefas.
+     * @return ETag fraco da página.
+     */
+    static String page(CursorPageDto<ToDoDto> page) {
+        return weak(VersionSummary.tag(page, ToDoDto::id, ToDoDto::version));
+    }
+
+    /**
+     * Monta o ETag fraco de um recurso a partir da sua versão.
+     *
+     * @param version Versão do recurso.
+     * @return ETag fraco do recurso.
+     */
+    static String version(long version) {
+        return weak(String.valueOf(version));
+    }
+
+    /**
+     * Converte o cabeçalho If-Match na versão esperada do recurso. O ETag fraco retornado na consulta é aceito:
+     * ele identifica a versão, que é o que a alteração condicional compara, e não a codificação da resposta.
+     *
+     * @param ifMatch Valor do cabeçalho If-Match, ou null.
+     * @return Versão esperada, ou null se o cabeçalho estiver ausente ou for "*".
+     * @throws IllegalArgumentException se o cabeçalho não contiver um único ETag de versão.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Tratado abaixo com a mesma mensagem
+            }
+        }
+        throw new IllegalArgumentException("If-Match deve conter o ETag retornado na consulta do recurso: " + ifMatch);
+    }
+}
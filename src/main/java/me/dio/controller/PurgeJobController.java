@@ -0,0 +1,42 @@
+package me.dio.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import me.dio.controller.dto.PurgeJobDto;
+import me.dio.service.PurgeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST para o acompanhamento das remoções em segundo plano de usuários e categorias.
+ */
+@RestController
+@RequestMapping("/api/purge-jobs")
+public class PurgeJobController {
+
+    private final PurgeService purgeService;
+
+    public PurgeJobController(PurgeService purgeService) {
+        this.purgeService = purgeService;
+    }
+
+    /**
+     * Consulta o andamento de uma remoção.
+     *
+     * @param jobId Identificador da remoção, retornado ao iniciá-la.
+     * @return Resposta com a situação e a quantidade de tarefas já removidas.
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get purge job status", description = "Retrieve the state and progress of a user or category purge")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Purge job found"),
+            @ApiResponse(responseCode = "404", description = "Purge job not found or already expired")
+    })
+    public ResponseEntity<PurgeJobDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(purgeService.findJob(jobId));
+    }
+}
@@ -0,0 +1,125 @@
+package me.dio.controller;
+
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.DueDatePageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import me.dio.domain.repository.ReactiveToDoRepository;
+import me.dio.service.ToDoService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+
+/**
+ * Handlers das rotas reativas de tarefas, equivalentes às consultas do ToDoController.
+ * As listagens em NDJSON são transmitidas com contrapressão: as linhas são lidas do banco
+ * conforme o cliente consome a resposta.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveToDoHandler {
+
+    private final ReactiveToDoRepository toDoRepository;
+
+    public ReactiveToDoHandler(ReactiveToDoRepository toDoRepository) {
+        this.toDoRepository = toDoRepository;
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return toDoRepository.findDtoById(id)
+                .switchIfEmpty(Mono.error(() -> new NoSuchElementException("Tarefa não encontrada com o ID: " + id)))
+                .flatMap(toDo -> ServerResponse.ok().bodyValue(toDo));
+    }
+
+    public Mono<ServerResponse> findByUserId(ServerRequest request) {
+        Long userId = Long.valueOf(request.pathVariable("userId"));
+        int pageSize = pageSize(request);
+        return page(toDoRepository.findDtoPageByUserId(userId, cursor(request), pageSize + 1), pageSize);
+    }
+
+    public Mono<ServerResponse> streamByUserId(ServerRequest request) {
+        Long userId = Long.valueOf(request.pathVariable("userId"));
+        return stream(toDoRepository.streamDtoByUserId(userId));
+    }
+
+    public Mono<ServerResponse> findByStatus(ServerRequest request) {
+        Status status = Status.valueOf(request.pathVariable("status"));
+        int pageSize = pageSize(request);
+        return page(toDoRepository.findDtoPageByStatus(status, cursor(request), pageSize + 1), pageSize);
+    }
+
+    public Mono<ServerResponse> streamByStatus(ServerRequest request) {
+        Status status = Status.valueOf(request.pathVariable("status"));
+        return stream(toDoRepository.streamDtoByStatus(status));
+    }
+
+    public Mono<ServerResponse> findOverdue(ServerRequest request) {
+        Long userId = request.queryParam("userId").map(Long::valueOf).orElse(null);
+        int pageSize = pageSize(request);
+        DueDatePageDto.Cursor cursor = dueDateCursor(request);
+        return dueDatePage(toDoRepository.findDtoPageOverdue(userId, Status.OPEN, LocalDate.now(), cursor.dueDate(), cursor.id(), pageSize + 1), pageSize);
+    }
+
+    public Mono<ServerResponse> findDueBetween(ServerRequest request) {
+        Status status = Status.valueOf(requiredParam(request, "status"));
+        LocalDate from = LocalDate.parse(requiredParam(request, "from"));
+        LocalDate to = LocalDate.parse(requiredParam(request, "to"));
+        if (from.isAfter(to)) {
+            return Mono.error(new IllegalArgumentException("A data inicial deve ser anterior ou igual à data final."));
+        }
+        int pageSize = pageSize(request);
+        DueDatePageDto.Cursor cursor = dueDateCursor(request);
+        return dueDatePage(toDoRepository.findDtoPageDueBetween(status, from, to, cursor.dueDate(), cursor.id(), pageSize + 1), pageSize);
+    }
+
+    private static Mono<ServerResponse> page(Flux<ToDoDto> fetched, int pageSize) {
+        return fetched.collectList()
+                .map(toDos -> CursorPageDto.of(toDos, pageSize, ToDoDto::id))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    private static Mono<ServerResponse> dueDatePage(Flux<ToDoDto> fetched, int pageSize) {
+        return fetched.collectList()
+                .map(toDos -> DueDatePageDto.of(toDos, pageSize))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    private static Mono<ServerResponse> stream(Flux<ToDoDto> toDos) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(toDos, ToDoDto.class);
+    }
+
+    /**
+     * Limita o tamanho da página solicitado ao intervalo [1, MAX_PAGE_SIZE].
+     */
+    private static int pageSize(ServerRequest request) {
+        int limit = request.queryParam("limit").map(Integer::parseInt).orElse(100);
+        return Math.max(1, Math.min(limit, ToDoService.MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Lê o cursor enviado pelo cliente; a ausência de cursor indica a primeira página.
+     */
+    private static Long cursor(ServerRequest request) {
+        return request.queryParam("after").map(Long::valueOf).orElse(0L);
+    }
+
+    /**
+     * Lê o cursor (vencimento, ID) das listagens ordenadas pelo vencimento.
+     */
+    private static DueDatePageDto.Cursor dueDateCursor(ServerRequest request) {
+        return DueDatePageDto.Cursor.parse(request.queryParam("after").orElse(null));
+    }
+
+    private static String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new IllegalArgumentException("Parâmetro obrigatório ausente: " + name));
+    }
+}
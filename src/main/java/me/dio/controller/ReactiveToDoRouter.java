@@ -0,0 +1,46 @@
+package me.dio.controller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.format.DateTimeParseException;
+import java.util.NoSuchElementException;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Rotas funcionais da variante reativa da API de tarefas (perfil "reactive").
+ * Espelham as consultas de /api/todos do ToDoController; as operações de escrita continuam
+ * na API MVC, que publica os eventos usados pelo cache, estatísticas e busca.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveToDoRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveToDoRoutes(ReactiveToDoHandler handler) {
+        return route()
+                .path("/api/todos", builder -> builder
+                        .GET("/overdue", handler::findOverdue)
+                        .GET("/due", handler::findDueBetween)
+                        .GET("/user/{userId}", accept(MediaType.APPLICATION_JSON), handler::findByUserId)
+                        .GET("/user/{userId}", accept(MediaType.APPLICATION_NDJSON), handler::streamByUserId)
+                        .GET("/status/{status}", accept(MediaType.APPLICATION_JSON), handler::findByStatus)
+                        .GET("/status/{status}", accept(MediaType.APPLICATION_NDJSON), handler::streamByStatus)
+                        .GET("/{id}", handler::findById))
+                // Mesmo tratamento de erros do GlobalExceptionHandler, inclusive para exceções lançadas ao ler os parâmetros
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(NoSuchElementException.class, e ->
+                                ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(e.getMessage()))
+                        .onErrorResume(e -> e instanceof IllegalArgumentException || e instanceof DateTimeParseException, e ->
+                                ServerResponse.status(HttpStatus.BAD_REQUEST).bodyValue(e.getMessage())))
+                .build();
+    }
+}
@@ -3,35 +3,100 @@ package me.dio.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import me.dio.config.BinaryEncodingConfig;
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.DueDatePageDto;
+import me.dio.controller.dto.DeleteResultDto;
+import me.dio.controller.dto.ImportResultDto;
+import me.dio.controller.dto.StatusUpdateResultDto;
+import me.dio.controller.dto.ToDoChangeDto;
+import me.dio.controller.dto.ToDoDto;
 import me.dio.domain.model.Status;
 import me.dio.domain.model.ToDo;
+import me.dio.service.ToDoChangeService;
+import me.dio.service.ToDoSearchService;
 import me.dio.service.ToDoService;
+import me.dio.service.ToDoWriteBehindService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
  * Controlador REST para gerenciamento de tarefas (ToDo).
  * Disponibiliza endpoints para a criação, atualização, busca e deleção de tarefas.
+ * As respostas podem ser pedidas em Smile ou CBOR pelo cabeçalho Accept (ver {@link BinaryEncodingConfig}).
  */
 @RestController
 @RequestMapping("/api/todos")
 public class ToDoController {
 
+    /**
+     * Tipo de mídia NDJSON (um objeto JSON por linha), usado no modo de streaming das listagens.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoController.class);
+
     private final ToDoService toDoService;
+    private final ToDoSearchService toDoSearchService;
+    private final ToDoChangeService toDoChangeService;
+    private final ObjectProvider<ToDoWriteBehindService> toDoWriteBehindService;
+    private final ObjectMapper objectMapper;
+    private final Duration changesTimeout;
+    private final DataSize exportBufferSize;
 
     /**
      * Construtor para injeção do serviço de tarefas.
      * @param toDoService Serviço de tarefas a ser injetado.
+     * @param toDoSearchService Serviço de busca textual de tarefas.
+     * @param toDoChangeService Serviço do feed de alterações de tarefas.
+     * @param toDoWriteBehindService Serviço do modo write-behind, disponível apenas quando habilitado.
+     * @param objectMapper ObjectMapper usado na serialização do modo de streaming.
+     * @param changesTimeout Tempo máximo de uma conexão com o feed de alterações.
+     * @param exportBufferSize Tamanho do buffer da exportação, enviado ao cliente a cada vez que enche.
      */
-    public ToDoController(ToDoService toDoService) {
+    public ToDoController(ToDoService toDoService, ToDoSearchService toDoSearchService, ToDoChangeService toDoChangeService,
+                          ObjectProvider<ToDoWriteBehindService> toDoWriteBehindService, ObjectMapper objectMapper,
+                          @Value("${todo.changes.timeout:30m}") Duration changesTimeout,
+                          @Value("${todo.export.buffer-size:64KB}") DataSize exportBufferSize) {
         this.toDoService = toDoService;
+        this.toDoSearchService = toDoSearchService;
+        this.toDoChangeService = toDoChangeService;
+        this.toDoWriteBehindService = toDoWriteBehindService;
+        this.objectMapper = objectMapper;
+        this.changesTimeout = changesTimeout;
+        this.exportBufferSize = exportBufferSize;
     }
 
     /**
      * Endpoint para criar uma nova tarefa.
+     * No modo write-behind a tarefa é aceita após a gravação no journal local e retorna 202 com o ID
+     * que terá no banco; ela passa a ser retornada pelas consultas assim que o envio em segundo plano a gravar.
      *
      * @param title Título da tarefa.
      * @param description Descrição detalhada da tarefa (opcional).
@@ -45,9 +110,10 @@ public class ToDoController {
     @Operation(summary = "Create a new Task", description = "Create a new ToDo and return the created ToDo's data")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Task created successfully"),
+            @ApiResponse(responseCode = "202", description = "Task journaled in write-behind mode, to be written to the database shortly"),
             @ApiResponse(responseCode = "400", description = "Invalid ToDo data provided")
     })
-    public ResponseEntity<ToDo> createToDo(
+    public ResponseEntity<ToDoDto> createToDo(
             @RequestParam String title,
             @RequestParam(required = false) String description,
             @RequestParam Status status,
@@ -55,6 +121,14 @@ public class ToDoController {
             @RequestParam Long userId,
             @RequestParam Long categoryId) {
 
+        ToDoWriteBehindService writeBehind = toDoWriteBehindService.getIfAvailable();
+        if (writeBehind != null) {
+            ToDoDto acceptedToDo = writeBehind.submit(title, description, status, dueDate, userId, categoryId);
+            return ResponseEntity.accepted()
+                    .location(URI.create(String.format("/api/todos/%s", acceptedToDo.id())))
+                    .body(acceptedToDo);
+        }
+
         // Chamando o serviço para criar a nova tarefa
         ToDo createdToDo = toDoService.create(title, description, status, dueDate, userId, categoryId);
 
@@ -62,73 +136,375 @@ public class ToDoController {
         URI location = URI.create(String.format("/api/todos/%s", createdToDo.getId()));
 
         // Retornando a resposta com a tarefa criada e o local onde ela pode ser acessada
-        return ResponseEntity.created(location).body(createdToDo);
+        return ResponseEntity.created(location).body(new ToDoDto(createdToDo));
+    }
+
+    /**
+     * Endpoint para importar tarefas em lote.
+     * Aceita um array JSON ou NDJSON (uma tarefa por linha) no formato de ToDoDto, com dueDate em yyyy-MM-dd.
+     * O corpo é lido de forma incremental, sem carregar todas as tarefas em memória.
+     *
+     * @param request Requisição cujo corpo contém as tarefas.
+     * @return ResponseEntity contendo a quantidade de tarefas importadas.
+     * @throws IOException se o corpo da requisição não puder ser lido.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import tasks in batch", description = "Import a JSON array or NDJSON stream of ToDos in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Tasks imported successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid ToDo data provided"),
+            @ApiResponse(responseCode = "404", description = "User or category not found")
+    })
+    public ResponseEntity<ImportResultDto> importBatch(HttpServletRequest request) throws IOException {
+        try (MappingIterator<ToDoDto> toDos = objectMapper.readerFor(ToDoDto.class).readValues(request.getInputStream())) {
+            int imported = toDoService.importAll(toDos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new ImportResultDto(imported));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Lote de tarefas inválido: " + e.getOriginalMessage(), e);
+        } catch (RuntimeException e) {
+            // O MappingIterator encapsula erros de leitura do JSON em exceções não verificadas
+            if (e.getCause() instanceof JsonProcessingException cause) {
+                throw new IllegalArgumentException("Lote de tarefas inválido: " + cause.getOriginalMessage(), e);
+            }
+            throw e;
+        }
     }
 
     /**
      * Endpoint para buscar uma tarefa pelo ID.
+     * O ETag é a versão da tarefa, fraco e acompanhado de Vary: Accept; com If-None-Match igual à versão atual a resposta é 304, sem corpo.
      * @param id ID da tarefa a ser buscada.
      * @return ResponseEntity contendo a tarefa encontrada ou erro 404.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get Task by ID", description = "Retrieve Task details by task ID")
+    @Operation(summary = "Get Task by ID", description = "Retrieve Task details by task ID; the ETag is the task version")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task found"),
+            @ApiResponse(responseCode = "304", description = "Task not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
-    public ResponseEntity<ToDo> getToDoById(@PathVariable Long id) {
-        ToDo toDo = toDoService.findById(id);
-        return ResponseEntity.ok(toDo);
+    public ResponseEntity<ToDoDto> getToDoById(@PathVariable Long id) {
+        ToDoDto toDo = toDoService.findById(id);
+        return ResponseEntity.ok().eTag(ETags.version(toDo.version())).varyBy(HttpHeaders.ACCEPT).body(toDo);
     }
 
     /**
-     * Endpoint para listar todas as tarefas de um usuário específico.
+     * Endpoint para listar as tarefas de um usuário específico, paginadas por cursor.
+     * O ETag resume o ID e a versão das tarefas da página; com If-None-Match ele é obtido lendo apenas essas
+     * colunas da página, de modo que uma resposta 304 não carrega nenhuma tarefa.
      * @param userId ID do usuário cujas tarefas serão listadas.
-     * @return ResponseEntity contendo a lista de tarefas do usuário.
+     * @param after Cursor retornado na página anterior (opcional).
+     * @param limit Tamanho da página, limitado a {@link ToDoService#MAX_PAGE_SIZE}.
+     * @param includeArchived Se true, inclui as tarefas arquivadas, consultadas apenas nesse caso.
+     * @param request Requisição, usada para avaliar o If-None-Match.
+     * @return ResponseEntity contendo a página de tarefas do usuário.
      */
-    @GetMapping("/user/{userId}")
-    @Operation(summary = "Get tasks by User ID", description = "Retrieve all ToDos associated with a specific user")
+    @GetMapping(value = "/user/{userId}", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryEncodingConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get tasks by User ID", description = "Retrieve a page of ToDos associated with a specific user, using the nextCursor as the 'after' parameter to fetch the next page; set includeArchived to also return archived tasks")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tasks found"),
+            @ApiResponse(responseCode = "304", description = "Tasks not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<List<ToDo>> findByUserId(@PathVariable Long userId) {
-        List<ToDo> toDos = toDoService.findByUserId(userId);
-        return ResponseEntity.ok(toDos);
+    public ResponseEntity<CursorPageDto<ToDoDto>> findByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest request) {
+        // Sem If-None-Match o ETag sai da própria página, sem a consulta extra das versões
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = ETags.weak(toDoService.versionTagByUserId(userId, after, limit, includeArchived));
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        CursorPageDto<ToDoDto> page = toDoService.findByUserId(userId, after, limit, includeArchived);
+        return ResponseEntity.ok().eTag(ETags.page(page)).varyBy(HttpHeaders.ACCEPT).body(page);
     }
 
     /**
-     * Endpoint para listar todas as tarefas com um status específico.
+     * Endpoint para transmitir todas as tarefas de um usuário em NDJSON, linha a linha,
+     * conforme são lidas do banco de dados.
+     * @param userId ID do usuário cujas tarefas serão transmitidas.
+     * @return ResponseEntity com o corpo transmitido em streaming.
+     */
+    @GetMapping(value = "/user/{userId}", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream tasks by User ID", description = "Stream all ToDos associated with a specific user as NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed")
+    })
+    public ResponseEntity<StreamingResponseBody> streamByUserId(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> toDoService.streamByUserId(userId, toDo -> writeLine(out, toDo));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * Endpoint para listar as tarefas com um status específico, paginadas por cursor.
+     * Assim como na listagem por usuário, o ETag resume apenas as tarefas da página.
      * @param status Status das tarefas a serem listadas.
-     * @return ResponseEntity contendo a lista de tarefas com o status fornecido.
+     * @param after Cursor retornado na página anterior (opcional).
+     * @param limit Tamanho da página, limitado a {@link ToDoService#MAX_PAGE_SIZE}.
+     * @param includeArchived Se true, inclui as tarefas arquivadas, consultadas apenas nesse caso.
+     * @param request Requisição, usada para avaliar o If-None-Match.
+     * @return ResponseEntity contendo a página de tarefas com o status fornecido.
      */
-    @GetMapping("/status/{status}")
-    @Operation(summary = "Get tasks by Status", description = "Retrieve all ToDos with a specific status")
+    @GetMapping(value = "/status/{status}", produces = {MediaType.APPLICATION_JSON_VALUE, BinaryEncodingConfig.APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @Operation(summary = "Get tasks by Status", description = "Retrieve a page of ToDos with a specific status, using the nextCursor as the 'after' parameter to fetch the next page; set includeArchived to also return archived tasks")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tasks found"),
+            @ApiResponse(responseCode = "304", description = "Tasks not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "No tasks found with the specified status")
     })
-    public ResponseEntity<List<ToDo>> findByStatus(@PathVariable Status status) {
-        List<ToDo> toDos = toDoService.findByStatus(status);
-        return ResponseEntity.ok(toDos);
+    public ResponseEntity<CursorPageDto<ToDoDto>> findByStatus(
+            @PathVariable Status status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            WebRequest request) {
+        // Sem If-None-Match o ETag sai da própria página, sem a consulta extra das versões
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = ETags.weak(toDoService.versionTagByStatus(status, after, limit, includeArchived));
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        CursorPageDto<ToDoDto> page = toDoService.findByStatus(status, after, limit, includeArchived);
+        return ResponseEntity.ok().eTag(ETags.page(page)).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    /**
+     * Endpoint para transmitir todas as tarefas com um status específico em NDJSON, linha a linha,
+     * conforme são lidas do banco de dados.
+     * @param status Status das tarefas a serem transmitidas.
+     * @return ResponseEntity com o corpo transmitido em streaming.
+     */
+    @GetMapping(value = "/status/{status}", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream tasks by Status", description = "Stream all ToDos with a specific status as NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks streamed")
+    })
+    public ResponseEntity<StreamingResponseBody> streamByStatus(@PathVariable Status status) {
+        StreamingResponseBody body = out -> toDoService.streamByStatus(status, toDo -> writeLine(out, toDo));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * Endpoint para buscar as tarefas de um usuário pelo título e pela descrição, ordenadas pela relevância.
+     * Na busca o cursor é a posição do último resultado retornado.
+     * @param q Termos da busca.
+     * @param userId ID do usuário dono das tarefas.
+     * @param after Cursor retornado na página anterior (opcional).
+     * @param limit Tamanho da página, limitado a {@link ToDoService#MAX_PAGE_SIZE}.
+     * @return ResponseEntity contendo a página de tarefas encontradas.
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search tasks", description = "Full-text search over the title and description of a user's ToDos, ranked by relevance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed"),
+            @ApiResponse(responseCode = "400", description = "Query has no searchable terms")
+    })
+    public ResponseEntity<CursorPageDto<ToDoDto>> search(
+            @RequestParam String q,
+            @RequestParam Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(toDoSearchService.search(q, userId, after, limit));
+    }
+
+    /**
+     * Endpoint que transmite por Server-Sent Events as alterações das tarefas de um usuário,
+     * substituindo a consulta periódica da lista inteira. Cada evento tem como ID "época-offset";
+     * ao reconectar, o cliente envia o último ID em "since" ou no cabeçalho Last-Event-ID
+     * e recebe as alterações que perdeu. Um evento RESYNC indica que a lista deve ser recarregada,
+     * inclusive quando o ID é de uma execução anterior do serviço.
+     * @param userId ID do usuário cujas alterações serão transmitidas.
+     * @param since ID da última alteração recebida (opcional).
+     * @param lastEventId ID da última alteração recebida, enviado automaticamente pelo EventSource (opcional).
+     * @return Emissor dos eventos.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task changes", description = "Server-Sent Events feed of a user's ToDo changes, resumable from an event ID via 'since' or Last-Event-ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Change feed opened")
+    })
+    public SseEmitter streamChanges(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(changesTimeout.toMillis());
+        Runnable unsubscribe = toDoChangeService.subscribe(userId, since != null ? since : lastEventId, new ToDoChangeService.Subscriber() {
+            @Override
+            public void send(ToDoChangeDto change) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(change.eventId())
+                        .name(change.type().name())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * Endpoint para listar as tarefas vencidas (pendentes ou em andamento com vencimento já passado),
+     * paginadas por cursor.
+     * @param userId ID do usuário para filtrar as tarefas (opcional).
+     * @param after Cursor retornado na página anterior (opcional).
+     * @param limit Tamanho da página, limitado a {@link ToDoService#MAX_PAGE_SIZE}.
+     * @return ResponseEntity contendo a página de tarefas vencidas.
+     */
+    @GetMapping("/overdue")
+    @Operation(summary = "Get overdue tasks", description = "Retrieve a page of pending or in-progress ToDos whose due date has passed, ordered by due date, optionally filtered by user; use the nextCursor as the 'after' parameter to fetch the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks found")
+    })
+    public ResponseEntity<DueDatePageDto> findOverdue(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(toDoService.findOverdue(userId, after, limit));
+    }
+
+    /**
+     * Endpoint para listar as tarefas com um status e vencimento dentro de um intervalo de datas,
+     * paginadas por cursor.
+     * @param status Status das tarefas a serem listadas.
+     * @param from Data inicial do intervalo (yyyy-MM-dd, inclusiva).
+     * @param to Data final do intervalo (yyyy-MM-dd, inclusiva).
+     * @param after Cursor retornado na página anterior (opcional).
+     * @param limit Tamanho da página, limitado a {@link ToDoService#MAX_PAGE_SIZE}.
+     * @return ResponseEntity contendo a página de tarefas com vencimento no intervalo.
+     */
+    @GetMapping("/due")
+    @Operation(summary = "Get tasks due between dates", description = "Retrieve a page of ToDos with a specific status whose due date is within the given range, ordered by due date; use the nextCursor as the 'after' parameter to fetch the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks found"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or cursor provided")
+    })
+    public ResponseEntity<DueDatePageDto> findDueBetween(
+            @RequestParam Status status,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(toDoService.findDueBetween(status, from, to, after, limit));
+    }
+
+    /**
+     * Endpoint para exportar as tarefas, com os nomes do usuário e da categoria, em CSV ou NDJSON.
+     * As tarefas são lidas com um cursor do banco e escritas direto no corpo da resposta, em blocos do tamanho
+     * de todo.export.buffer-size, com uso de memória constante qualquer que seja o tamanho da exportação.
+     * A resposta é escrita na própria thread da requisição, e não em um StreamingResponseBody, para não ser
+     * interrompida pelo tempo limite das requisições assíncronas.
+     *
+     * @param format Formato da exportação: csv (padrão) ou ndjson.
+     * @param status Status das tarefas (opcional).
+     * @param userId ID do usuário dono das tarefas (opcional).
+     * @param categoryId ID da categoria das tarefas (opcional).
+     * @param dueFrom Data de vencimento inicial (yyyy-MM-dd, inclusiva, opcional).
+     * @param dueTo Data de vencimento final (yyyy-MM-dd, inclusiva, opcional).
+     * @param response Resposta em que a exportação é escrita.
+     * @throws IOException se a resposta não puder ser escrita.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export tasks", description = "Stream all ToDos matching the optional filters, with user and category names, as CSV or NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks exported"),
+            @ApiResponse(responseCode = "400", description = "Invalid format or date range provided")
+    })
+    public void export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            HttpServletResponse response) throws IOException {
+        ToDoExportWriter.Format exportFormat = ToDoExportWriter.Format.of(format);
+        response.setContentType(exportFormat.mediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("todos." + exportFormat.extension()).build().toString());
+        ToDoExportWriter writer = new ToDoExportWriter(response.getOutputStream(), exportFormat,
+                (int) exportBufferSize.toBytes(), objectMapper);
+        try {
+            toDoService.export(status, userId, categoryId, dueFrom, dueTo, writer);
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // Apenas as falhas de escrita na conexão chegam aqui: o cliente a encerrou; a transação e o cursor já foram fechados
+            logger.warn("Exportação interrompida após {} tarefas: {}", writer.rows(), e.getCause().getMessage());
+        }
     }
 
     /**
      * Endpoint para atualizar uma tarefa existente pelo ID.
+     * Com If-Match, a tarefa só é atualizada se ainda estiver na versão informada, evitando sobrescrever
+     * uma alteração feita por outro cliente.
      * @param id ID da tarefa a ser atualizada.
-     * @param toDo Dados atualizados da tarefa.
+     * @param ifMatch ETag da versão sobre a qual a alteração foi feita (opcional).
+     * @param toDoDto Dados atualizados da tarefa.
      * @return ResponseEntity contendo a tarefa atualizada ou erro 404.
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing Task", description = "Update the details of a task by its ID")
+    @Operation(summary = "Update an existing Task", description = "Update the details of a task by its ID; send the ETag in If-Match to avoid overwriting concurrent changes")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task updated successfully"),
             @ApiResponse(responseCode = "404", description = "Task not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid task data provided")
+            @ApiResponse(responseCode = "400", description = "Invalid task data provided"),
+            @ApiResponse(responseCode = "412", description = "Task no longer matches the version in If-Match")
     })
-    public ResponseEntity<ToDo> updateToDo(@PathVariable Long id, @RequestBody ToDo toDo) {
+    public ResponseEntity<ToDoDto> updateToDo(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody ToDoDto toDoDto) {
+        ToDo toDo = toDoDto.toModel();
+        toDo.setVersion(ETags.expectedVersion(ifMatch));
         ToDo updatedToDo = toDoService.update(id, toDo);
-        return ResponseEntity.ok(updatedToDo);
+        return ResponseEntity.ok().eTag(ETags.version(updatedToDo.getVersion())).varyBy(HttpHeaders.ACCEPT).body(new ToDoDto(updatedToDo));
+    }
+
+    /**
+     * Endpoint para alterar apenas o status de uma tarefa, sem enviar a tarefa completa.
+     * @param id ID da tarefa.
+     * @param status Novo status da tarefa.
+     * @return ResponseEntity contendo a tarefa com o status atualizado.
+     */
+    @PatchMapping("/{id}/status")
+    @Operation(summary = "Update the status of a Task", description = "Change only the status of a task, validating the allowed transitions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task status updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Status transition not allowed"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "409", description = "Task was modified concurrently")
+    })
+    public ResponseEntity<ToDoDto> updateToDoStatus(@PathVariable Long id, @RequestParam Status status) {
+        ToDoDto toDo = toDoService.updateStatus(id, status);
+        return ResponseEntity.ok().eTag(ETags.version(toDo.version())).varyBy(HttpHeaders.ACCEPT).body(toDo);
+    }
+
+    /**
+     * Endpoint para alterar o status de várias tarefas de uma vez.
+     * @param ids IDs das tarefas.
+     * @param status Novo status das tarefas.
+     * @return ResponseEntity contendo a quantidade de tarefas alteradas.
+     */
+    @PatchMapping("/status")
+    @Operation(summary = "Update the status of several Tasks", description = "Change the status of up to 500 tasks at once; no task is changed if any transition is not allowed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task statuses updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Status transition not allowed or too many IDs"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "409", description = "Tasks were modified concurrently")
+    })
+    public ResponseEntity<StatusUpdateResultDto> updateToDoStatuses(@RequestParam List<Long> ids, @RequestParam Status status) {
+        return ResponseEntity.ok(new StatusUpdateResultDto(toDoService.updateStatus(ids, status)));
     }
 
     /**
@@ -146,4 +522,33 @@ public class ToDoController {
         toDoService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Endpoint para deletar várias tarefas de uma vez.
+     * @param ids IDs das tarefas.
+     * @return ResponseEntity contendo a quantidade de tarefas removidas.
+     */
+    @DeleteMapping
+    @Operation(summary = "Delete several Tasks", description = "Delete up to 500 tasks at once; no task is deleted if any of them does not exist")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks deleted successfully"),
+            @ApiResponse(responseCode = "400", description = "Too many IDs"),
+            @ApiResponse(responseCode = "404", description = "Task not found"),
+            @ApiResponse(responseCode = "409", description = "Tasks were modified concurrently")
+    })
+    public ResponseEntity<DeleteResultDto> deleteToDos(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(new DeleteResultDto(toDoService.delete(ids)));
+    }
+
+    /**
+     * Escreve um objeto como uma linha NDJSON no corpo da resposta.
+     */
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package me.dio.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import me.dio.controller.dto.ToDoExportDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Escrita da exportação de tarefas em CSV (RFC 4180) ou NDJSON, linha a linha, em um buffer de tamanho fixo
+ * que é enviado ao cliente sempre que enche; assim a memória usada não depende da quantidade de tarefas.
+ */
+final class ToDoExportWriter implements Consumer<ToDoExportDto> {
+
+    /**
+     * Formatos da exportação.
+     */
+    enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON(ToDoController.APPLICATION_NDJSON_VALUE, "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        /**
+         * Converte o parâmetro "format" da requisição.
+         *
+         * @param format Nome do formato, sem diferenciar maiúsculas de minúsculas.
+         * @return Formato correspondente.
+         * @throws IllegalArgumentException se o formato não for csv nem ndjson.
+         */
+        static Format of(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de exportação inválido, use csv ou ndjson: " + format, e);
+            }
+        }
+
+        String mediaType() {
+            return mediaType;
+        }
+
+        String extension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "id,title,description,status,dueDate,userId,username,categoryId,categoryName,version";
+
+    private final Writer writer;
+    private final Format format;
+    private final ObjectWriter jsonWriter;
+    private long rows;
+
+    /**
+     * @param out Corpo da resposta.
+     * @param format Formato da exportação.
+     * @param bufferSize Tamanho do buffer, em caracteres, enviado ao cliente a cada vez que enche.
+     * @param objectMapper ObjectMapper usado nas linhas do NDJSON.
+     */
+    ToDoExportWriter(OutputStream out, Format format, int bufferSize, ObjectMapper objectMapper) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), bufferSize);
+        this.format = format;
+        this.jsonWriter = objectMapper.writerFor(ToDoExportDto.class);
+        if (format == Format.CSV) {
+            writeLine(CSV_HEADER);
+        }
+    }
+
+    /**
+     * Escreve uma tarefa no buffer.
+     *
+     * @throws UncheckedIOException se a conexão com o cliente tiver sido encerrada.
+     * @throws IllegalStateException se a tarefa não puder ser convertida em JSON, um erro do servidor.
+     */
+    @Override
+    public void accept(ToDoExportDto toDo) {
+        if (format == Format.CSV) {
+            writeLine(String.join(",",
+                    String.valueOf(toDo.id()),
+                    csv(toDo.title()),
+                    csv(toDo.description()),
+                    csv(toDo.status()),
+                    csv(toDo.dueDate()),
+                    String.valueOf(toDo.userId()),
+                    csv(toDo.username()),
+                    csv(toDo.categoryId()),
+                    csv(toDo.categoryName()),
+                    csv(toDo.version())));
+        } else {
+            try {
+                writeLine(jsonWriter.writeValueAsString(toDo));
+            } catch (JsonProcessingException e) {
+                // Não é uma falha de E/S da conexão: não pode ser confundida com o cliente encerrando a exportação
+                throw new IllegalStateException("Falha ao converter a tarefa " + toDo.id() + " em JSON.", e);
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Envia ao cliente o que restou no buffer.
+     *
+     * @throws UncheckedIOException se a conexão com o cliente tiver sido encerrada.
+     */
+    void finish() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Quantidade de tarefas escritas.
+     */
+    long rows() {
+        return rows;
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            // A RFC 4180 separa os registros com CRLF; no NDJSON o separador é o LF
+            writer.write(format == Format.CSV ? "\r\n" : "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Campo do CSV, entre aspas quando contém vírgula, aspas ou quebra de linha; null vira um campo vazio.
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,12 +1,18 @@
 package me.dio.controller;
 
 import me.dio.domain.model.User;
+import me.dio.controller.dto.PurgeJobDto;
+import me.dio.controller.dto.ToDoStatsDto;
 import me.dio.controller.dto.UserDto;
+import me.dio.service.PurgeService;
+import me.dio.service.ToDoStatsService;
 import me.dio.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -21,16 +27,21 @@ import java.util.stream.Collectors;
 /**
  * Controlador REST para operações relacionadas a usuários.
  * Este controlador expõe endpoints para criar, ler, atualizar e excluir usuários.
+ * As respostas podem ser pedidas em Smile ou CBOR pelo cabeçalho Accept.
  */
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserService userService;
+    private final ToDoStatsService toDoStatsService;
+    private final PurgeService purgeService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ToDoStatsService toDoStatsService, PurgeService purgeService) {
         this.userService = userService;
+        this.toDoStatsService = toDoStatsService;
+        this.purgeService = purgeService;
     }
     /**
      * Cria um novo usuário.
@@ -56,6 +67,7 @@ public class UserController {
 
     /**
      * Recupera um usuário pelo ID.
+     * O ETag é a versão do usuário, fraco e acompanhado de Vary: Accept; com If-None-Match igual à versão atual a resposta é 304, sem corpo.
      *
      * @param id ID do usuário a ser recuperado.
      * @return Resposta com o usuário encontrado ou um status de não encontrado.
@@ -64,28 +76,52 @@ public class UserController {
     @Operation(summary = "Get user by ID", description = "Retrieve user details by user ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found"),
+            @ApiResponse(responseCode = "304", description = "User not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
         try {
             User user = userService.findById(id);
-            return ResponseEntity.ok(new UserDto(user));
+            return ResponseEntity.ok().eTag(ETags.version(user.getVersion())).varyBy(HttpHeaders.ACCEPT).body(new UserDto(user));
         } catch (NoSuchElementException e) {
             throw new NoSuchElementException("Usuário não encontrado com o ID: " + id);
         }
     }
+    /**
+     * Recupera as estatísticas das tarefas de um usuário.
+     *
+     * @param id ID do usuário.
+     * @return Resposta com a quantidade de tarefas por status, o total e as vencidas.
+     */
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Get user task stats", description = "Retrieve the number of tasks per status, the total and the overdue tasks of a user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stats retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<ToDoStatsDto> getUserStats(@PathVariable Long id) {
+        userService.findById(id);
+        return ResponseEntity.ok(toDoStatsService.findUserStats(id));
+    }
     /**
      * Recupera todos os usuários.
+     * O ETag é obtido com uma consulta agregada, de modo que uma resposta 304 não carrega nenhum usuário.
      *
+     * @param request Requisição, usada para avaliar o If-None-Match.
      * @return Resposta com a lista de todos os usuários.
      */
     @GetMapping
     @Operation(summary = "Get all users", description = "Retrieve a list of all users")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
-            @ApiResponse(responseCode = "204", description = "No users found")
+            @ApiResponse(responseCode = "204", description = "No users found"),
+            @ApiResponse(responseCode = "304", description = "Users not modified since the ETag in If-None-Match")
     })
-    public ResponseEntity<List<UserDto>> getAllUsers() {
+    public ResponseEntity<List<UserDto>> getAllUsers(WebRequest request) {
+        String eTag = ETags.weak(userService.versionTag());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         List<User> users = userService.findAll();
         if (users.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -93,14 +129,16 @@ public class UserController {
             List<UserDto> userDtos = users.stream()
                     .map(UserDto::new)
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(userDtos);
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(userDtos);
         }
     }
 
     /**
      * Atualiza um usuário existente.
+     * Com If-Match, o usuário só é atualizado se ainda estiver na versão informada.
      *
      * @param id ID do usuário a ser atualizado.
+     * @param ifMatch ETag da versão sobre a qual a alteração foi feita (opcional).
      * @param userDto Dados atualizados do usuário.
      * @return Resposta com o usuário atualizado ou um status de não encontrado.
      */
@@ -109,14 +147,18 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User updated successfully"),
             @ApiResponse(responseCode = "404", description = "User not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid user data provided")
+            @ApiResponse(responseCode = "400", description = "Invalid user data provided"),
+            @ApiResponse(responseCode = "412", description = "User no longer matches the version in If-Match")
     })
-    public ResponseEntity<UserDto> update(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
+    public ResponseEntity<UserDto> update(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @Valid @RequestBody UserDto userDto) {
         try {
             User user = userDto.toModel();
             user.setId(id);
+            user.setVersion(ETags.expectedVersion(ifMatch));
             User updatedUser = userService.update(id, user);
-            return ResponseEntity.ok(new UserDto(updatedUser));
+            return ResponseEntity.ok().eTag(ETags.version(updatedUser.getVersion())).varyBy(HttpHeaders.ACCEPT).body(new UserDto(updatedUser));
         } catch (NoSuchElementException e) {
             throw new NoSuchElementException("Usuário não encontrado com o ID: " + id);
         }catch (IllegalArgumentException e) {
@@ -144,4 +186,22 @@ public class UserController {
             throw new NoSuchElementException("Usuário não encontrado com o ID: " + id);
         }
     }
+
+    /**
+     * Inicia a remoção em segundo plano de um usuário e de todas as suas tarefas, indicada para usuários
+     * com muitas tarefas. O andamento é consultado no endereço retornado em Location.
+     *
+     * @param id ID do usuário a ser removido.
+     * @return Resposta com o andamento da remoção.
+     */
+    @PostMapping("/{id}/purge")
+    @Operation(summary = "Purge a user", description = "Delete a user and all their tasks in the background, in chunks; poll the job in the Location header for progress")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Purge started, or already running for this user"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    public ResponseEntity<PurgeJobDto> purge(@PathVariable Long id) {
+        PurgeJobDto job = purgeService.purgeUser(id);
+        return ResponseEntity.accepted().location(URI.create(String.format("/api/purge-jobs/%s", job.id()))).body(job);
+    }
 }
@@ -0,0 +1,33 @@
+package me.dio.controller.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO para representar uma página de resultados paginada por cursor (keyset).
+ * O cursor é o último ID retornado e deve ser enviado no parâmetro "after" para obter a próxima página.
+ *
+ * @param items Itens da página atual.
+ * @param nextCursor Cursor para a próxima página, ou null quando não há mais resultados.
+ */
+public record CursorPageDto<T>(
+        List<T> items,
+        Long nextCursor
+) {
+    /**
+     * Monta uma página a partir de uma consulta que buscou {@code limit + 1} registros.
+     * O registro excedente apenas indica que existe uma próxima página e não é retornado.
+     *
+     * @param fetched Registros buscados, ordenados pelo ID.
+     * @param limit Tamanho da página.
+     * @param idOf Função que extrai o ID de um registro.
+     * @return Página com os itens e o cursor para a próxima página.
+     */
+    public static <T> CursorPageDto<T> of(List<T> fetched, int limit, Function<T, Long> idOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPageDto<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPageDto<>(List.copyOf(items), idOf.apply(items.get(limit - 1)));
+    }
+}
@@ -0,0 +1,11 @@
+package me.dio.controller.dto;
+
+/**
+ * DTO para representar o resultado de uma remoção de tarefas em lote.
+ *
+ * @param deleted Quantidade de tarefas removidas.
+ */
+public record DeleteResultDto(
+        int deleted
+) {
+}
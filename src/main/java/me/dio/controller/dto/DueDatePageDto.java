@@ -0,0 +1,74 @@
+package me.dio.controller.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * DTO para representar uma página de tarefas ordenada pelo vencimento e paginada por cursor (keyset).
+ * O cursor combina o vencimento e o ID da última tarefa retornada ("yyyy-MM-dd_id") e deve ser enviado
+ * no parâmetro "after" para obter a próxima página; assim a ordem da página é a do índice (status, due_date, id).
+ *
+ * @param items Itens da página atual.
+ * @param nextCursor Cursor para a próxima página, ou null quando não há mais resultados.
+ */
+public record DueDatePageDto(
+        List<ToDoDto> items,
+        String nextCursor
+) {
+    /**
+     * Monta uma página a partir de uma consulta que buscou {@code limit + 1} tarefas.
+     * A tarefa excedente apenas indica que existe uma próxima página e não é retornada.
+     *
+     * @param fetched Tarefas buscadas, ordenadas pelo vencimento e pelo ID.
+     * @param limit Tamanho da página.
+     * @return Página com os itens e o cursor para a próxima página.
+     */
+    public static DueDatePageDto of(List<ToDoDto> fetched, int limit) {
+        if (fetched.size() <= limit) {
+            return new DueDatePageDto(fetched, null);
+        }
+        List<ToDoDto> items = fetched.subList(0, limit);
+        ToDoDto last = items.get(limit - 1);
+        return new DueDatePageDto(List.copyOf(items), new Cursor(last.dueDate(), last.id()).toString());
+    }
+
+    /**
+     * Posição de uma página: vencimento e ID da última tarefa já retornada.
+     *
+     * @param dueDate Vencimento da última tarefa.
+     * @param id ID da última tarefa.
+     */
+    public record Cursor(LocalDate dueDate, long id) {
+
+        /**
+         * Posição anterior a todas as tarefas, usada na primeira página.
+         */
+        public static final Cursor FIRST = new Cursor(LocalDate.of(1, 1, 1), 0);
+
+        /**
+         * Converte o parâmetro "after" da requisição.
+         *
+         * @param after Cursor retornado na página anterior, ou null para a primeira página.
+         * @return Posição da página.
+         * @throws IllegalArgumentException se o cursor não estiver no formato "yyyy-MM-dd_id".
+         */
+        public static Cursor parse(String after) {
+            if (after == null) {
+                return FIRST;
+            }
+            int separator = after.indexOf('_');
+            try {
+                return new Cursor(LocalDate.parse(after.substring(0, Math.max(separator, 0))),
+                        Long.parseLong(after.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + after, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return dueDate + "_" + id;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package me.dio.controller.dto;
+
+/**
+ * DTO para representar a resposta registrada para uma chave de idempotência (cabeçalho Idempotency-Key),
+ * devolvida sem nova execução quando o cliente repete a requisição.
+ *
+ * @param fingerprint Hash da requisição original, usado para recusar a mesma chave com outra requisição.
+ * @param status Status HTTP da resposta.
+ * @param contentType Tipo do corpo da resposta, ou null se não houver corpo.
+ * @param location Cabeçalho Location da resposta, ou null.
+ * @param body Corpo da resposta.
+ */
+public record IdempotentResponseDto(
+        String fingerprint,
+        int status,
+        String contentType,
+        String location,
+        byte[] body
+) {
+}
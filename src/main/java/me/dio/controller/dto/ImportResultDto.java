@@ -0,0 +1,11 @@
+package me.dio.controller.dto;
+
+/**
+ * DTO para representar o resultado de uma importação de tarefas em lote.
+ *
+ * @param imported Quantidade de tarefas importadas.
+ */
+public record ImportResultDto(
+        int imported
+) {
+}
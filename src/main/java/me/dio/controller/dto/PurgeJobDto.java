@@ -0,0 +1,46 @@
+package me.dio.controller.dto;
+
+import java.time.Instant;
+
+/**
+ * DTO para representar o andamento de uma remoção em segundo plano de um usuário ou categoria
+ * e de todas as suas tarefas.
+ *
+ * @param id Identificador da remoção, usado para consultar o andamento.
+ * @param target Tipo do registro removido.
+ * @param targetId ID do usuário ou da categoria.
+ * @param state Situação da remoção.
+ * @param total Quantidade de tarefas encontradas no início da remoção.
+ * @param deleted Quantidade de tarefas já removidas.
+ * @param startedAt Momento de início da remoção.
+ * @param finishedAt Momento do término da remoção, ou null enquanto está em andamento.
+ * @param error Motivo da falha, ou null se a remoção não falhou.
+ */
+public record PurgeJobDto(
+        String id,
+        Target target,
+        Long targetId,
+        State state,
+        long total,
+        long deleted,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+    /**
+     * Tipos de registro que podem ser removidos em segundo plano.
+     */
+    public enum Target {
+        USER,
+        CATEGORY
+    }
+
+    /**
+     * Situações de uma remoção. Uma remoção que falhou pode ser repetida: as tarefas já removidas não voltam.
+     */
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,11 @@
+package me.dio.controller.dto;
+
+/**
+ * DTO para representar o resultado de uma alteração de status em lote.
+ *
+ * @param updated Quantidade de tarefas com o status alterado.
+ */
+public record StatusUpdateResultDto(
+        int updated
+) {
+}
@@ -0,0 +1,40 @@
+package me.dio.controller.dto;
+
+/**
+ * DTO para representar uma alteração de tarefa publicada no feed de alterações.
+ *
+ * @param epoch Identificador da execução do serviço que publicou a alteração (instante da inicialização, em milissegundos);
+ *              os offsets recomeçam a cada execução e só podem ser comparados dentro da mesma época.
+ * @param offset Posição da alteração no feed, crescente dentro da época.
+ * @param type Tipo da alteração.
+ * @param toDoId ID da tarefa alterada, ou null em RESYNC.
+ * @param userId ID do usuário dono da tarefa, ou null em um RESYNC que afeta todos os usuários.
+ * @param toDo Estado atual da tarefa, ou null em DELETED e RESYNC.
+ */
+public record ToDoChangeDto(
+        long epoch,
+        long offset,
+        Type type,
+        Long toDoId,
+        Long userId,
+        ToDoDto toDo
+) {
+
+    /**
+     * @return ID da alteração no formato "época-offset", usado para retomar o feed a partir dela.
+     */
+    public String eventId() {
+        return epoch + "-" + offset;
+    }
+
+    /**
+     * Tipos de alteração. RESYNC indica que as alterações não podem ser descritas uma a uma
+     * (alteração em lote ou alterações já descartadas do feed) e que o cliente deve recarregar as tarefas.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RESYNC
+    }
+}
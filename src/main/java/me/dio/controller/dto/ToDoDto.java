@@ -3,6 +3,8 @@ package me.dio.controller.dto;
 import me.dio.domain.model.Status;
 import me.dio.domain.model.ToDo;
 
+import java.time.LocalDate;
+
 /**
  * DTO para representar uma tarefa (ToDo).
  */
@@ -11,9 +13,10 @@ public record ToDoDto(
         String title,
         String description,
         Status status,
-        String dueDate,
+        LocalDate dueDate,
         Long userId,
-        Long categoryId
+        Long categoryId,
+        Long version
 ) {
     public ToDoDto(ToDo toDo) {
         this(
@@ -23,10 +26,18 @@ public record ToDoDto(
                 toDo.getStatus(),
                 toDo.getDueDate(),
                 toDo.getUser().getId(),
-                toDo.getCategory() != null ? toDo.getCategory().getId() : null
+                toDo.getCategory() != null ? toDo.getCategory().getId() : null,
+                toDo.getVersion()
         );
     }
 
+    /**
+     * Retorna a tarefa com outro status e a versão seguinte, como gravada pelas alterações de status.
+     */
+    public ToDoDto withStatus(Status status) {
+        return new ToDoDto(id, title, description, status, dueDate, userId, categoryId, version != null ? version + 1 : null);
+    }
+
     public ToDo toModel() {
         ToDo toDo = new ToDo();
         toDo.setTitle(this.title);
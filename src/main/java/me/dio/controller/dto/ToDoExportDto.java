@@ -0,0 +1,25 @@
+package me.dio.controller.dto;
+
+import me.dio.domain.model.Status;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para representar uma tarefa na exportação, com os nomes do usuário e da categoria.
+ *
+ * @param categoryId ID da categoria, ou null em tarefas sem categoria.
+ * @param categoryName Nome da categoria, ou null em tarefas sem categoria.
+ */
+public record ToDoExportDto(
+        Long id,
+        String title,
+        String description,
+        Status status,
+        LocalDate dueDate,
+        Long userId,
+        String username,
+        Long categoryId,
+        String categoryName,
+        Long version
+) {
+}
@@ -0,0 +1,19 @@
+package me.dio.controller.dto;
+
+import me.dio.domain.model.Status;
+
+import java.util.Map;
+
+/**
+ * DTO para representar as estatísticas de tarefas de um usuário ou de uma categoria.
+ *
+ * @param countsByStatus Quantidade de tarefas por status.
+ * @param total Quantidade total de tarefas.
+ * @param overdue Quantidade de tarefas pendentes ou em andamento com vencimento já passado.
+ */
+public record ToDoStatsDto(
+        Map<Status, Long> countsByStatus,
+        long total,
+        long overdue
+) {
+}
@@ -1,7 +1,10 @@
 package me.dio.controller.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -41,6 +44,48 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    /**
+     * Tratamento de exceção para mudanças de status não permitidas a partir do status atual da tarefa.
+     * @param ex Exceção InvalidStatusTransitionException.
+     * @return ResponseEntity com status 400 e a mensagem de erro específica.
+     */
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<String> handleInvalidStatusTransitionException(InvalidStatusTransitionException ex) {
+        logger.error("Transição de status inválida: ", ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Tratamento de exceção para atualizações feitas sobre uma versão desatualizada do recurso.
+     * Se o cliente informou a versão esperada no cabeçalho If-Match, a resposta é 412; caso contrário, 409.
+     * @param ex Exceção OptimisticLockingFailureException.
+     * @param request Requisição que originou a exceção.
+     * @return ResponseEntity com status 412 ou 409 e a mensagem de erro.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex,
+                                                                          HttpServletRequest request) {
+        logger.error("Recurso alterado por outra requisição: ", ex);
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status)
+                .body("O recurso foi alterado por outra requisição, obtenha a versão atual e tente novamente.");
+    }
+
+    /**
+     * Tratamento de exceção para requisições recusadas pelo controle de admissão.
+     * A recusa é esperada sob carga e é registrada sem o stack trace.
+     * @param ex Exceção TooManyRequestsException.
+     * @return ResponseEntity com status 429, o cabeçalho Retry-After em segundos e a mensagem de erro.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequestsException(TooManyRequestsException ex) {
+        logger.warn("Requisição recusada: {}", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(ex.getMessage());
+    }
+
     /**
      * Tratamento geral de exceções inesperadas.
      * @param ex Exceção genérica.
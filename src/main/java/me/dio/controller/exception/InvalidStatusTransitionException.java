@@ -0,0 +1,19 @@
+package me.dio.controller.exception;
+
+import me.dio.domain.model.Status;
+
+/**
+ * Exceção lançada quando uma tarefa não pode passar do seu status atual para o status solicitado
+ * (ver {@link Status#canTransitionTo(Status)}). Respondida com status 400.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    /**
+     * @param toDoId ID da tarefa.
+     * @param current Status atual da tarefa.
+     * @param requested Status solicitado.
+     */
+    public InvalidStatusTransitionException(Long toDoId, Status current, Status requested) {
+        super("Transição de status não permitida para a tarefa " + toDoId + ": " + current + " -> " + requested);
+    }
+}
@@ -0,0 +1,25 @@
+package me.dio.controller.exception;
+
+import java.time.Duration;
+
+/**
+ * Exceção lançada quando uma requisição é recusada pelo controle de admissão, seja pelo limite de taxa
+ * do cliente, seja pela saturação do servidor. Respondida com status 429 e o cabeçalho Retry-After.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * @param message Motivo da recusa.
+     * @param retryAfter Tempo sugerido ao cliente antes de tentar novamente.
+     */
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
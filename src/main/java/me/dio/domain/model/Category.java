@@ -2,18 +2,24 @@ package me.dio.domain.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 /**
  * Entidade que representa uma categoria de tarefas no sistema.
  * Cada categoria possui um nome e uma lista de tarefas associadas.
+ * As categorias ficam no cache de segundo nível do Hibernate; a lista de tarefas não é guardada no cache.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Table(name = "tb_category")
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "tb_category_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -22,6 +28,14 @@ public class Category {
     @Column(nullable = false)
     private String name;
 
+    /**
+     * Versão para o controle de concorrência otimista, incrementada a cada atualização.
+     * Também identifica a representação do recurso nos ETags da API.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Lista de tarefas associadas à categoria.
      * O mapeamento é unidirecional e as operações em cascata são aplicadas.
@@ -50,6 +64,14 @@ public class Category {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<ToDo> getTodos() {
         return todos;
     }
@@ -0,0 +1,95 @@
+package me.dio.domain.model;
+
+import jakarta.persistence.*;
+import me.dio.controller.dto.IdempotentResponseDto;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Entidade que representa a resposta registrada para uma chave de idempotência, na camada persistente
+ * opcional do registro de chaves (todo.idempotency.persistent). Permite que a repetição de uma requisição
+ * seja reconhecida após um reinício ou por outra instância da aplicação.
+ * Os registros são apenas inseridos: como o ID é atribuído, a entidade informa ao Spring Data que é nova,
+ * o que evita o SELECT do merge e faz uma chave já registrada falhar pela chave primária.
+ */
+@Entity
+@Table(name = "tb_idempotency_key", indexes = @Index(name = "idx_idempotency_created_at", columnList = "created_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    /**
+     * Método, caminho e valor do cabeçalho Idempotency-Key.
+     */
+    @Id
+    @Column(name = "idempotency_key", length = 320)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column
+    private String location;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    // Construtor padrão necessário para o JPA
+    public IdempotencyRecord() {}
+
+    /**
+     * Cria o registro de uma resposta.
+     * @param key Chave de idempotência com o método e o caminho da requisição.
+     * @param response Resposta registrada.
+     */
+    public IdempotencyRecord(String key, IdempotentResponseDto response) {
+        this.key = key;
+        this.fingerprint = response.fingerprint();
+        this.status = response.status();
+        this.contentType = response.contentType();
+        this.location = response.location();
+        this.body = response.body();
+        this.createdAt = Instant.now();
+    }
+
+    /**
+     * Converte o registro na resposta a ser devolvida.
+     * @return Resposta registrada.
+     */
+    public IdempotentResponseDto toDto() {
+        return new IdempotentResponseDto(fingerprint, status, contentType, location, body);
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,5 +1,9 @@
 package me.dio.domain.model;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Enum que representa o status de uma tarefa.
  * Os possíveis valores são:
@@ -12,5 +16,31 @@ public enum Status {
     PENDING,      // Tarefa pendente
     IN_PROGRESS,  // Tarefa em andamento
     COMPLETED,    // Tarefa concluída
-    CANCELLED     // Tarefa cancelada
+    CANCELLED;    // Tarefa cancelada
+
+    /**
+     * Status de tarefas ainda em aberto, que podem ficar vencidas.
+     */
+    public static final Set<Status> OPEN = Collections.unmodifiableSet(EnumSet.of(PENDING, IN_PROGRESS));
+
+    /**
+     * Status de tarefas encerradas, que podem ser arquivadas.
+     */
+    public static final Set<Status> FINISHED = Collections.unmodifiableSet(EnumSet.of(COMPLETED, CANCELLED));
+
+    /**
+     * Verifica se uma tarefa neste status pode passar para o status informado.
+     * Tarefas em aberto podem avançar, voltar a pendente ou ser canceladas;
+     * tarefas concluídas ou canceladas só podem ser reabertas como pendentes.
+     *
+     * @param next Novo status da tarefa.
+     * @return true se a transição é permitida.
+     */
+    public boolean canTransitionTo(Status next) {
+        return switch (this) {
+            case PENDING -> next == IN_PROGRESS || next == COMPLETED || next == CANCELLED;
+            case IN_PROGRESS -> next == PENDING || next == COMPLETED || next == CANCELLED;
+            case COMPLETED, CANCELLED -> next == PENDING;
+        };
+    }
 }
@@ -2,18 +2,37 @@ package me.dio.domain.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDate;
 
 /**
  * Entidade que representa uma tarefa (ToDo) no sistema.
  * Cada tarefa possui um título, descrição, status, data de vencimento,
  * e está associada a um usuário e uma categoria.
+ * As tarefas ficam no cache de segundo nível do Hibernate, compartilhado entre as requisições;
+ * as associações são guardadas apenas pelo ID.
  */
 @Entity
-@Table(name = "tb_todo")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "todos")
+@Table(name = "tb_todo", indexes = {
+        @Index(name = "idx_todo_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_todo_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_todo_category", columnList = "category_id"),
+        @Index(name = "idx_todo_status_id", columnList = "status, id"),
+        @Index(name = "idx_todo_status_due_date_id", columnList = "status, due_date, id")
+})
 public class ToDo {
 
+    /**
+     * Identificador gerado por sequence com alocação em blocos (pooled),
+     * o que permite ao Hibernate agrupar os INSERTs em lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", sequenceName = "tb_todo_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -36,29 +55,37 @@ public class ToDo {
     private Status status;
 
     /**
-     * Data de vencimento da tarefa.
+     * Data de vencimento da tarefa, armazenada como coluna DATE nativa.
      */
-    @Column(nullable = false)
-    private String dueDate;
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
 
     /**
      * Usuário ao qual a tarefa está associada.
-     * Representa uma relação muitos-para-um (ManyToOne).
+     * Representa uma relação muitos-para-um (ManyToOne), carregada sob demanda.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference // Esta é a referência "dependente"
     private User user;
 
     /**
      * Categoria da tarefa.
-     * Representa uma relação muitos-para-um (ManyToOne).
+     * Representa uma relação muitos-para-um (ManyToOne), carregada sob demanda.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     @JsonBackReference // Esta é a referência "dependente"
     private Category category;
 
+    /**
+     * Versão para o controle de concorrência otimista, incrementada a cada atualização.
+     * Também identifica a representação do recurso nos ETags da API.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Construtor padrão necessário para o JPA
     public ToDo() {}
 
@@ -95,11 +122,11 @@ public class ToDo {
         this.status = status;
     }
 
-    public String getDueDate() {
+    public LocalDate getDueDate() {
         return dueDate;
     }
 
-    public void setDueDate(String dueDate) {
+    public void setDueDate(LocalDate dueDate) {
         this.dueDate = dueDate;
     }
 
@@ -118,4 +145,12 @@ public class ToDo {
     public void setCategory(Category category) {
         this.category = category;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,89 @@
+package me.dio.domain.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Entidade que representa uma tarefa encerrada (COMPLETED ou CANCELLED) movida para o arquivo.
+ * As tarefas arquivadas mantêm o ID e a versão que tinham em tb_todo e não são mais alteradas;
+ * o usuário e a categoria são guardados apenas pelo ID, sem chaves estrangeiras, o que mantém a
+ * tabela compacta e a inserção em lote barata. As tarefas arquivadas não ficam no cache de segundo nível.
+ */
+@Entity
+@Immutable
+@Table(name = "tb_todo_archive", indexes = {
+        @Index(name = "idx_todo_archive_user", columnList = "user_id"),
+        @Index(name = "idx_todo_archive_category", columnList = "category_id"),
+        @Index(name = "idx_todo_archive_status", columnList = "status")
+})
+public class ToDoArchive {
+
+    /**
+     * Identificador que a tarefa tinha em tb_todo.
+     */
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    /**
+     * Versão que a tarefa tinha ao ser arquivada, mantida para os ETags das listagens.
+     */
+    @Column(nullable = false)
+    private Long version;
+
+    // Construtor padrão necessário para o JPA
+    public ToDoArchive() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -2,18 +2,24 @@ package me.dio.domain.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 /**
  * Entidade que representa um usuário no sistema.
  * Um usuário possui um identificador único, nome de usuário, email, senha,
  * e uma lista de tarefas (ToDo) associadas.
+ * Os usuários ficam no cache de segundo nível do Hibernate; a lista de tarefas não é guardada no cache.
  */
 @Entity(name = "tb_user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "tb_user_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -37,6 +43,14 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    /**
+     * Versão para o controle de concorrência otimista, incrementada a cada atualização.
+     * Também identifica a representação do recurso nos ETags da API.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Lista de tarefas (ToDo) associadas ao usuário.
      * O mapeamento é unidirecional e as operações em cascata são aplicadas.
@@ -82,6 +96,14 @@ public class User {
         this.password = password;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<ToDo> getTodos() {
         return todos;
     }
@@ -1,9 +1,16 @@
 package me.dio.domain.repository;
 
+import me.dio.config.CacheConfig;
 import me.dio.domain.model.Category;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 /**
  * Repositório para a entidade Category.
  * Fornece métodos para operações CRUD em categorias.
@@ -26,8 +33,25 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findById(Long id);
     /**
      * Verifica se uma categoria com o nome fornecido já existe.
+     * O resultado fica em cache e é invalidado pelo CategoryService nas escritas.
      * @param name Nome da categoria.
      * @return true se uma categoria com o nome já existir, false caso contrário.
      */
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_NAMES)
     boolean existsByName(String name);
+
+    /**
+     * Verifica, em uma única consulta, quais dos IDs fornecidos pertencem a categorias existentes.
+     * @param ids IDs a serem verificados.
+     * @return Conjunto com os IDs que existem.
+     */
+    @Query("select c.id from Category c where c.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Resume as versões de todas as categorias, sem carregá-las.
+     * @return Quantidade, hash das versões e maior ID das categorias.
+     */
+    @Query("select " + VersionSummary.COLUMNS + " from Category r")
+    VersionSummary summarize();
 }
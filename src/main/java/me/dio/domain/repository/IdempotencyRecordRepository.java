@@ -0,0 +1,28 @@
+package me.dio.domain.repository;
+
+import me.dio.domain.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repositório JPA para as respostas registradas por chave de idempotência.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Remove os registros anteriores a um instante em um único DELETE.
+     * @param before Instante limite.
+     * @return Quantidade de registros removidos.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+    int deleteByCreatedAtBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,188 @@
+package me.dio.domain.repository;
+
+import io.r2dbc.spi.Readable;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Repositório R2DBC, sem bloqueio, para as consultas de tarefas da variante reativa da API.
+ * Executa as mesmas consultas do ToDoRepository, já projetadas em ToDoDto.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveToDoRepository {
+
+    private static final String SELECT_DTO = "select id, title, description, status, due_date, user_id, category_id, version from tb_todo ";
+
+    /**
+     * Posição posterior ao cursor (vencimento, ID) das listagens ordenadas pelo vencimento.
+     */
+    private static final String AFTER_DUE_DATE = " and (due_date > :afterDueDate or (due_date = :afterDueDate and id > :afterId))";
+
+    /**
+     * Parâmetro de status convertido para texto: o driver R2DBC do H2 envia strings como CLOB,
+     * que o H2 não compara com a coluna ENUM gerada pelo Hibernate.
+     */
+    private static final String STATUS_PARAMETER = "cast(:status as varchar(20))";
+
+    /**
+     * Quantidade de linhas lidas do banco por vez nas consultas transmitidas em streaming.
+     */
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveToDoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Busca uma tarefa pelo ID, já projetada em ToDoDto.
+     * @param id ID da tarefa.
+     * @return Mono com a tarefa, vazio se não existir.
+     */
+    public Mono<ToDoDto> findDtoById(Long id) {
+        return databaseClient.sql(SELECT_DTO + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveToDoRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Busca uma página de tarefas de um usuário com ID maior que o cursor, ordenada pelo ID.
+     * @param userId ID do usuário.
+     * @param afterId Cursor (último ID da página anterior).
+     * @param limit Quantidade máxima de tarefas.
+     * @return Tarefas da página.
+     */
+    public Flux<ToDoDto> findDtoPageByUserId(Long userId, Long afterId, int limit) {
+        return databaseClient.sql(SELECT_DTO + "where user_id = :userId and id > :afterId order by id limit :limit")
+                .bind("userId", userId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveToDoRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Busca uma página de tarefas com um status e ID maior que o cursor, ordenada pelo ID.
+     * @param status Status das tarefas.
+     * @param afterId Cursor (último ID da página anterior).
+     * @param limit Quantidade máxima de tarefas.
+     * @return Tarefas da página.
+     */
+    public Flux<ToDoDto> findDtoPageByStatus(Status status, Long afterId, int limit) {
+        return databaseClient.sql(SELECT_DTO + "where status = " + STATUS_PARAMETER + " and id > :afterId order by id limit :limit")
+                .bind("status", status.name())
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveToDoRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Busca uma página de tarefas com os status informados e vencimento anterior à data, opcionalmente de um usuário.
+     * @param userId ID do usuário, ou null para todos.
+     * @param statuses Status considerados.
+     * @param today Data de referência.
+     * @param afterDueDate Vencimento da última tarefa da página anterior.
+     * @param afterId ID da última tarefa da página anterior.
+     * @param limit Quantidade máxima de tarefas.
+     * @return Tarefas da página, ordenadas pelo vencimento e pelo ID.
+     */
+    public Flux<ToDoDto> findDtoPageOverdue(Long userId, Collection<Status> statuses, LocalDate today,
+                                            LocalDate afterDueDate, Long afterId, int limit) {
+        List<Status> statusList = List.copyOf(statuses);
+        StringJoiner statusParameters = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < statusList.size(); i++) {
+            statusParameters.add(STATUS_PARAMETER.replace(":status", ":status" + i));
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT_DTO
+                        + "where status in " + statusParameters + " and due_date < :today" + AFTER_DUE_DATE
+                        + (userId != null ? " and user_id = :userId" : "") + " order by due_date, id limit :limit")
+                .bind("today", today)
+                .bind("afterDueDate", afterDueDate)
+                .bind("afterId", afterId)
+                .bind("limit", limit);
+        for (int i = 0; i < statusList.size(); i++) {
+            spec = spec.bind("status" + i, statusList.get(i).name());
+        }
+        if (userId != null) {
+            spec = spec.bind("userId", userId);
+        }
+        return spec.map(ReactiveToDoRepository::toDto).all();
+    }
+
+    /**
+     * Busca uma página de tarefas com um status e vencimento dentro do intervalo informado.
+     * @param status Status das tarefas.
+     * @param from Data inicial (inclusiva).
+     * @param to Data final (inclusiva).
+     * @param afterDueDate Vencimento da última tarefa da página anterior.
+     * @param afterId ID da última tarefa da página anterior.
+     * @param limit Quantidade máxima de tarefas.
+     * @return Tarefas da página, ordenadas pelo vencimento e pelo ID.
+     */
+    public Flux<ToDoDto> findDtoPageDueBetween(Status status, LocalDate from, LocalDate to,
+                                               LocalDate afterDueDate, Long afterId, int limit) {
+        return databaseClient.sql(SELECT_DTO
+                        + "where status = " + STATUS_PARAMETER + " and due_date between :from and :to" + AFTER_DUE_DATE
+                        + " order by due_date, id limit :limit")
+                .bind("status", status.name())
+                .bind("from", from)
+                .bind("to", to)
+                .bind("afterDueDate", afterDueDate)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveToDoRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Transmite todas as tarefas de um usuário, lidas do banco conforme a demanda do assinante.
+     * @param userId ID do usuário.
+     * @return Tarefas do usuário ordenadas pelo ID.
+     */
+    public Flux<ToDoDto> streamDtoByUserId(Long userId) {
+        return databaseClient.sql(SELECT_DTO + "where user_id = :userId order by id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("userId", userId)
+                .map(ReactiveToDoRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Transmite todas as tarefas com um status, lidas do banco conforme a demanda do assinante.
+     * @param status Status das tarefas.
+     * @return Tarefas com o status ordenadas pelo ID.
+     */
+    public Flux<ToDoDto> streamDtoByStatus(Status status) {
+        return databaseClient.sql(SELECT_DTO + "where status = " + STATUS_PARAMETER + " order by id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("status", status.name())
+                .map(ReactiveToDoRepository::toDto)
+                .all();
+    }
+
+    private static ToDoDto toDto(Readable row) {
+        return new ToDoDto(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                Status.valueOf(row.get("status", String.class)),
+                row.get("due_date", LocalDate.class),
+                row.get("user_id", Long.class),
+                row.get("category_id", Long.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,122 @@
+package me.dio.domain.repository;
+
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDoArchive;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repositório JPA para as tarefas arquivadas (tb_todo_archive).
+ * As consultas têm as mesmas projeções e a mesma paginação por cursor das consultas de tarefas,
+ * para que as páginas das duas tabelas possam ser intercaladas pelo ID.
+ */
+@Repository
+public interface ToDoArchiveRepository extends JpaRepository<ToDoArchive, Long> {
+
+    /**
+     * Copia para o arquivo as tarefas com os IDs informados, em um único INSERT ... SELECT.
+     * @param ids IDs das tarefas em tb_todo.
+     * @return Quantidade de tarefas arquivadas.
+     */
+    @Modifying
+    @Query("insert into ToDoArchive (id, title, description, status, dueDate, userId, categoryId, version) "
+            + "select t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version "
+            + "from ToDo t where t.id in :ids")
+    int archive(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca uma página de tarefas arquivadas de um usuário usando paginação por cursor (keyset no ID).
+     * @param userId ID do usuário cujas tarefas serão buscadas.
+     * @param afterId Último ID já retornado ao cliente; apenas IDs maiores são buscados.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo ID.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(a.id, a.title, a.description, a.status, a.dueDate, a.userId, a.categoryId, a.version) "
+            + "from ToDoArchive a where a.userId = :userId and a.id > :afterId order by a.id")
+    List<ToDoDto> findDtoPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca uma página de tarefas arquivadas com um status usando paginação por cursor (keyset no ID).
+     * @param status Status das tarefas a serem buscadas.
+     * @param afterId Último ID já retornado ao cliente; apenas IDs maiores são buscados.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo ID.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(a.id, a.title, a.description, a.status, a.dueDate, a.userId, a.categoryId, a.version) "
+            + "from ToDoArchive a where a.status = :status and a.id > :afterId order by a.id")
+    List<ToDoDto> findDtoPageByStatus(@Param("status") Status status, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Conta as tarefas arquivadas de um usuário agrupadas por status.
+     * @param userId ID do usuário.
+     * @return Quantidade de tarefas arquivadas por status.
+     */
+    @Query("select a.status as status, count(a) as total from ToDoArchive a where a.userId = :userId group by a.status")
+    List<ToDoRepository.StatusCount> countByStatusForUser(@Param("userId") Long userId);
+
+    /**
+     * Conta as tarefas arquivadas de uma categoria agrupadas por status.
+     * @param categoryId ID da categoria.
+     * @return Quantidade de tarefas arquivadas por status.
+     */
+    @Query("select a.status as status, count(a) as total from ToDoArchive a where a.categoryId = :categoryId group by a.status")
+    List<ToDoRepository.StatusCount> countByStatusForCategory(@Param("categoryId") Long categoryId);
+
+    /**
+     * Busca o ID e a versão das tarefas arquivadas da mesma página de {@link #findDtoPageByUserId}.
+     * @param userId ID do usuário.
+     * @param afterId Cursor da página (0 para a primeira página).
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return IDs e versões ordenados pelo ID.
+     */
+    @Query("select a.id as id, a.version as version from ToDoArchive a where a.userId = :userId and a.id > :afterId order by a.id")
+    List<ToDoRepository.ToDoVersion> findVersionPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca o ID e a versão das tarefas arquivadas da mesma página de {@link #findDtoPageByStatus}.
+     * @param status Status das tarefas.
+     * @param afterId Cursor da página (0 para a primeira página).
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return IDs e versões ordenados pelo ID.
+     */
+    @Query("select a.id as id, a.version as version from ToDoArchive a where a.status = :status and a.id > :afterId order by a.id")
+    List<ToDoRepository.ToDoVersion> findVersionPageByStatus(@Param("status") Status status, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca os usuários donos das tarefas arquivadas de uma categoria, atendida pelo índice (category_id).
+     * @param categoryId ID da categoria.
+     * @return IDs dos usuários.
+     */
+    @Query("select distinct a.userId from ToDoArchive a where a.categoryId = :categoryId")
+    Set<Long> findUserIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Remove as tarefas arquivadas de um usuário em um único DELETE.
+     * @param userId ID do usuário.
+     * @return Quantidade de tarefas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ToDoArchive a where a.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Remove as tarefas arquivadas de uma categoria em um único DELETE.
+     * @param categoryId ID da categoria.
+     * @return Quantidade de tarefas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ToDoArchive a where a.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+}
@@ -0,0 +1,27 @@
+package me.dio.domain.repository;
+
+import me.dio.controller.dto.ToDoExportDto;
+import me.dio.domain.model.Status;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Fragmento do ToDoRepository com a consulta da exportação, montada com a Criteria API apenas com os filtros
+ * informados; assim cada combinação de filtros gera um SQL que o banco pode atender pelo índice adequado.
+ */
+public interface ToDoExportRepository {
+
+    /**
+     * Percorre as tarefas para a exportação com um cursor do banco de dados, somente para frente e lido em blocos
+     * do tamanho do fetch size, já projetadas com os nomes do usuário e da categoria.
+     * Os filtros nulos são ignorados. Deve ser consumido dentro de uma transação e fechado ao final.
+     * @param status Status das tarefas, ou null para todos.
+     * @param userId ID do usuário, ou null para todos.
+     * @param categoryId ID da categoria, ou null para todas.
+     * @param dueFrom Data de vencimento inicial (inclusiva), ou null.
+     * @param dueTo Data de vencimento final (inclusiva), ou null.
+     * @return Stream de ToDoExportDto ordenada pelo ID.
+     */
+    Stream<ToDoExportDto> streamExport(Status status, Long userId, Long categoryId, LocalDate dueFrom, LocalDate dueTo);
+}
@@ -0,0 +1,70 @@
+package me.dio.domain.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import me.dio.controller.dto.ToDoExportDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do fragmento da exportação com a Criteria API.
+ */
+class ToDoExportRepositoryImpl implements ToDoExportRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<ToDoExportDto> streamExport(Status status, Long userId, Long categoryId, LocalDate dueFrom, LocalDate dueTo) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ToDoExportDto> query = cb.createQuery(ToDoExportDto.class);
+        Root<ToDo> toDo = query.from(ToDo.class);
+        Join<ToDo, User> user = toDo.join("user");
+        Join<ToDo, Category> category = toDo.join("category", JoinType.LEFT);
+
+        List<Predicate> filters = new ArrayList<>();
+        if (status != null) {
+            filters.add(cb.equal(toDo.get("status"), status));
+        }
+        if (userId != null) {
+            filters.add(cb.equal(user.get("id"), userId));
+        }
+        if (categoryId != null) {
+            filters.add(cb.equal(category.get("id"), categoryId));
+        }
+        if (dueFrom != null) {
+            filters.add(cb.greaterThanOrEqualTo(toDo.get("dueDate"), dueFrom));
+        }
+        if (dueTo != null) {
+            filters.add(cb.lessThanOrEqualTo(toDo.get("dueDate"), dueTo));
+        }
+
+        query.select(cb.construct(ToDoExportDto.class,
+                        toDo.get("id"), toDo.get("title"), toDo.get("description"), toDo.get("status"), toDo.get("dueDate"),
+                        user.get("id"), user.get("username"), category.get("id"), category.get("name"), toDo.get("version")))
+                .where(filters.toArray(Predicate[]::new))
+                .orderBy(cb.asc(toDo.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+}
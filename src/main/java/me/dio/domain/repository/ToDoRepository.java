@@ -1,18 +1,72 @@
 package me.dio.domain.repository;
 
+import me.dio.controller.dto.ToDoDto;
 import me.dio.domain.model.Status;
 import me.dio.domain.model.ToDo;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repositório JPA para a entidade ToDo.
  * Este repositório permite realizar operações de CRUD e consultas relacionadas à entidade ToDo.
  */
 @Repository
-public interface ToDoRepository extends JpaRepository<ToDo, Long> {
+public interface ToDoRepository extends JpaRepository<ToDo, Long>, ToDoExportRepository {
+
+    /**
+     * Projeção com o ID de uma tarefa e os IDs do usuário e da categoria, lidos das chaves estrangeiras de tb_todo.
+     */
+    interface ToDoOwnership {
+
+        Long getId();
+
+        Long getUserId();
+
+        Long getCategoryId();
+    }
+
+    /**
+     * Projeção com o ID e a versão de uma tarefa, usada para resumir as versões de uma página sem carregá-la.
+     */
+    interface ToDoVersion {
+
+        Long getId();
+
+        Long getVersion();
+    }
+
+    /**
+     * Projeção com a quantidade de tarefas de um status.
+     */
+    interface StatusCount {
+        Status getStatus();
+
+        long getTotal();
+    }
+
+    /**
+     * Projeção com a quantidade de tarefas de uma data de vencimento.
+     */
+    interface DueDateCount {
+        LocalDate getDueDate();
+
+        long getTotal();
+    }
 
     /**
      * Método para buscar todas as tarefas associadas a um usuário.
@@ -23,9 +77,11 @@ public interface ToDoRepository extends JpaRepository<ToDo, Long> {
 
     /**
      * Método para buscar todas as tarefas associadas a uma categoria.
+     * O resultado fica no cache de consultas do Hibernate até a próxima alteração em tb_todo.
      * @param categoryId ID da categoria cujas tarefas serão buscadas.
      * @return Lista de ToDo associadas à categoria.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ToDo> findByCategoryId(Long categoryId);
 
     /**
@@ -34,4 +90,244 @@ public interface ToDoRepository extends JpaRepository<ToDo, Long> {
      * @return Lista de ToDo com o status fornecido.
      */
     List<ToDo> findByStatus(Status status);
+
+    /**
+     * Busca uma página de tarefas de um usuário usando paginação por cursor (keyset no ID),
+     * projetada diretamente em ToDoDto em um único SELECT. Atendida pelo índice (user_id, id), na ordem
+     * do próprio índice: a leitura para ao atingir o limite, sem ordenar as demais tarefas do usuário.
+     * @param userId ID do usuário cujas tarefas serão buscadas.
+     * @param afterId Último ID já retornado ao cliente; apenas IDs maiores são buscados.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo ID.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.user.id = :userId and t.id > :afterId order by t.id")
+    List<ToDoDto> findDtoPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca uma página de tarefas com um status usando paginação por cursor (keyset no ID),
+     * projetada diretamente em ToDoDto em um único SELECT, atendida pelo índice (status, id) na ordem
+     * do próprio índice. O resultado fica no cache de consultas do Hibernate até a próxima alteração em tb_todo.
+     * @param status Status das tarefas a serem buscadas.
+     * @param afterId Último ID já retornado ao cliente; apenas IDs maiores são buscados.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.status = :status and t.id > :afterId order by t.id")
+    List<ToDoDto> findDtoPageByStatus(@Param("status") Status status, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca uma página de tarefas vencidas (com status em aberto e vencimento anterior à data de referência),
+     * atendida pelo índice (status, due_date, id), na ordem do próprio índice.
+     * @param statuses Status considerados em aberto.
+     * @param today Data de referência; tarefas com vencimento anterior a ela estão vencidas.
+     * @param afterDueDate Vencimento da última tarefa já retornada ao cliente.
+     * @param afterId ID da última tarefa já retornada; apenas tarefas posteriores a ela em (vencimento, ID) são buscadas.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo vencimento e pelo ID.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.status in :statuses and t.dueDate < :today "
+            + "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) order by t.dueDate, t.id")
+    List<ToDoDto> findDtoPageOverdue(@Param("statuses") Collection<Status> statuses, @Param("today") LocalDate today,
+                                     @Param("afterDueDate") LocalDate afterDueDate, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca uma página de tarefas vencidas de um usuário, atendida pelo índice (user_id, status).
+     * @param userId ID do usuário cujas tarefas serão buscadas.
+     * @param statuses Status considerados em aberto.
+     * @param today Data de referência; tarefas com vencimento anterior a ela estão vencidas.
+     * @param afterDueDate Vencimento da última tarefa já retornada ao cliente.
+     * @param afterId ID da última tarefa já retornada; apenas tarefas posteriores a ela em (vencimento, ID) são buscadas.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo vencimento e pelo ID.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.user.id = :userId and t.status in :statuses and t.dueDate < :today "
+            + "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) order by t.dueDate, t.id")
+    List<ToDoDto> findDtoPageOverdueByUserId(@Param("userId") Long userId, @Param("statuses") Collection<Status> statuses,
+                                             @Param("today") LocalDate today, @Param("afterDueDate") LocalDate afterDueDate,
+                                             @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca uma página de tarefas com um status e vencimento dentro de um intervalo, atendida por uma
+     * varredura de intervalo no índice (status, due_date, id), na ordem do próprio índice.
+     * @param status Status das tarefas a serem buscadas.
+     * @param from Data inicial do intervalo (inclusiva).
+     * @param to Data final do intervalo (inclusiva).
+     * @param afterDueDate Vencimento da última tarefa já retornada ao cliente.
+     * @param afterId ID da última tarefa já retornada; apenas tarefas posteriores a ela em (vencimento, ID) são buscadas.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return Lista de ToDoDto ordenada pelo vencimento e pelo ID.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.status = :status and t.dueDate between :from and :to "
+            + "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) order by t.dueDate, t.id")
+    List<ToDoDto> findDtoPageDueBetween(@Param("status") Status status, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                        @Param("afterDueDate") LocalDate afterDueDate, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca uma tarefa pelo ID já projetada em ToDoDto, sem carregar a entidade.
+     * @param id ID da tarefa a ser buscada.
+     * @return Optional contendo o ToDoDto correspondente ao ID fornecido.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.id = :id")
+    Optional<ToDoDto> findDtoById(@Param("id") Long id);
+
+    /**
+     * Busca as tarefas com os IDs informados, já projetadas em ToDoDto.
+     * @param ids IDs das tarefas.
+     * @return Lista de tarefas encontradas.
+     */
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.id in :ids")
+    List<ToDoDto> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Conta as tarefas de um usuário agrupadas por status, atendida pelo índice (user_id, status).
+     * @param userId ID do usuário.
+     * @return Quantidade de tarefas por status.
+     */
+    @Query("select t.status as status, count(t) as total from ToDo t where t.user.id = :userId group by t.status")
+    List<StatusCount> countByStatusForUser(@Param("userId") Long userId);
+
+    /**
+     * Conta as tarefas de uma categoria agrupadas por status.
+     * @param categoryId ID da categoria.
+     * @return Quantidade de tarefas por status.
+     */
+    @Query("select t.status as status, count(t) as total from ToDo t where t.category.id = :categoryId group by t.status")
+    List<StatusCount> countByStatusForCategory(@Param("categoryId") Long categoryId);
+
+    /**
+     * Conta as tarefas de um usuário com os status informados agrupadas por data de vencimento.
+     * @param userId ID do usuário.
+     * @param statuses Status considerados.
+     * @return Quantidade de tarefas por data de vencimento.
+     */
+    @Query("select t.dueDate as dueDate, count(t) as total from ToDo t "
+            + "where t.user.id = :userId and t.status in :statuses group by t.dueDate")
+    List<DueDateCount> countByDueDateForUser(@Param("userId") Long userId, @Param("statuses") Collection<Status> statuses);
+
+    /**
+     * Conta as tarefas de uma categoria com os status informados agrupadas por data de vencimento.
+     * @param categoryId ID da categoria.
+     * @param statuses Status considerados.
+     * @return Quantidade de tarefas por data de vencimento.
+     */
+    @Query("select t.dueDate as dueDate, count(t) as total from ToDo t "
+            + "where t.category.id = :categoryId and t.status in :statuses group by t.dueDate")
+    List<DueDateCount> countByDueDateForCategory(@Param("categoryId") Long categoryId, @Param("statuses") Collection<Status> statuses);
+
+    /**
+     * Percorre todas as tarefas de um usuário com um cursor do banco de dados, já projetadas em ToDoDto.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     * @param userId ID do usuário cujas tarefas serão percorridas.
+     * @return Stream de ToDoDto ordenada pelo ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.user.id = :userId order by t.id")
+    Stream<ToDoDto> streamDtoByUserId(@Param("userId") Long userId);
+
+    /**
+     * Percorre todas as tarefas com um cursor do banco de dados, já projetadas em ToDoDto.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     * @return Stream de ToDoDto ordenada pelo ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t order by t.id")
+    Stream<ToDoDto> streamDto();
+
+    /**
+     * Percorre todas as tarefas com um status usando um cursor do banco de dados, já projetadas em ToDoDto.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     * @param status Status das tarefas a serem percorridas.
+     * @return Stream de ToDoDto ordenada pelo ID.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new me.dio.controller.dto.ToDoDto(t.id, t.title, t.description, t.status, t.dueDate, t.user.id, t.category.id, t.version) "
+            + "from ToDo t where t.status = :status order by t.id")
+    Stream<ToDoDto> streamDtoByStatus(@Param("status") Status status);
+
+    /**
+     * Retorna, dentre os IDs informados, os que já pertencem a tarefas gravadas.
+     * @param ids IDs a serem verificados.
+     * @return Conjunto com os IDs que existem.
+     */
+    @Query("select t.id from ToDo t where t.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Método para contar as tarefas associadas a um usuário.
+     * @param userId ID do usuário.
+     * @return Quantidade de tarefas do usuário.
+     */
+    long countByUserId(Long userId);
+
+    /**
+     * Método para contar as tarefas associadas a uma categoria.
+     * @param categoryId ID da categoria.
+     * @return Quantidade de tarefas da categoria.
+     */
+    long countByCategoryId(Long categoryId);
+
+    /**
+     * Busca os IDs de um lote de tarefas de um usuário, atendida pelo índice (user_id, id).
+     * @param userId ID do usuário.
+     * @param limit Quantidade máxima de IDs a buscar.
+     * @return Lista de IDs ordenada.
+     */
+    @Query("select t.id from ToDo t where t.user.id = :userId order by t.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Busca os IDs de um lote de tarefas de uma categoria, atendida pelo índice (category_id).
+     * @param categoryId ID da categoria.
+     * @param limit Quantidade máxima de IDs a buscar.
+     * @return Lista de IDs ordenada.
+     */
+    @Query("select t.id from ToDo t where t.category.id = :categoryId order by t.id")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId, Limit limit);
+
+    /**
+     * Busca e bloqueia (SELECT ... FOR UPDATE) um lote de tarefas com os status informados e vencimento
+     * anterior a uma data, atendida pelo índice (status, due_date, id). O bloqueio impede que o status de uma
+     * tarefa seja alterado enquanto ela é arquivada. Apenas os IDs são lidos; nenhuma entidade é carregada.
+     * @param statuses Status das tarefas.
+     * @param before Data limite; apenas tarefas com vencimento anterior a ela são buscadas.
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return IDs das tarefas, de seus usuários e de suas categorias, bloqueadas até o fim da transação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id as id, t.user.id as userId, t.category.id as categoryId from ToDo t "
+            + "where t.status in :statuses and t.dueDate < :before")
+    List<ToDoOwnership> findForUpdateByStatusInAndDueDateBefore(@Param("statuses") Collection<Status> statuses,
+                                                       @Param("before") LocalDate before, Limit limit);
+
+    /**
+     * Busca o ID e a versão das tarefas da mesma página de {@link #findDtoPageByUserId}, pelo mesmo índice
+     * (user_id, id) e com o mesmo limite, sem ler as demais colunas.
+     * @param userId ID do usuário.
+     * @param afterId Cursor da página (0 para a primeira página).
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return IDs e versões ordenados pelo ID.
+     */
+    @Query("select t.id as id, t.version as version from ToDo t where t.user.id = :userId and t.id > :afterId order by t.id")
+    List<ToDoVersion> findVersionPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Busca o ID e a versão das tarefas da mesma página de {@link #findDtoPageByStatus}, pelo mesmo índice
+     * (status, id) e com o mesmo limite, sem ler as demais colunas.
+     * @param status Status das tarefas.
+     * @param afterId Cursor da página (0 para a primeira página).
+     * @param limit Quantidade máxima de tarefas a buscar.
+     * @return IDs e versões ordenados pelo ID.
+     */
+    @Query("select t.id as id, t.version as version from ToDo t where t.status = :status and t.id > :afterId order by t.id")
+    List<ToDoVersion> findVersionPageByStatus(@Param("status") Status status, @Param("afterId") Long afterId, Limit limit);
 }
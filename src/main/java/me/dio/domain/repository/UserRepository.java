@@ -2,8 +2,13 @@ package me.dio.domain.repository;
 
 import me.dio.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * Repositório JPA para a entidade User.
  * Este repositório permite realizar operações de CRUD e consultas relacionadas à entidade User.
@@ -31,4 +36,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return User correspondente ao email fornecido.
      */
     User findByEmail(String email);
+
+    /**
+     * Método para verificar, em uma única consulta, quais dos IDs fornecidos pertencem a usuários existentes.
+     * @param ids IDs a serem verificados.
+     * @return Conjunto com os IDs que existem.
+     */
+    @Query("select u.id from tb_user u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Resume as versões de todos os usuários, sem carregá-los.
+     * @return Quantidade, hash das versões e maior ID dos usuários.
+     */
+    @Query("select " + VersionSummary.COLUMNS + " from tb_user r")
+    VersionSummary summarize();
 }
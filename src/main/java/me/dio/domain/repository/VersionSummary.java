@@ -0,0 +1,78 @@
+package me.dio.domain.repository;
+
+import me.dio.controller.dto.CursorPageDto;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Projeção que resume as versões de um conjunto de registros com uma consulta agregada.
+ * O resumo combina a quantidade, o maior ID e a soma de um hash de (ID, versão) de cada registro: muda quando
+ * um registro do conjunto é criado, alterado ou removido, e também quando um registro sai do conjunto e outro
+ * entra nele com a mesma versão, caso em que uma simples soma das versões não mudaria.
+ * Como identifica o conteúdo, e não os bytes da resposta, é enviado como ETag fraco (ver ETags.weak).
+ */
+public interface VersionSummary {
+
+    /**
+     * Colunas do resumo na consulta agregada, sobre registros com o alias "r": o hash de cada registro é o
+     * quadrado de (ID * 65537 + versão) módulo o primo 2^31 - 1, o que mantém a soma dentro de um bigint.
+     */
+    String COLUMNS = "count(r) as total, "
+            + "coalesce(sum(mod(cast(mod(r.id * 65537 + r.version, 2147483647) as Long) "
+            + "* cast(mod(r.id * 65537 + r.version, 2147483647) as Long), 2147483647)), 0) as versionHash, "
+            + "coalesce(max(r.id), 0) as maxId";
+
+    /**
+     * Módulo do hash de cada registro, o mesmo primo usado em {@link #COLUMNS}.
+     */
+    long HASH_MODULUS = 2147483647L;
+
+    long getTotal();
+
+    long getVersionHash();
+
+    long getMaxId();
+
+    /**
+     * Retorna o resumo em uma única identificação, usada como ETag das listagens.
+     *
+     * @return Identificação da versão do conjunto.
+     */
+    default String tag() {
+        return getTotal() + "-" + getVersionHash() + "-" + getMaxId();
+    }
+
+    /**
+     * Retorna, em uma única identificação, o resumo deste conjunto somado ao de outro conjunto
+     * sem registros em comum.
+     *
+     * @param other Resumo do outro conjunto.
+     * @return Identificação da versão dos dois conjuntos.
+     */
+    default String tag(VersionSummary other) {
+        return (getTotal() + other.getTotal()) + "-" + (getVersionHash() + other.getVersionHash())
+                + "-" + Math.max(getMaxId(), other.getMaxId());
+    }
+
+    /**
+     * Resume as versões de uma página por cursor já lida, com o mesmo hash da consulta agregada.
+     * A identificação cobre apenas os itens da página e a existência de uma próxima página, que define o cursor
+     * devolvido: alterações em registros posteriores à página não a mudam.
+     *
+     * @param page Página lida.
+     * @param idOf Função que extrai o ID de um item.
+     * @param versionOf Função que extrai a versão de um item.
+     * @return Identificação da versão da página.
+     */
+    static <T> String tag(CursorPageDto<T> page, ToLongFunction<T> idOf, ToLongFunction<T> versionOf) {
+        long versionHash = 0;
+        long maxId = 0;
+        for (T item : page.items()) {
+            long id = idOf.applyAsLong(item);
+            long hash = Math.floorMod(id * 65537 + versionOf.applyAsLong(item), HASH_MODULUS);
+            versionHash += hash * hash % HASH_MODULUS;
+            maxId = Math.max(maxId, id);
+        }
+        return page.items().size() + "-" + versionHash + "-" + maxId + (page.nextCursor() != null ? "-next" : "");
+    }
+}
@@ -0,0 +1,174 @@
+package me.dio.metrics;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Resposta que retém o corpo, até um limite de bytes, para que cabeçalhos ainda possam ser adicionados depois
+ * da serialização, quando o Hibernate já fez as cargas lazy provocadas por ela. O corpo retido é liberado
+ * em {@link #finish()} ou ao passar do limite; antes disso, os flush são ignorados.
+ * Depois de liberado, o corpo segue direto para a resposta original.
+ */
+final class DeferredHeaderResponse extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final Runnable beforeRelease;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private boolean released;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * @param response Resposta original.
+     * @param limit Bytes retidos no máximo antes de liberar o corpo.
+     * @param beforeRelease Executado uma vez, antes de o corpo ser enviado, com os cabeçalhos ainda editáveis.
+     */
+    DeferredHeaderResponse(HttpServletResponse response, int limit, Runnable beforeRelease) {
+        super(response);
+        this.limit = limit;
+        this.beforeRelease = beforeRelease;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new DeferredOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (released) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (!released) {
+            buffer.reset();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (!released) {
+            buffer.reset();
+        }
+        super.reset();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discard();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discard();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        discard();
+        super.sendRedirect(location);
+    }
+
+    /**
+     * Adiciona os cabeçalhos pendentes e envia o corpo retido; as escritas seguintes vão direto para a resposta.
+     *
+     * @throws IOException se a conexão com o cliente tiver sido encerrada.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        release();
+    }
+
+    private void release() throws IOException {
+        if (released) {
+            return;
+        }
+        released = true;
+        beforeRelease.run();
+        if (buffer.size() > 0) {
+            buffer.writeTo(super.getOutputStream());
+        }
+        buffer = null;
+    }
+
+    /**
+     * Descarta o corpo retido quando a resposta passa a ser um erro ou um redirecionamento do contêiner.
+     */
+    private void discard() {
+        released = true;
+        buffer = null;
+    }
+
+    private final class DeferredOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            if (released) {
+                getResponse().getOutputStream().write(b);
+                return;
+            }
+            buffer.write(b);
+            if (buffer.size() > limit) {
+                release();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (released) {
+                getResponse().getOutputStream().write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() > limit) {
+                release();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (released) {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Escrita não bloqueante não suportada.");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package me.dio.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Interceptor do Hibernate que conta as entidades carregadas durante a requisição atual.
+ */
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.incrementEntityLoads();
+        }
+        return false;
+    }
+}
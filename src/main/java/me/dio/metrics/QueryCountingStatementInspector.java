@@ -0,0 +1,19 @@
+package me.dio.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector do Hibernate que conta os comandos SQL preparados durante a requisição atual.
+ * Não altera o SQL.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.incrementStatements();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,46 @@
+package me.dio.metrics;
+
+import me.dio.controller.dto.CursorPageDto;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+
+/**
+ * Conta as linhas retornadas pelos controladores. O cabeçalho de N+1 é decidido no {@link RequestMetricsFilter},
+ * depois da serialização, que ainda pode carregar associações lazy.
+ */
+@RestControllerAdvice(basePackages = "me.dio.controller")
+public class RequestMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.setRows(countRows(body));
+        }
+        return body;
+    }
+
+    private static int countRows(Object body) {
+        if (body instanceof CursorPageDto<?> page) {
+            return page.items().size();
+        }
+        if (body instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return body != null ? 1 : 0;
+    }
+}
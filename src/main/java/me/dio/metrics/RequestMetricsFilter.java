@@ -0,0 +1,111 @@
+package me.dio.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filtro que registra, por endpoint, a quantidade de comandos SQL, de entidades carregadas
+ * e de linhas retornadas em cada requisição da API.
+ * As métricas ficam disponíveis em /actuator/prometheus com os percentis p50 e p99.
+ * Também sinaliza, com o cabeçalho {@value #N_PLUS_ONE_HEADER}, as respostas cuja requisição executou mais
+ * comandos SQL que o limite configurado, um indício de consultas N+1. A decisão é tomada depois da serialização
+ * do corpo, que fica retido até o limite de {@code todo.metrics.response-buffer}; nas respostas maiores e nas
+ * assíncronas, vale a contagem no momento em que o corpo começa a ser enviado. As métricas das requisições
+ * assíncronas (StreamingResponseBody, SSE) são registradas ao fim do processamento assíncrono.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * Cabeçalho adicionado quando a requisição ultrapassa o limite de comandos SQL.
+     */
+    public static final String N_PLUS_ONE_HEADER = "X-N-Plus-One-Warning";
+
+    private final MeterRegistry meterRegistry;
+    private final int statementThreshold;
+    private final int responseBuffer;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${todo.metrics.n-plus-one-threshold:20}") int statementThreshold,
+                                @Value("${todo.metrics.response-buffer:64KB}") DataSize responseBuffer) {
+        this.meterRegistry = meterRegistry;
+        this.statementThreshold = statementThreshold;
+        this.responseBuffer = (int) responseBuffer.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+        DeferredHeaderResponse deferredResponse = new DeferredHeaderResponse(response, responseBuffer, () -> {
+            if (stats.getStatements() > statementThreshold) {
+                response.addHeader(N_PLUS_ONE_HEADER, "statements=" + stats.getStatements() + "; threshold=" + statementThreshold);
+            }
+        });
+        try {
+            filterChain.doFilter(request, deferredResponse);
+            deferredResponse.finish();
+        } finally {
+            RequestQueryStats.end();
+            if (isAsyncStarted(request)) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, stats);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        record("todo.request.statements", "SQL statements executed per request", uri, request, stats.getStatements());
+        record("todo.request.entity.loads", "Entities loaded by Hibernate per request", uri, request, stats.getEntityLoads());
+        record("todo.request.rows", "Rows returned in the response body per request", uri, request, stats.getRows());
+    }
+
+    private void record(String name, String description, String uri, HttpServletRequest request, int value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,81 @@
+package me.dio.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contadores de uma requisição HTTP: comandos SQL executados, entidades carregadas pelo Hibernate
+ * e linhas retornadas na resposta. Ficam associados à thread que atende a requisição e, no processamento
+ * assíncrono (StreamingResponseBody), também à thread que escreve a resposta; por isso são atômicos.
+ */
+public final class RequestQueryStats {
+
+    /**
+     * Atributo da requisição com os contadores, usado para associá-los às threads do processamento assíncrono.
+     */
+    static final String ATTRIBUTE = RequestQueryStats.class.getName();
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger entityLoads = new AtomicInteger();
+    private final AtomicInteger rows = new AtomicInteger();
+
+    private RequestQueryStats() {}
+
+    /**
+     * Inicia a contagem para a requisição atendida pela thread atual.
+     * @return Contadores da requisição.
+     */
+    static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Associa à thread atual os contadores de uma requisição já iniciada.
+     * @param stats Contadores da requisição.
+     */
+    static void bind(RequestQueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    /**
+     * Encerra a contagem da requisição atendida pela thread atual.
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Retorna os contadores da requisição atual, ou null fora de uma requisição HTTP.
+     * @return Contadores da requisição atual.
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void incrementStatements() {
+        statements.incrementAndGet();
+    }
+
+    void incrementEntityLoads() {
+        entityLoads.incrementAndGet();
+    }
+
+    void setRows(int rows) {
+        this.rows.set(rows);
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public int getEntityLoads() {
+        return entityLoads.get();
+    }
+
+    public int getRows() {
+        return rows.get();
+    }
+}
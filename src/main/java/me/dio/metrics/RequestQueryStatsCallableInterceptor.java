@@ -0,0 +1,27 @@
+package me.dio.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Associa os contadores da requisição à thread do executor assíncrono do Spring MVC, que executa os
+ * StreamingResponseBody; sem isso, as consultas feitas durante a escrita da resposta não seriam contadas.
+ */
+public class RequestQueryStatsCallableInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object stats = request.getAttribute(RequestQueryStats.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (stats instanceof RequestQueryStats requestStats) {
+            RequestQueryStats.bind(requestStats);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestQueryStats.end();
+    }
+}
@@ -28,10 +28,12 @@ public interface CategoryService {
     /**
      * Atualiza uma categoria existente. Caso a categoria não seja encontrada, lança uma exceção.
      * Atualiza apenas o nome da categoria, preservando as tarefas associadas.
+     * Se a versão for informada em category, a categoria só é atualizada se ainda estiver nessa versão.
      *
      * @param id       ID da categoria a ser atualizada.
      * @param category Categoria com os dados atualizados.
      * @return Categoria atualizada.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a categoria estiver em outra versão.
      */
     Category update(Long id, Category category);
 
@@ -41,12 +43,28 @@ public interface CategoryService {
      */
     void delete(Long id);
 
+    /**
+     * Remove uma categoria cujas tarefas já foram removidas, com um único DELETE e sem carregar a lista de tarefas.
+     * As tarefas arquivadas da categoria são removidas junto.
+     * @param id ID da categoria a ser removida.
+     * @throws java.util.NoSuchElementException se a categoria não for encontrada.
+     * @throws org.springframework.dao.DataIntegrityViolationException se a categoria ainda tiver tarefas.
+     */
+    void deleteWithoutToDos(Long id);
+
     /**
      * Retorna uma lista de todas as categorias.
      * @return Lista de todas as categorias.
      */
     List<Category> findAll();
 
+    /**
+     * Retorna a identificação da versão do conjunto de categorias, obtida com uma consulta agregada,
+     * sem carregar as categorias. Muda sempre que uma categoria é criada, alterada ou removida.
+     * @return Identificação da versão das categorias.
+     */
+    String versionTag();
+
     /**
      * Busca uma categoria pelo seu nome.
      *
@@ -0,0 +1,29 @@
+package me.dio.service;
+
+import me.dio.controller.dto.IdempotentResponseDto;
+
+import java.util.Optional;
+
+/**
+ * Interface de serviço para o registro das respostas por chave de idempotência (cabeçalho Idempotency-Key).
+ * As respostas ficam em memória, limitadas em bytes e descartadas após o tempo de retenção, e opcionalmente
+ * também no banco, para sobreviverem a reinícios e serem vistas por todas as instâncias.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Busca a resposta registrada para uma chave.
+     *
+     * @param key Chave de idempotência com o método e o caminho da requisição.
+     * @return Resposta registrada, ou vazio se a chave não foi usada ou já expirou.
+     */
+    Optional<IdempotentResponseDto> find(String key);
+
+    /**
+     * Registra a resposta de uma chave.
+     *
+     * @param key Chave de idempotência com o método e o caminho da requisição.
+     * @param response Resposta a ser devolvida nas repetições da requisição.
+     */
+    void save(String key, IdempotentResponseDto response);
+}
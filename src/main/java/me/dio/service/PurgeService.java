@@ -0,0 +1,43 @@
+package me.dio.service;
+
+import me.dio.controller.dto.PurgeJobDto;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Interface de serviço para a remoção em segundo plano de usuários e categorias com muitas tarefas.
+ * As tarefas são removidas em lotes, cada um com um DELETE em uma transação própria, em vez de carregadas
+ * e removidas uma a uma pela cascata do JPA; o usuário ou a categoria é removido ao final.
+ */
+public interface PurgeService {
+
+    /**
+     * Inicia a remoção de um usuário e de todas as suas tarefas.
+     * Se já houver uma remoção em andamento para o usuário, ela é retornada.
+     *
+     * @param userId ID do usuário.
+     * @return Andamento da remoção.
+     * @throws NoSuchElementException se o usuário não existir.
+     */
+    PurgeJobDto purgeUser(Long userId) throws NoSuchElementException;
+
+    /**
+     * Inicia a remoção de uma categoria e de todas as suas tarefas.
+     * Se já houver uma remoção em andamento para a categoria, ela é retornada.
+     *
+     * @param categoryId ID da categoria.
+     * @return Andamento da remoção.
+     * @throws NoSuchElementException se a categoria não existir.
+     */
+    PurgeJobDto purgeCategory(Long categoryId) throws NoSuchElementException;
+
+    /**
+     * Consulta o andamento de uma remoção.
+     * Remoções concluídas são mantidas por um tempo limitado (propriedade todo.purge.retention).
+     *
+     * @param jobId Identificador da remoção.
+     * @return Andamento da remoção.
+     * @throws NoSuchElementException se a remoção não existir ou já tiver sido descartada.
+     */
+    PurgeJobDto findJob(String jobId) throws NoSuchElementException;
+}
@@ -0,0 +1,18 @@
+package me.dio.service;
+
+/**
+ * Interface de serviço para o arquivamento de tarefas.
+ * Tarefas encerradas (COMPLETED ou CANCELLED) com vencimento há mais de todo.archive.after-days dias
+ * são movidas de tb_todo para tb_todo_archive, mantendo pequena a tabela percorrida pelas consultas.
+ * Tarefas arquivadas só são retornadas pelas listagens que pedem includeArchived e não podem mais ser alteradas.
+ */
+public interface ToDoArchiveService {
+
+    /**
+     * Move para o arquivo todas as tarefas elegíveis, em lotes de todo.archive.batch-size tarefas,
+     * cada lote em uma transação própria.
+     *
+     * @return Quantidade de tarefas arquivadas.
+     */
+    int archive();
+}
@@ -0,0 +1,45 @@
+package me.dio.service;
+
+import me.dio.controller.dto.ToDoChangeDto;
+
+import java.io.IOException;
+
+/**
+ * Interface de serviço para o feed de alterações de tarefas.
+ * Define os contratos para acompanhar as alterações das tarefas de um usuário sem consultar a lista inteira.
+ */
+public interface ToDoChangeService {
+
+    /**
+     * Inscreve um assinante nas alterações das tarefas de um usuário.
+     * As alterações posteriores ao ID informado que ainda estão retidas são enviadas primeiro;
+     * se alguma já foi descartada, ou se o ID é de outra execução do serviço, o assinante recebe um RESYNC.
+     * Assinantes que não acompanham o ritmo das alterações são desconectados.
+     *
+     * @param userId ID do usuário.
+     * @param since ID da última alteração recebida ({@link ToDoChangeDto#eventId()}), ou null para receber apenas
+     *              as novas alterações.
+     * @param subscriber Assinante que recebe as alterações.
+     * @return Ação que cancela a inscrição.
+     */
+    Runnable subscribe(Long userId, String since, Subscriber subscriber);
+
+    /**
+     * Destino das alterações de uma inscrição.
+     */
+    interface Subscriber {
+
+        /**
+         * Envia uma alteração ao assinante. Chamado por uma thread por vez, na ordem dos offsets.
+         *
+         * @param change Alteração da tarefa.
+         * @throws IOException se o assinante não puder mais receber alterações.
+         */
+        void send(ToDoChangeDto change) throws IOException;
+
+        /**
+         * Encerra a inscrição por iniciativa do serviço, quando o assinante ficou para trás.
+         */
+        void close();
+    }
+}
@@ -0,0 +1,24 @@
+package me.dio.service;
+
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.ToDoDto;
+
+/**
+ * Interface de serviço para a busca textual de tarefas.
+ * Define o contrato para buscar tarefas pelo título e pela descrição.
+ */
+public interface ToDoSearchService {
+
+    /**
+     * Busca as tarefas de um usuário cujo título ou descrição contenham os termos informados,
+     * ordenadas pela relevância.
+     *
+     * @param query Termos da busca.
+     * @param userId ID do usuário dono das tarefas.
+     * @param after Posição do último resultado da página anterior, ou null para a primeira página.
+     * @param limit Tamanho da página, limitado a {@link ToDoService#MAX_PAGE_SIZE}.
+     * @return Página de tarefas encontradas, da mais para a menos relevante.
+     * @throws IllegalArgumentException se a busca não tiver nenhum termo pesquisável.
+     */
+    CursorPageDto<ToDoDto> search(String query, Long userId, Long after, int limit);
+}
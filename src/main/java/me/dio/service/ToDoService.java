@@ -1,9 +1,16 @@
 package me.dio.service;
 
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.DueDatePageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.controller.dto.ToDoExportDto;
 import me.dio.domain.model.Status;
 import me.dio.domain.model.ToDo;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
 
 /**
  * Interface de serviço para a entidade ToDo.
@@ -11,6 +18,11 @@ import java.util.List;
  */
 public interface ToDoService {
 
+    /**
+     * Tamanho máximo de página aceito nas listagens paginadas.
+     */
+    int MAX_PAGE_SIZE = 500;
+
     /**
      * Cria uma nova tarefa associada a um usuário e uma categoria.
      *
@@ -24,43 +36,185 @@ public interface ToDoService {
      */
     ToDo create(String title, String description, Status status, String dueDate, Long userId, Long categoryId);
 
+    /**
+     * Importa tarefas em lote, lendo-as uma a uma do iterador.
+     * Os IDs de usuário e categoria são validados uma única vez por lote e os INSERTs
+     * são enviados ao banco em lotes JDBC. A importação é atômica: qualquer erro desfaz o lote inteiro.
+     *
+     * @param toDos Tarefas a serem importadas (dueDate no formato ISO yyyy-MM-dd).
+     * @return Quantidade de tarefas importadas.
+     * @throws IllegalArgumentException se alguma tarefa tiver dados inválidos.
+     * @throws java.util.NoSuchElementException se algum usuário ou categoria não existir.
+     */
+    int importAll(Iterator<ToDoDto> toDos);
+
     /**
      * Busca uma tarefa pelo seu ID.
      *
      * @param id ID da tarefa a ser buscada.
-     * @return ToDo correspondente ao ID fornecido.
+     * @return ToDoDto correspondente ao ID fornecido.
      */
-    ToDo findById(Long id);
+    ToDoDto findById(Long id);
 
     /**
-     * Retorna uma lista de todas as tarefas associadas a um usuário específico.
+     * Retorna uma página das tarefas associadas a um usuário específico, paginada por cursor.
+     * O tamanho da página é limitado a {@link #MAX_PAGE_SIZE}.
      *
      * @param userId ID do usuário cujas tarefas serão listadas.
-     * @return Lista de tarefas associadas ao usuário.
+     * @param afterId Cursor da página anterior (último ID retornado), ou null para a primeira página.
+     * @param limit Tamanho da página desejado.
+     * @param includeArchived Se true, as tarefas arquivadas são intercaladas pelo ID com as demais.
+     * @return Página de tarefas associadas ao usuário.
+     */
+    CursorPageDto<ToDoDto> findByUserId(Long userId, Long afterId, int limit, boolean includeArchived);
+
+    /**
+     * Retorna a identificação da versão da página de {@link #findByUserId} com os mesmos parâmetros, lendo apenas
+     * o ID e a versão das tarefas da página. Muda sempre que uma tarefa da página é criada, alterada ou removida,
+     * e é igual a {@code VersionSummary.tag} aplicado à página.
+     *
+     * @param userId ID do usuário.
+     * @param afterId Cursor da página anterior, ou null para a primeira página.
+     * @param limit Tamanho da página desejado.
+     * @param includeArchived Se true, a identificação também considera as tarefas arquivadas.
+     * @return Identificação da versão da página.
+     */
+    String versionTagByUserId(Long userId, Long afterId, int limit, boolean includeArchived);
+
+    /**
+     * Retorna uma página das tarefas com um status específico, paginada por cursor.
+     * O tamanho da página é limitado a {@link #MAX_PAGE_SIZE}.
+     *
+     * @param status Status das tarefas a serem listadas.
+     * @param afterId Cursor da página anterior (último ID retornado), ou null para a primeira página.
+     * @param limit Tamanho da página desejado.
+     * @param includeArchived Se true, as tarefas arquivadas são intercaladas pelo ID com as demais;
+     *                        o arquivo só é consultado para os status encerrados.
+     * @return Página de tarefas que possuem o status fornecido.
+     */
+    CursorPageDto<ToDoDto> findByStatus(Status status, Long afterId, int limit, boolean includeArchived);
+
+    /**
+     * Retorna a identificação da versão da página de {@link #findByStatus} com os mesmos parâmetros, lendo apenas
+     * o ID e a versão das tarefas da página.
+     *
+     * @param status Status das tarefas.
+     * @param afterId Cursor da página anterior, ou null para a primeira página.
+     * @param limit Tamanho da página desejado.
+     * @param includeArchived Se true, a identificação também considera as tarefas arquivadas.
+     * @return Identificação da versão da página.
+     */
+    String versionTagByStatus(Status status, Long afterId, int limit, boolean includeArchived);
+
+    /**
+     * Retorna uma página das tarefas vencidas, isto é, pendentes ou em andamento com
+     * data de vencimento anterior à data atual, ordenada pelo vencimento e paginada por cursor.
+     *
+     * @param userId ID do usuário para filtrar as tarefas, ou null para todas as tarefas.
+     * @param after Cursor da página anterior ("yyyy-MM-dd_id"), ou null para a primeira página.
+     * @param limit Tamanho da página desejado.
+     * @return Página de tarefas vencidas.
+     * @throws IllegalArgumentException se o cursor for inválido.
      */
-    List<ToDo> findByUserId(Long userId);
+    DueDatePageDto findOverdue(Long userId, String after, int limit);
 
     /**
-     * Retorna uma lista de todas as tarefas com um status específico.
+     * Retorna uma página das tarefas com um status e data de vencimento dentro do intervalo informado,
+     * ordenada pelo vencimento e paginada por cursor.
      *
      * @param status Status das tarefas a serem listadas.
-     * @return Lista de tarefas que possuem o status fornecido.
+     * @param from Data inicial do intervalo (inclusiva).
+     * @param to Data final do intervalo (inclusiva).
+     * @param after Cursor da página anterior ("yyyy-MM-dd_id"), ou null para a primeira página.
+     * @param limit Tamanho da página desejado.
+     * @return Página de tarefas com vencimento no intervalo.
+     * @throws IllegalArgumentException se a data inicial for posterior à data final ou o cursor for inválido.
      */
-    List<ToDo> findByStatus(Status status);
+    DueDatePageDto findDueBetween(Status status, LocalDate from, LocalDate to, String after, int limit);
+
+    /**
+     * Percorre todas as tarefas de um usuário, entregando uma a uma ao consumidor
+     * conforme são lidas do banco, sem carregar a lista inteira em memória.
+     *
+     * @param userId ID do usuário cujas tarefas serão percorridas.
+     * @param consumer Consumidor que recebe cada tarefa.
+     */
+    void streamByUserId(Long userId, Consumer<ToDoDto> consumer);
+
+    /**
+     * Percorre todas as tarefas com um status específico, entregando uma a uma ao consumidor
+     * conforme são lidas do banco, sem carregar a lista inteira em memória.
+     *
+     * @param status Status das tarefas a serem percorridas.
+     * @param consumer Consumidor que recebe cada tarefa.
+     */
+    void streamByStatus(Status status, Consumer<ToDoDto> consumer);
+
+    /**
+     * Percorre as tarefas para a exportação, com os nomes do usuário e da categoria, entregando uma a uma
+     * ao consumidor conforme são lidas do banco; a memória usada não depende da quantidade de tarefas.
+     * Os filtros nulos são ignorados.
+     *
+     * @param status Status das tarefas, ou null para todos.
+     * @param userId ID do usuário, ou null para todos.
+     * @param categoryId ID da categoria, ou null para todas.
+     * @param dueFrom Data de vencimento inicial (inclusiva), ou null.
+     * @param dueTo Data de vencimento final (inclusiva), ou null.
+     * @param consumer Consumidor que recebe cada tarefa.
+     * @throws IllegalArgumentException se a data inicial for posterior à data final.
+     */
+    void export(Status status, Long userId, Long categoryId, LocalDate dueFrom, LocalDate dueTo,
+                Consumer<ToDoExportDto> consumer);
 
     /**
      * Atualiza uma tarefa existente.
+     * Atualiza apenas título, descrição, status e data de vencimento, preservando o usuário e a categoria.
+     * Se a versão for informada em toDo, a tarefa só é atualizada se ainda estiver nessa versão.
      *
      * @param id ID da tarefa a ser atualizada.
      * @param toDo Dados atualizados da tarefa.
      * @return ToDo atualizada.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a tarefa estiver em outra versão.
      */
     ToDo update(Long id, ToDo toDo);
 
+    /**
+     * Altera apenas o status de uma tarefa, validando a transição a partir do status atual.
+     *
+     * @param id ID da tarefa.
+     * @param status Novo status da tarefa.
+     * @return Tarefa com o status atualizado.
+     * @throws me.dio.controller.exception.InvalidStatusTransitionException se a transição de status não for permitida.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a tarefa foi alterada concorrentemente.
+     */
+    ToDoDto updateStatus(Long id, Status status);
+
+    /**
+     * Altera o status de várias tarefas de uma vez, validando a transição de cada uma.
+     * A alteração é atômica: se alguma tarefa não existir ou não puder mudar de status, nenhuma é alterada.
+     *
+     * @param ids IDs das tarefas, no máximo MAX_PAGE_SIZE.
+     * @param status Novo status das tarefas.
+     * @return Quantidade de tarefas com o status alterado.
+     * @throws me.dio.controller.exception.InvalidStatusTransitionException se alguma transição de status não for permitida.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se alguma tarefa foi alterada concorrentemente.
+     */
+    int updateStatus(Collection<Long> ids, Status status);
+
     /**
      * Deleta uma tarefa existente pelo ID.
      *
      * @param id ID da tarefa a ser deletada.
      */
     void delete(Long id);
+
+    /**
+     * Deleta várias tarefas de uma vez.
+     * A remoção é atômica: se alguma tarefa não existir, nenhuma é removida.
+     *
+     * @param ids IDs das tarefas, no máximo MAX_PAGE_SIZE.
+     * @return Quantidade de tarefas removidas.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se alguma tarefa foi alterada concorrentemente.
+     */
+    int delete(Collection<Long> ids);
 }
@@ -0,0 +1,26 @@
+package me.dio.service;
+
+import me.dio.controller.dto.ToDoStatsDto;
+
+/**
+ * Interface de serviço para as estatísticas de tarefas.
+ * Define os contratos para consultar a contagem de tarefas por status de usuários e categorias.
+ */
+public interface ToDoStatsService {
+
+    /**
+     * Retorna as estatísticas das tarefas de um usuário.
+     *
+     * @param userId ID do usuário.
+     * @return Estatísticas das tarefas do usuário.
+     */
+    ToDoStatsDto findUserStats(Long userId);
+
+    /**
+     * Retorna as estatísticas das tarefas de uma categoria.
+     *
+     * @param categoryId ID da categoria.
+     * @return Estatísticas das tarefas da categoria.
+     */
+    ToDoStatsDto findCategoryStats(Long categoryId);
+}
@@ -0,0 +1,34 @@
+package me.dio.service;
+
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+
+/**
+ * Interface de serviço para o modo write-behind de criação de tarefas.
+ * Disponível apenas com todo.write-behind.enabled=true: a tarefa é validada e gravada em um journal
+ * local antes da resposta, e enviada ao banco em lotes por um processo em segundo plano.
+ */
+public interface ToDoWriteBehindService {
+
+    /**
+     * Valida uma nova tarefa e a registra no journal local.
+     * Quando o método retorna, a tarefa já está gravada em disco e será inserida no banco com o ID
+     * retornado, mesmo que a aplicação seja reiniciada antes disso.
+     *
+     * @param title Título da tarefa.
+     * @param description Descrição detalhada da tarefa.
+     * @param status Status da tarefa.
+     * @param dueDate Data de vencimento da tarefa.
+     * @param userId ID do usuário ao qual a tarefa será associada.
+     * @param categoryId ID da categoria ao qual a tarefa será associada.
+     * @return Tarefa aceita, com o ID que terá ao ser inserida no banco.
+     */
+    ToDoDto submit(String title, String description, Status status, String dueDate, Long userId, Long categoryId);
+
+    /**
+     * Retorna a quantidade de bytes do journal ainda não enviados ao banco.
+     *
+     * @return Tamanho do trecho pendente do journal.
+     */
+    long backlog();
+}
@@ -37,14 +37,24 @@ public interface UserService {
      */
     List<User> findAll();
 
+    /**
+     * Retorna a identificação da versão do conjunto de usuários, obtida com uma consulta agregada,
+     * sem carregar os usuários. Muda sempre que um usuário é criado, alterado ou removido.
+     *
+     * @return Identificação da versão dos usuários.
+     */
+    String versionTag();
+
     /**
      * Atualiza um usuário existente com os dados fornecidos.
      * O método preserva os dados existentes que não forem fornecidos.
+     * Se a versão for informada em user, o usuário só é atualizado se ainda estiver nessa versão.
      *
      * @param id ID do usuário a ser atualizado.
      * @param user Dados atualizados do usuário.
      * @return User atualizado.
      * @throws NoSuchElementException se o usuário não for encontrado.
+     * @throws org.springframework.dao.OptimisticLockingFailureException se o usuário estiver em outra versão.
      */
     User update(Long id, User user) throws NoSuchElementException;
 
@@ -55,4 +65,14 @@ public interface UserService {
      * @throws NoSuchElementException se o usuário não for encontrado.
      */
     void delete(Long id) throws NoSuchElementException;
+
+    /**
+     * Remove um usuário cujas tarefas já foram removidas, com um único DELETE e sem carregar a lista de tarefas.
+     * As tarefas arquivadas do usuário são removidas junto.
+     *
+     * @param id ID do usuário a ser removido.
+     * @throws NoSuchElementException se o usuário não for encontrado.
+     * @throws org.springframework.dao.DataIntegrityViolationException se o usuário ainda tiver tarefas.
+     */
+    void deleteWithoutToDos(Long id) throws NoSuchElementException;
 }
@@ -0,0 +1,46 @@
+package me.dio.service.event;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evento publicado após operações que alteram muitas tarefas de uma vez (importação em lote,
+ * remoção em cascata, arquivamento), quando não é viável descrever o estado de cada tarefa alterada.
+ * Os consumidores devem descartar ou recarregar o que mantêm sobre os usuários e categorias afetados.
+ *
+ * @param userIds IDs dos usuários afetados, ou null quando qualquer usuário pode ter sido afetado.
+ * @param categoryIds IDs das categorias afetadas, ou null quando qualquer categoria pode ter sido afetada.
+ * @param removedToDoIds IDs das tarefas removidas de tb_todo, agrupados pelo ID do usuário dono, quando a operação
+ *                       apenas removeu tarefas conhecidas; null quando tarefas foram criadas ou alteradas.
+ */
+public record ToDoBulkChangedEvent(
+        Set<Long> userIds,
+        Set<Long> categoryIds,
+        Map<Long, Set<Long>> removedToDoIds
+) {
+    public ToDoBulkChangedEvent(Set<Long> userIds, Set<Long> categoryIds) {
+        this(userIds, categoryIds, null);
+    }
+
+    /**
+     * @param removedToDoIds IDs das tarefas removidas, agrupados pelo ID do usuário dono.
+     * @param userIds IDs dos usuários afetados, inclusive os que tinham apenas tarefas arquivadas removidas.
+     * @param categoryIds IDs das categorias afetadas, ou null quando qualquer categoria pode ter sido afetada.
+     * @return Evento de remoção das tarefas informadas.
+     */
+    public static ToDoBulkChangedEvent removed(Map<Long, Set<Long>> removedToDoIds, Set<Long> userIds, Set<Long> categoryIds) {
+        return new ToDoBulkChangedEvent(userIds, categoryIds, removedToDoIds);
+    }
+
+    public boolean affectsAllUsers() {
+        return userIds == null;
+    }
+
+    public boolean affectsAllCategories() {
+        return categoryIds == null;
+    }
+
+    public boolean onlyRemovesKnownToDos() {
+        return removedToDoIds != null;
+    }
+}
@@ -0,0 +1,27 @@
+package me.dio.service.event;
+
+import me.dio.controller.dto.ToDoDto;
+
+/**
+ * Evento publicado após a criação, atualização ou remoção de uma tarefa.
+ * Carrega o estado da tarefa antes e depois da alteração.
+ *
+ * @param before Estado anterior da tarefa, ou null quando a tarefa foi criada.
+ * @param after Estado atual da tarefa, ou null quando a tarefa foi removida.
+ */
+public record ToDoChangedEvent(
+        ToDoDto before,
+        ToDoDto after
+) {
+    public static ToDoChangedEvent created(ToDoDto toDo) {
+        return new ToDoChangedEvent(null, toDo);
+    }
+
+    public static ToDoChangedEvent updated(ToDoDto before, ToDoDto after) {
+        return new ToDoChangedEvent(before, after);
+    }
+
+    public static ToDoChangedEvent deleted(ToDoDto toDo) {
+        return new ToDoChangedEvent(toDo, null);
+    }
+}
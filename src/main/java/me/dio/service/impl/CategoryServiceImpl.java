@@ -1,14 +1,35 @@
 package me.dio.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import me.dio.config.CacheConfig;
 import me.dio.domain.model.Category;
+import me.dio.domain.model.ToDo;
 import me.dio.domain.repository.CategoryRepository;
+import me.dio.domain.repository.ToDoArchiveRepository;
 import me.dio.service.CategoryService;
+import me.dio.service.event.ToDoBulkChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Implementação do serviço para a entidade Category.
@@ -17,26 +38,60 @@ import java.util.Optional;
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final String DELETE_SQL = "delete from tb_category where id = ?";
+
     private final CategoryRepository categoryRepository;
+    private final ToDoArchiveRepository toDoArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    /**
+     * Listagem e ETag de todas as categorias, agrupados quando simultâneos; a chave não tem parâmetros.
+     */
+    private final SingleFlight<Boolean, List<Category>> allCategories;
+    private final SingleFlight<Boolean, String> versionTags;
 
     /**
      * Construtor para injeção do repositório de categorias.
      * @param categoryRepository Repositório de categorias a ser injetado.
+     * @param toDoArchiveRepository Repositório das tarefas arquivadas, removidas junto com a categoria.
+     * @param eventPublisher Publicador dos eventos de alteração de tarefas.
+     * @param entityManager EntityManager da transação, usado para invalidar o cache nas remoções via JDBC.
+     * @param jdbcTemplate JdbcTemplate das remoções que não carregam a categoria.
+     * @param transactionManager Gerenciador das transações somente leitura das consultas agrupadas.
+     * @param meterRegistry Registro das métricas das consultas agrupadas.
+     * @param microTtl Tempo de reaproveitamento do resultado das consultas agrupadas.
      */
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ToDoArchiveRepository toDoArchiveRepository,
+                               ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                               JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${todo.single-flight.micro-ttl:0ms}") Duration microTtl) {
         this.categoryRepository = categoryRepository;
+        this.toDoArchiveRepository = toDoArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.allCategories = new SingleFlight<>("categories.all", microTtl, meterRegistry);
+        this.versionTags = new SingleFlight<>("categories.all.version", microTtl, meterRegistry);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_NAMES, key = "#category.name")
     public Category create(Category category) {
         if (categoryRepository.existsByName(category.getName())) {
             throw new IllegalArgumentException("Já existe uma categoria com o nome: " + category.getName());
         }
-        return categoryRepository.save(category);
+        Category createdCategory = categoryRepository.save(category);
+        invalidateAll();
+        return createdCategory;
     }
 
     /**
@@ -53,7 +108,16 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public List<Category> findAll() {
-        return categoryRepository.findAll();
+        // A lista é compartilhada entre as chamadas agrupadas e por isso não pode ser alterada
+        return allCategories.execute(Boolean.TRUE, () -> readOnlyTransaction.execute(tx -> List.copyOf(categoryRepository.findAll())));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String versionTag() {
+        return versionTags.execute(Boolean.TRUE, () -> readOnlyTransaction.execute(tx -> categoryRepository.summarize().tag()));
     }
 
     /**
@@ -68,26 +132,83 @@ public class CategoryServiceImpl implements CategoryService {
      * {@inheritDoc}
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_NAMES, allEntries = true)
     public Category update(Long id, Category category) {
         // Verifica se a categoria existe
         Category existingCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Categoria não encontrada com o ID: " + id));
+        if (category.getVersion() != null && !category.getVersion().equals(existingCategory.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Category.class, id);
+        }
 
         // Atualiza apenas o nome da categoria
         existingCategory.setName(category.getName());
 
         // Salva e retorna a categoria atualizada
-        return categoryRepository.save(existingCategory);
+        Category updatedCategory = categoryRepository.save(existingCategory);
+        invalidateAll();
+        return updatedCategory;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_NAMES, allEntries = true)
     public void delete(Long id) {
-        if (!categoryRepository.existsById(id)) {
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Categoria não encontrada com o ID: " + id));
+        // As tarefas da categoria, carregadas pela remoção em cascata, podem pertencer a qualquer usuário:
+        // o evento leva seus IDs e donos, para que os consumidores atualizem apenas o que as envolve
+        Map<Long, Set<Long>> removedToDoIds = category.getTodos().stream()
+                .collect(Collectors.groupingBy(toDo -> toDo.getUser().getId(), Collectors.mapping(ToDo::getId, Collectors.toSet())));
+        Set<Long> userIds = new HashSet<>(removedToDoIds.keySet());
+        userIds.addAll(toDoArchiveRepository.findUserIdsByCategoryId(id));
+        categoryRepository.delete(category);
+        // As tarefas arquivadas não têm chave estrangeira para a categoria e são removidas em um único DELETE
+        toDoArchiveRepository.deleteByCategoryId(id);
+        eventPublisher.publishEvent(ToDoBulkChangedEvent.removed(removedToDoIds, userIds, Set.of(id)));
+        invalidateAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_NAMES, allEntries = true)
+    public void deleteWithoutToDos(Long id) {
+        Set<Long> userIds = toDoArchiveRepository.findUserIdsByCategoryId(id);
+        // A chave estrangeira de tb_todo recusa o DELETE se uma tarefa foi criada depois das remoções
+        ToDoCacheInvalidation.evict(entityManager, Category.class, List.of(id));
+        if (jdbcTemplate.update(DELETE_SQL, id) == 0) {
             throw new NoSuchElementException("Categoria não encontrada com o ID: " + id);
         }
-        categoryRepository.deleteById(id);
+        toDoArchiveRepository.deleteByCategoryId(id);
+        // As tarefas removidas antes já publicaram seus eventos; resta apenas o que envolvia as arquivadas
+        eventPublisher.publishEvent(ToDoBulkChangedEvent.removed(Map.of(), userIds, Set.of(id)));
+        invalidateAll();
+    }
+
+    /**
+     * Separa as próximas listagens das consultas iniciadas antes de uma alteração de categoria, após o commit
+     * da transação: uma leitura concorrente anterior a ele ainda veria os dados antigos e os guardaria no micro-TTL.
+     */
+    private void invalidateAll() {
+        Runnable invalidate = () -> {
+            allCategories.invalidate();
+            versionTags.invalidate();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate.run();
+            }
+        });
     }
 }
@@ -0,0 +1,107 @@
+package me.dio.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.dio.controller.dto.IdempotentResponseDto;
+import me.dio.domain.model.IdempotencyRecord;
+import me.dio.domain.repository.IdempotencyRecordRepository;
+import me.dio.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Implementação do registro de respostas por chave de idempotência.
+ * A camada em memória é um cache do Caffeine limitado pelo tamanho dos corpos das respostas
+ * (todo.idempotency.max-memory) e com expiração após todo.idempotency.retention.
+ * Com todo.idempotency.persistent=true as respostas também são gravadas em tb_idempotency_key e
+ * consultadas no banco quando não estão em memória; os registros expirados são removidos periodicamente.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final Duration retention;
+    private final boolean persistent;
+    private final Cache<String, IdempotentResponseDto> responses;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${todo.idempotency.retention:24h}") Duration retention,
+                                  @Value("${todo.idempotency.max-memory:64MB}") DataSize maxMemory,
+                                  @Value("${todo.idempotency.persistent:false}") boolean persistent) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        // Transação de leitura e escrita: com a réplica, a consulta da chave vai sempre ao primário,
+        // onde outra instância pode ter acabado de registrá-la
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.persistent = persistent;
+        // O peso de cada resposta é o corpo mais uma estimativa da chave e dos demais campos
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String key, IdempotentResponseDto response) -> response.body().length + 256)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<IdempotentResponseDto> find(String key) {
+        IdempotentResponseDto response = responses.getIfPresent(key);
+        if (response != null || !persistent) {
+            return Optional.ofNullable(response);
+        }
+        Instant expiredBefore = Instant.now().minus(retention);
+        Optional<IdempotentResponseDto> stored = primaryTransaction.execute(status -> idempotencyRecordRepository.findById(key)
+                .filter(record -> record.getCreatedAt().isAfter(expiredBefore))
+                .map(IdempotencyRecord::toDto));
+        stored.ifPresent(found -> responses.put(key, found));
+        return stored;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void save(String key, IdempotentResponseDto response) {
+        responses.put(key, response);
+        if (persistent) {
+            try {
+                idempotencyRecordRepository.save(new IdempotencyRecord(key, response));
+            } catch (DataIntegrityViolationException e) {
+                // Outra instância registrou a mesma chave ao mesmo tempo; a resposta dela é mantida no banco
+                logger.warn("Chave de idempotência já registrada por outra instância: {}", key);
+            }
+        }
+    }
+
+    /**
+     * Remove do banco os registros expirados, conforme a expressão cron todo.idempotency.purge-cron
+     * ("-" desabilita o agendamento). Sem a camada persistente não há o que remover.
+     */
+    @Scheduled(cron = "${todo.idempotency.purge-cron:0 */15 * * * *}")
+    public void purgeExpired() {
+        if (!persistent) {
+            return;
+        }
+        int purged = idempotencyRecordRepository.deleteByCreatedAtBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            logger.info("{} chaves de idempotência expiradas removidas.", purged);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package me.dio.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import me.dio.controller.dto.PurgeJobDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.service.CategoryService;
+import me.dio.service.PurgeService;
+import me.dio.service.UserService;
+import me.dio.service.event.ToDoChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementação da remoção em segundo plano de usuários e categorias.
+ * As remoções são executadas por um pequeno pool de threads dedicadas, no máximo uma por usuário ou categoria.
+ * Cada lote busca as próximas tarefas pelo índice da associação e as remove via JDBC em uma transação curta,
+ * de modo que nenhuma transação mantém bloqueios sobre milhares de linhas; apenas as tarefas do lote saem do cache
+ * de segundo nível, em vez da região inteira esvaziada por um DELETE em HQL. A remoção de cada tarefa do lote é
+ * publicada como evento após o commit, mantendo a busca, as estatísticas e o feed de alterações atualizados durante
+ * a remoção. Sem tarefas restantes, o usuário ou a categoria é removido pelo seu serviço com um único DELETE, sem
+ * carregar a lista de tarefas; se uma tarefa foi criada nesse meio tempo, os lotes são retomados.
+ */
+@Service
+public class PurgeServiceImpl implements PurgeService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurgeServiceImpl.class);
+
+    private static final String DELETE_SQL = "delete from tb_todo where id = ?";
+
+    /**
+     * Tentativas de remover o usuário ou a categoria enquanto novas tarefas continuam sendo criadas para ele.
+     */
+    private static final int MAX_TARGET_ATTEMPTS = 3;
+
+    private final ToDoRepository toDoRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Cache<String, Job> jobs;
+    private final Map<String, Job> running = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public PurgeServiceImpl(ToDoRepository toDoRepository, UserService userService, CategoryService categoryService,
+                            ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            @Value("${todo.purge.chunk-size:1000}") int chunkSize,
+                            @Value("${todo.purge.threads:2}") int threads,
+                            @Value("${todo.purge.retention:1h}") Duration retention) {
+        this.toDoRepository = toDoRepository;
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> new Thread(runnable, "todo-purge-" + threadCount.incrementAndGet()));
+        // Remoções em andamento também ficam em "running" e continuam consultáveis mesmo após a retenção
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(retention).build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PurgeJobDto purgeUser(Long userId) {
+        userService.findById(userId);
+        return start(PurgeJobDto.Target.USER, userId,
+                limit -> toDoRepository.findIdsByUserId(userId, limit),
+                () -> toDoRepository.countByUserId(userId),
+                () -> userService.deleteWithoutToDos(userId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PurgeJobDto purgeCategory(Long categoryId) {
+        categoryService.findById(categoryId);
+        return start(PurgeJobDto.Target.CATEGORY, categoryId,
+                limit -> toDoRepository.findIdsByCategoryId(categoryId, limit),
+                () -> toDoRepository.countByCategoryId(categoryId),
+                () -> categoryService.deleteWithoutToDos(categoryId));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PurgeJobDto findJob(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            job = running.values().stream().filter(candidate -> candidate.id.equals(jobId)).findFirst().orElse(null);
+        }
+        if (job == null) {
+            throw new NoSuchElementException("Remoção não encontrada com o ID: " + jobId);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Interrompe a remoção em andamento no encerramento da aplicação; ela termina após o lote atual
+     * e pode ser iniciada novamente, continuando pelas tarefas restantes.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registra a remoção e a agenda, ou retorna a remoção já em andamento para o mesmo registro.
+     * Se a aplicação estiver em encerramento, a remoção é registrada como falha.
+     */
+    private PurgeJobDto start(PurgeJobDto.Target target, Long targetId, Function<Limit, List<Long>> nextChunk,
+                              LongSupplier count, Runnable deleteTarget) {
+        String key = target + ":" + targetId;
+        Job existing = running.get(key);
+        if (existing != null) {
+            return existing.toDto();
+        }
+        // A contagem é feita fora do computeIfAbsent, que bloqueia as demais chaves do mesmo bin do mapa
+        Job candidate = new Job(UUID.randomUUID().toString(), target, targetId, count.getAsLong());
+        Job job = running.putIfAbsent(key, candidate);
+        if (job != null) {
+            return job.toDto();
+        }
+        jobs.put(candidate.id, candidate);
+        try {
+            executor.execute(() -> run(candidate, nextChunk, deleteTarget));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Remoção {} de {} {} recusada: aplicação em encerramento.", candidate.id, target, targetId);
+            candidate.finish(PurgeJobDto.State.FAILED, "Aplicação em encerramento, inicie a remoção novamente.");
+            running.remove(key);
+        }
+        return candidate.toDto();
+    }
+
+    /**
+     * Remove as tarefas em lotes até não restar nenhuma e, em seguida, o próprio registro.
+     */
+    private void run(Job job, Function<Limit, List<Long>> nextChunk, Runnable deleteTarget) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                deleteChunks(job, nextChunk);
+                try {
+                    deleteTarget.run();
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    // Uma tarefa foi criada depois do último lote: ela é removida nos próximos lotes
+                    if (attempt == MAX_TARGET_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+            job.finish(PurgeJobDto.State.COMPLETED, null);
+        } catch (RuntimeException e) {
+            logger.error("Falha na remoção {} de {} {}.", job.id, job.target, job.targetId, e);
+            job.finish(PurgeJobDto.State.FAILED, e.getMessage());
+        } finally {
+            running.remove(job.target + ":" + job.targetId);
+            // Reinicia a retenção a partir do término
+            jobs.put(job.id, job);
+        }
+    }
+
+    /**
+     * Remove as tarefas em lotes, cada um em uma transação, até não restar nenhuma.
+     */
+    private void deleteChunks(Job job, Function<Limit, List<Long>> nextChunk) {
+        int deleted;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Remoção interrompida pelo encerramento da aplicação.");
+            }
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = nextChunk.apply(Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                // O estado anterior de cada tarefa alimenta os eventos de remoção, entregues após o commit
+                List<ToDoDto> toDos = toDoRepository.findDtoByIdIn(ids);
+                ToDoCacheInvalidation.evict(entityManager, ids);
+                ToDoCacheInvalidation.invalidateQueries(entityManager);
+                int[][] counts = jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(),
+                        (statement, id) -> statement.setLong(1, id));
+                toDos.forEach(toDo -> eventPublisher.publishEvent(ToDoChangedEvent.deleted(toDo)));
+                return Arrays.stream(counts[0]).sum();
+            });
+            job.deleted.addAndGet(deleted);
+        } while (deleted > 0);
+    }
+
+    /**
+     * Estado mutável de uma remoção, lido pelas consultas de andamento enquanto a thread de remoção o atualiza.
+     */
+    private static final class Job {
+        private final String id;
+        private final PurgeJobDto.Target target;
+        private final Long targetId;
+        private final long total;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong deleted = new AtomicLong();
+        private volatile PurgeJobDto.State state = PurgeJobDto.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(String id, PurgeJobDto.Target target, Long targetId, long total) {
+            this.id = id;
+            this.target = target;
+            this.targetId = targetId;
+            this.total = total;
+        }
+
+        private void finish(PurgeJobDto.State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private PurgeJobDto toDto() {
+            return new PurgeJobDto(id, target, targetId, state, total, deleted.get(), startedAt, finishedAt, error);
+        }
+    }
+}
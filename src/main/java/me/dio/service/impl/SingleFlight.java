@@ -0,0 +1,129 @@
+package me.dio.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.config.ReadWriteRoutingDataSource;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Agrupamento de consultas idênticas simultâneas (single-flight): enquanto uma consulta está em andamento,
+ * as chamadas com a mesma chave aguardam e recebem o mesmo resultado, em vez de repetirem a consulta no banco.
+ * Opcionalmente o resultado é reaproveitado por um tempo curto após a consulta (micro-TTL).
+ * <p>
+ * {@link #invalidate()} deve ser chamado após cada alteração dos dados consultados: as chamadas seguintes
+ * não aguardam consultas iniciadas antes dela nem recebem resultados guardados antes dela, de modo que um
+ * cliente sempre lê as próprias alterações. Com a réplica de leitura, as chamadas fixadas no primário
+ * ({@link ReadWriteRoutingDataSource#stickToPrimary()}) só são agrupadas entre si, para que não recebam um
+ * resultado lido da réplica ainda sem essas alterações.
+ * As chamadas são contadas em todo.singleflight.calls, por resultado: executed, coalesced ou cached.
+ *
+ * @param <K> Tipo da chave, com equals e hashCode pelos parâmetros da consulta.
+ * @param <V> Tipo do resultado, compartilhado entre as chamadas e portanto tratado como imutável.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<Flight<K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Flight<K>, V> recent;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter cached;
+
+    /**
+     * @param name Nome das consultas agrupadas, usado na tag "query" das métricas.
+     * @param microTtl Tempo de reaproveitamento do resultado após a consulta; zero para apenas agrupar as chamadas simultâneas.
+     * @param meterRegistry Registro das métricas.
+     */
+    SingleFlight(String name, Duration microTtl, MeterRegistry meterRegistry) {
+        this.recent = microTtl.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(microTtl)
+                .build();
+        this.executed = calls(meterRegistry, name, "executed");
+        this.coalesced = calls(meterRegistry, name, "coalesced");
+        this.cached = calls(meterRegistry, name, "cached");
+    }
+
+    /**
+     * Executa a consulta, ou aguarda a consulta idêntica em andamento e retorna o resultado dela.
+     *
+     * @param key Parâmetros da consulta.
+     * @param query Consulta ao banco.
+     * @return Resultado da consulta.
+     */
+    V execute(K key, Supplier<V> query) {
+        Flight<K> flight = new Flight<>(generation.get(), ReadWriteRoutingDataSource.isStuckToPrimary(), key);
+        if (recent != null) {
+            V result = recent.getIfPresent(flight);
+            if (result != null) {
+                cached.increment();
+                return result;
+            }
+        }
+        CompletableFuture<V> execution = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(flight, execution);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        executed.increment();
+        try {
+            V result = query.get();
+            if (recent != null) {
+                recent.put(flight, result);
+            }
+            execution.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            // As chamadas que aguardavam recebem a mesma exceção, como NoSuchElementException
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, execution);
+        }
+    }
+
+    /**
+     * Descarta os resultados guardados e separa as próximas chamadas das consultas em andamento.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        if (recent != null) {
+            recent.invalidateAll();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("todo.singleflight.calls")
+                .description("Read queries executed, coalesced with an identical in-flight query or served by the micro-TTL")
+                .tag("query", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Flight<K>(long generation, boolean primaryOnly, K key) {
+    }
+}
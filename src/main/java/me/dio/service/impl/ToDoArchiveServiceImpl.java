@@ -0,0 +1,121 @@
+package me.dio.service.impl;
+
+import jakarta.persistence.EntityManager;
+import me.dio.domain.model.Status;
+import me.dio.domain.repository.ToDoArchiveRepository;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.service.ToDoArchiveService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementação do arquivamento de tarefas.
+ * Cada lote bloqueia as tarefas elegíveis lendo apenas os seus IDs e os de seus usuários e categorias, copia-as
+ * para o arquivo com um INSERT ... SELECT e as remove de tb_todo via JDBC, na mesma transação; nenhuma tarefa é
+ * carregada como entidade, e apenas as tarefas do lote saem do cache de segundo nível.
+ * Como a data de conclusão não é registrada, a idade da tarefa é medida pelo vencimento.
+ * Após cada lote é publicado o evento de remoção em lote com as tarefas arquivadas e seus donos, que a busca
+ * aplica diretamente ao índice, sem reconstruí-lo.
+ */
+@Service
+public class ToDoArchiveServiceImpl implements ToDoArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoArchiveServiceImpl.class);
+
+    private static final String DELETE_SQL = "delete from tb_todo where id = ?";
+
+    private final ToDoRepository toDoRepository;
+    private final ToDoArchiveRepository toDoArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int afterDays;
+    private final int batchSize;
+
+    public ToDoArchiveServiceImpl(ToDoRepository toDoRepository, ToDoArchiveRepository toDoArchiveRepository,
+                                  ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                                  JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  @Value("${todo.archive.after-days:90}") int afterDays,
+                                  @Value("${todo.archive.batch-size:1000}") int batchSize) {
+        this.toDoRepository = toDoRepository;
+        this.toDoArchiveRepository = toDoArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int archive() {
+        LocalDate before = LocalDate.now().minusDays(afterDays);
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(before));
+            archived += moved;
+        } while (moved == batchSize);
+        return archived;
+    }
+
+    /**
+     * Executa o arquivamento periodicamente, conforme a expressão cron todo.archive.cron
+     * ("-" desabilita o agendamento).
+     */
+    @Scheduled(cron = "${todo.archive.cron:0 0 3 * * *}")
+    public void archiveScheduled() {
+        int archived = archive();
+        if (archived > 0) {
+            logger.info("{} tarefas encerradas movidas para o arquivo.", archived);
+        }
+    }
+
+    /**
+     * Arquiva um lote de tarefas elegíveis.
+     *
+     * @return Quantidade de tarefas arquivadas.
+     */
+    private int archiveBatch(LocalDate before) {
+        List<ToDoRepository.ToDoOwnership> toDos = toDoRepository.findForUpdateByStatusInAndDueDateBefore(Status.FINISHED, before, Limit.of(batchSize));
+        if (toDos.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = toDos.stream().map(ToDoRepository.ToDoOwnership::getId).toList();
+        Map<Long, Set<Long>> archivedByUser = new HashMap<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (ToDoRepository.ToDoOwnership toDo : toDos) {
+            archivedByUser.computeIfAbsent(toDo.getUserId(), userId -> new HashSet<>()).add(toDo.getId());
+            if (toDo.getCategoryId() != null) {
+                categoryIds.add(toDo.getCategoryId());
+            }
+        }
+
+        toDoArchiveRepository.archive(ids);
+        ToDoCacheInvalidation.evict(entityManager, ids);
+        ToDoCacheInvalidation.invalidateQueries(entityManager);
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (statement, id) -> statement.setLong(1, id));
+        eventPublisher.publishEvent(ToDoBulkChangedEvent.removed(archivedByUser, Set.copyOf(archivedByUser.keySet()), categoryIds));
+        return ids.size();
+    }
+}
@@ -0,0 +1,76 @@
+package me.dio.service.impl;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import me.dio.domain.model.ToDo;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Invalidação do cache do Hibernate para as gravações em tb_todo feitas via JDBC, que não passam pelo Hibernate.
+ * Um comando em massa em HQL esvaziaria toda a região das tarefas no cache de segundo nível; aqui apenas as
+ * tarefas gravadas saem da região, e as consultas sobre tb_todo do cache de consultas são invalidadas.
+ * Também retira da sua região o usuário ou a categoria removido via JDBC depois das suas tarefas.
+ * Deve ser chamada dentro da transação da gravação, antes dela.
+ */
+final class ToDoCacheInvalidation {
+
+    private static final String[] TODO_TABLE_SPACES = {"tb_todo"};
+
+    private ToDoCacheInvalidation() {
+    }
+
+    /**
+     * Invalida as consultas sobre tb_todo guardadas no cache de consultas, como em um comando em massa,
+     * antes da gravação e novamente ao fim da transação.
+     *
+     * @param entityManager EntityManager da transação.
+     */
+    static void invalidateQueries(EntityManager entityManager) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        if (!session.getFactory().getSessionFactoryOptions().isQueryCacheEnabled()) {
+            return;
+        }
+        TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        timestamps.preInvalidate(TODO_TABLE_SPACES, session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                timestamps.invalidate(TODO_TABLE_SPACES, session);
+            }
+        });
+    }
+
+    /**
+     * Remove as tarefas informadas da região das tarefas no cache de segundo nível antes da gravação e novamente
+     * ao fim da transação, para que uma leitura concorrente não devolva ao cache o estado anterior.
+     *
+     * @param entityManager EntityManager da transação.
+     * @param ids IDs das tarefas gravadas.
+     */
+    static void evict(EntityManager entityManager, List<Long> ids) {
+        evict(entityManager, ToDo.class, ids);
+    }
+
+    /**
+     * Remove os registros informados da região de uma entidade, como {@link #evict(EntityManager, List)}.
+     *
+     * @param entityManager EntityManager da transação.
+     * @param entityClass Classe da entidade.
+     * @param ids IDs dos registros gravados.
+     */
+    static void evict(EntityManager entityManager, Class<?> entityClass, List<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(entityClass, id));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ids.forEach(id -> cache.evict(entityClass, id));
+            }
+        });
+    }
+}
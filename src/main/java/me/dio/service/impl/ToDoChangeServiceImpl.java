@@ -0,0 +1,271 @@
+package me.dio.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.controller.dto.ToDoChangeDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.service.ToDoChangeService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import me.dio.service.event.ToDoChangedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementação do feed de alterações de tarefas.
+ * As alterações confirmadas são gravadas em um buffer circular em memória com offsets crescentes,
+ * o que permite a um cliente retomar o feed do ponto em que parou. Como o buffer não sobrevive a um reinício,
+ * os offsets são prefixados pela época da execução (instante da inicialização) e um ID de outra época recebe um RESYNC. Cada assinante tem uma fila
+ * limitada, esvaziada por um pool próprio de threads de envio: um cliente lento ocupa no máximo uma dessas threads
+ * e nunca as do executor de tarefas da aplicação, e cada vez que a fila de um assinante é esvaziada envia no máximo
+ * um lote antes de ceder a thread aos demais. Quando a fila enche, o assinante é desconectado e pode se reconectar
+ * a partir do último offset recebido.
+ */
+@Service
+public class ToDoChangeServiceImpl implements ToDoChangeService, DisposableBean {
+
+    /**
+     * Alterações enviadas a um assinante antes de a thread de envio passar aos demais.
+     */
+    private static final int SEND_BATCH_SIZE = 32;
+
+    private final long epoch = System.currentTimeMillis();
+    private final ToDoChangeDto[] buffer;
+    private final int subscriberQueueSize;
+    private final Executor sender;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter droppedSubscribers;
+    private long nextOffset = 1;
+
+    @Autowired
+    public ToDoChangeServiceImpl(@Value("${todo.changes.buffer-size:10000}") int bufferSize,
+                                 @Value("${todo.changes.subscriber-queue-size:256}") int subscriberQueueSize,
+                                 @Value("${todo.changes.sender-threads:4}") int senderThreads,
+                                 MeterRegistry meterRegistry) {
+        this(bufferSize, subscriberQueueSize, senderPool(senderThreads), meterRegistry);
+    }
+
+    /**
+     * @param sender Executor que esvazia as filas dos assinantes.
+     */
+    ToDoChangeServiceImpl(int bufferSize, int subscriberQueueSize, Executor sender, MeterRegistry meterRegistry) {
+        this.buffer = new ToDoChangeDto[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.sender = sender;
+        this.droppedSubscribers = Counter.builder("todo.changes.dropped.subscribers")
+                .description("Change feed subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("todo.changes.subscribers", subscriptions, Set::size);
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "todo-changes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Interrompe os envios em andamento no encerramento da aplicação; os clientes se reconectam
+     * a partir do último offset recebido.
+     */
+    @Override
+    public void destroy() {
+        if (sender instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Runnable subscribe(Long userId, String since, Subscriber subscriber) {
+        Subscription subscription = new Subscription(userId, subscriber);
+        Long sinceOffset = since != null ? offsetOf(since) : null;
+        // Sob o mesmo lock das gravações: nenhuma alteração fica entre o replay e as alterações novas
+        synchronized (buffer) {
+            if (since != null) {
+                replay(subscription, sinceOffset);
+            }
+            subscriptions.add(subscription);
+        }
+        return subscription::cancel;
+    }
+
+    /**
+     * Registra no feed a alteração de uma tarefa, após o commit da transação.
+     *
+     * @param event Evento de alteração da tarefa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoChanged(ToDoChangedEvent event) {
+        ToDoDto current = event.after() != null ? event.after() : event.before();
+        ToDoChangeDto.Type type = event.before() == null ? ToDoChangeDto.Type.CREATED
+                : event.after() == null ? ToDoChangeDto.Type.DELETED
+                : ToDoChangeDto.Type.UPDATED;
+        append(type, current.id(), current.userId(), event.after());
+    }
+
+    /**
+     * Registra no feed um RESYNC para os usuários afetados por uma alteração em lote.
+     *
+     * @param event Evento de alteração em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoBulkChanged(ToDoBulkChangedEvent event) {
+        if (event.affectsAllUsers()) {
+            append(ToDoChangeDto.Type.RESYNC, null, null, null);
+        } else {
+            event.userIds().forEach(userId -> append(ToDoChangeDto.Type.RESYNC, null, userId, null));
+        }
+    }
+
+    private void append(ToDoChangeDto.Type type, Long toDoId, Long userId, ToDoDto toDo) {
+        synchronized (buffer) {
+            long offset = nextOffset++;
+            ToDoChangeDto change = new ToDoChangeDto(epoch, offset, type, toDoId, userId, toDo);
+            buffer[(int) (offset % buffer.length)] = change;
+            for (Subscription subscription : subscriptions) {
+                if (subscription.accepts(change)) {
+                    subscription.offer(change);
+                }
+            }
+        }
+    }
+
+    /**
+     * Enfileira para o assinante as alterações retidas posteriores ao offset, ou um RESYNC se alguma delas
+     * já foi sobrescrita no buffer, se não cabem na fila do assinante ou se o offset é de uma execução anterior.
+     */
+    private void replay(Subscription subscription, Long since) {
+        long oldestOffset = Math.max(1, nextOffset - buffer.length);
+        boolean retained = since != null && since + 1 >= oldestOffset && since < nextOffset;
+        List<ToDoChangeDto> missed = new ArrayList<>();
+        if (retained) {
+            for (long offset = Math.max(since + 1, oldestOffset); offset < nextOffset; offset++) {
+                ToDoChangeDto change = buffer[(int) (offset % buffer.length)];
+                if (subscription.accepts(change)) {
+                    missed.add(change);
+                }
+            }
+        }
+        if (!retained || missed.size() > subscriberQueueSize) {
+            subscription.offer(new ToDoChangeDto(epoch, nextOffset - 1, ToDoChangeDto.Type.RESYNC, null, subscription.userId, null));
+        } else {
+            missed.forEach(subscription::offer);
+        }
+    }
+
+    /**
+     * Extrai o offset de um ID de alteração no formato "época-offset".
+     *
+     * @return Offset, ou null se o ID não for desta execução ou não estiver no formato esperado.
+     */
+    private Long offsetOf(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            long eventEpoch = Long.parseLong(eventId.substring(0, separator));
+            long offset = Long.parseLong(eventId.substring(separator + 1));
+            return eventEpoch == epoch && offset >= 0 ? offset : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Inscrição de um assinante, com a fila de alterações ainda não enviadas.
+     * No máximo uma tarefa do executor esvazia a fila por vez, preservando a ordem dos offsets; cada tarefa envia
+     * no máximo um lote e, se ainda houver alterações, agenda a próxima no fim da fila do executor.
+     */
+    private final class Subscription {
+
+        private final Long userId;
+        private final Subscriber subscriber;
+        private final Queue<ToDoChangeDto> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        Subscription(Long userId, Subscriber subscriber) {
+            this.userId = userId;
+            this.subscriber = subscriber;
+        }
+
+        boolean accepts(ToDoChangeDto change) {
+            return change.userId() == null || change.userId().equals(userId);
+        }
+
+        void offer(ToDoChangeDto change) {
+            if (cancelled) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                droppedSubscribers.increment();
+                cancel();
+                subscriber.close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Aplicação em encerramento
+                cancel();
+            }
+        }
+
+        private void drain() {
+            ToDoChangeDto change;
+            int sent = 0;
+            while (!cancelled && sent < SEND_BATCH_SIZE && (change = queue.poll()) != null) {
+                try {
+                    subscriber.send(change);
+                    sent++;
+                } catch (IOException | RuntimeException e) {
+                    cancel();
+                }
+            }
+            if (!cancelled && sent == SEND_BATCH_SIZE && !queue.isEmpty()) {
+                schedule();
+                return;
+            }
+            draining.set(false);
+            // Uma alteração pode ter sido enfileirada depois do último poll e antes de liberar a flag
+            if (!cancelled && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package me.dio.service.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal local append-only do modo write-behind, com uma tarefa em JSON por linha.
+ * As gravações são confirmadas em grupo: quem precisa aguardar o disco executa um único fsync
+ * que cobre tudo o que foi escrito até então, inclusive as linhas das threads concorrentes.
+ * Um arquivo de checkpoint guarda o offset até o qual o journal já foi enviado ao banco; quando
+ * todo o conteúdo foi enviado, o journal é truncado. As linhas que não podem ser lidas vão para um arquivo
+ * de quarentena, para análise manual, e deixam de bloquear o envio das seguintes.
+ */
+final class ToDoJournal implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path checkpointPath;
+    private final Path quarantinePath;
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+    private volatile long writtenPosition;
+    private volatile long syncedPosition;
+    private volatile long checkpoint;
+
+    /**
+     * Abre o journal do diretório informado, descartando uma última linha incompleta
+     * deixada por uma gravação interrompida (que nunca foi confirmada ao cliente).
+     */
+    ToDoJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.checkpointPath = directory.resolve("todo.checkpoint");
+        this.quarantinePath = directory.resolve("todo.quarantine");
+        this.channel = FileChannel.open(directory.resolve("todo.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long end = lastLineEnd();
+        channel.truncate(end);
+        channel.force(true);
+        this.writtenPosition = end;
+        this.syncedPosition = end;
+        // Um checkpoint além do fim indica truncamento interrompido: reenviar tudo é seguro, pois o envio ignora IDs já gravados
+        long saved = readCheckpoint();
+        this.checkpoint = saved <= end ? saved : 0;
+    }
+
+    /**
+     * Acrescenta uma linha ao journal, sem aguardar o disco.
+     *
+     * @return Offset do fim da linha, a ser informado em {@link #awaitDurable(long)}.
+     */
+    synchronized long append(byte[] line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        long position = writtenPosition;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        writtenPosition = position;
+        return position;
+    }
+
+    /**
+     * Aguarda até que o journal esteja gravado em disco pelo menos até o offset informado.
+     */
+    void awaitDurable(long position) throws IOException {
+        if (syncedPosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            // Outra thread pode ter feito o fsync enquanto esta aguardava o lock
+            if (syncedPosition >= position) {
+                return;
+            }
+            long written = writtenPosition;
+            channel.force(false);
+            syncedPosition = written;
+        }
+    }
+
+    /**
+     * Lê as linhas já gravadas em disco a partir de um offset.
+     *
+     * @param from Offset inicial, normalmente o checkpoint.
+     * @param maxLines Quantidade máxima de linhas.
+     * @return Linhas lidas e o offset do fim da última delas.
+     */
+    Batch read(long from, int maxLines) throws IOException {
+        long limit = syncedPosition;
+        List<String> lines = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        byte[] pending = new byte[0];
+        long position = from;
+        long end = from;
+        while (position < limit && lines.size() < maxLines) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), limit - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            int lineStart = 0;
+            for (int i = 0; i < read && lines.size() < maxLines; i++) {
+                if (buffer.get(i) == '\n') {
+                    byte[] line = new byte[pending.length + i - lineStart];
+                    System.arraycopy(pending, 0, line, 0, pending.length);
+                    buffer.get(lineStart, line, pending.length, i - lineStart);
+                    lines.add(new String(line, StandardCharsets.UTF_8));
+                    pending = new byte[0];
+                    lineStart = i + 1;
+                    end = position + lineStart;
+                }
+            }
+            // Trecho de uma linha que continua no próximo bloco
+            byte[] rest = new byte[pending.length + read - lineStart];
+            System.arraycopy(pending, 0, rest, 0, pending.length);
+            buffer.get(lineStart, rest, pending.length, read - lineStart);
+            pending = rest;
+            position += read;
+        }
+        return new Batch(lines, end);
+    }
+
+    /**
+     * Registra que o journal foi enviado ao banco até o offset informado.
+     * Se não restar nada pendente, o journal é truncado e volta a ser escrito do início.
+     */
+    void checkpoint(long position) throws IOException {
+        synchronized (this) {
+            synchronized (syncLock) {
+                if (position == writtenPosition) {
+                    // O checkpoint é zerado antes do truncamento, de modo que uma falha entre os dois apenas reenvia linhas já gravadas
+                    writeCheckpoint(0);
+                    checkpoint = 0;
+                    channel.truncate(0);
+                    channel.force(true);
+                    writtenPosition = 0;
+                    syncedPosition = 0;
+                    return;
+                }
+            }
+        }
+        writeCheckpoint(position);
+        checkpoint = position;
+    }
+
+    /**
+     * Acrescenta ao arquivo de quarentena, e grava em disco, uma linha do journal que não pôde ser lida.
+     * Deve ser chamado antes de o checkpoint passar pela linha, para que ela nunca se perca.
+     */
+    void quarantine(String line) throws IOException {
+        try (FileChannel file = FileChannel.open(quarantinePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap((line + '\n').getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(true);
+        }
+    }
+
+    /**
+     * Retorna o offset até o qual o journal já foi enviado ao banco.
+     */
+    long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Retorna a quantidade de bytes escritos e ainda não enviados ao banco.
+     */
+    long backlog() {
+        return writtenPosition - checkpoint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    /**
+     * Localiza o fim da última linha completa, lendo o arquivo de trás para frente.
+     */
+    private long lastLineEnd() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long end = channel.size();
+        while (end > 0) {
+            int length = (int) Math.min(buffer.capacity(), end);
+            buffer.clear().limit(length);
+            channel.read(buffer, end - length);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return end - length + i + 1;
+                }
+            }
+            end -= length;
+        }
+        return 0;
+    }
+
+    private long readCheckpoint() throws IOException {
+        return Files.exists(checkpointPath) ? Long.parseLong(Files.readString(checkpointPath).trim()) : 0;
+    }
+
+    /**
+     * Grava o checkpoint em um arquivo temporário e o move sobre o anterior, evitando um checkpoint parcial.
+     */
+    private void writeCheckpoint(long position) throws IOException {
+        Path temporary = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            file.write(ByteBuffer.wrap(Long.toString(position).getBytes(StandardCharsets.US_ASCII)));
+            file.force(true);
+        }
+        Files.move(temporary, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Linhas lidas do journal e o offset do fim da última delas.
+     */
+    record Batch(List<String> lines, long end) {
+    }
+}
@@ -0,0 +1,475 @@
+package me.dio.service.impl;
+
+import me.dio.config.ReadWriteRoutingDataSource;
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.service.ToDoSearchService;
+import me.dio.service.ToDoService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import me.dio.service.event.ToDoChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementação da busca textual de tarefas com um índice invertido em memória sobre o título e a descrição.
+ * O índice é particionado por usuário, de modo que uma busca percorre apenas as tarefas do usuário
+ * informado, e os resultados são ordenados pela pontuação BM25.
+ * É construído a partir do banco antes de o servidor web começar a atender requisições e
+ * atualizado incrementalmente pelos eventos de alteração de tarefas. As remoções em lote (de um usuário,
+ * de uma categoria, do arquivamento) informam as tarefas removidas, que saem apenas dos índices dos seus donos.
+ * Após as demais alterações em lote, os índices afetados são reconstruídos por uma thread dedicada, fora da thread
+ * que publicou o evento; as alterações recebidas durante a reconstrução são reaplicadas sobre o novo índice
+ * antes de ele substituir o atual.
+ */
+@Service
+public class ToDoSearchServiceImpl implements ToDoSearchService, SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoSearchServiceImpl.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Palavras muito frequentes, que não ajudam a distinguir as tarefas.
+     */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "nos", "nas",
+            "um", "uma", "para", "por", "com", "que", "the", "of", "and", "to", "in", "for", "on", "with");
+
+    private final ToDoRepository toDoRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "todo-search-rebuild"));
+    private final List<Rebuild> rebuilds = new ArrayList<>();
+    private volatile Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    public ToDoSearchServiceImpl(ToDoRepository toDoRepository, PlatformTransactionManager transactionManager) {
+        this.toDoRepository = toDoRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Os eventos são tratados após o commit, quando a transação original ainda está associada à thread
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Constrói o índice com todas as tarefas do banco durante a inicialização da aplicação.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        indexes = build(ToDoRepository::streamDto);
+        logger.info("Índice de busca construído com as tarefas de {} usuários em {} ms.",
+                indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPageDto<ToDoDto> search(String query, Long userId, Long after, int limit) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um termo de busca.");
+        }
+        int pageSize = Math.max(1, Math.min(limit, ToDoService.MAX_PAGE_SIZE));
+        int offset = after != null ? Math.toIntExact(Math.max(0, after)) : 0;
+
+        UserIndex index = indexes.get(userId);
+        List<Long> ids = index != null ? index.search(terms, offset + pageSize + 1) : List.of();
+        if (ids.size() <= offset) {
+            return new CursorPageDto<>(List.of(), null);
+        }
+        List<Long> pageIds = ids.subList(offset, Math.min(ids.size(), offset + pageSize));
+
+        // Uma única consulta para os dados da página, devolvidos na ordem de relevância
+        Map<Long, ToDoDto> toDos = toDoRepository.findDtoByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(ToDoDto::id, Function.identity()));
+        List<ToDoDto> items = pageIds.stream().map(toDos::get).filter(Objects::nonNull).toList();
+        Long nextCursor = ids.size() > offset + pageSize ? (long) (offset + pageSize) : null;
+        return new CursorPageDto<>(items, nextCursor);
+    }
+
+    /**
+     * Atualiza o índice com a alteração de uma tarefa, após o commit da transação.
+     *
+     * @param event Evento de alteração da tarefa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoChanged(ToDoChangedEvent event) {
+        ToDoDto before = event.before();
+        ToDoDto after = event.after();
+        if (before != null && after != null && before.userId().equals(after.userId())
+                && Objects.equals(before.title(), after.title()) && Objects.equals(before.description(), after.description())) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        if (before != null) {
+            userIds.add(before.userId());
+        }
+        if (after != null) {
+            userIds.add(after.userId());
+        }
+        change(userIds, target -> apply(target, before, after));
+    }
+
+    /**
+     * Remove do índice as tarefas de uma remoção em lote, após o commit. Nas demais alterações em lote,
+     * agenda a reconstrução a partir do banco do índice dos usuários afetados, ou do índice inteiro quando
+     * qualquer usuário pode ter sido afetado; até a reconstrução terminar, as buscas desses usuários usam o
+     * índice anterior. A leitura é fixada no primário, que já contém o lote.
+     *
+     * @param event Evento de alteração em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoBulkChanged(ToDoBulkChangedEvent event) {
+        if (event.onlyRemovesKnownToDos()) {
+            Map<Long, Set<Long>> removed = Map.copyOf(event.removedToDoIds());
+            change(removed.keySet(), target -> remove(target, removed));
+            return;
+        }
+        Set<Long> userIds = event.affectsAllUsers() ? null : Set.copyOf(event.userIds());
+        rebuilder.execute(() -> {
+            // Fora de uma requisição nada fixa a thread no primário; a réplica atrasada devolveria as tarefas anteriores ao lote
+            ReadWriteRoutingDataSource.stickToPrimary();
+            try {
+                rebuild(userIds);
+            } catch (RuntimeException e) {
+                logger.error("Falha ao reconstruir o índice de busca dos usuários {}.", userIds != null ? userIds : "(todos)", e);
+            } finally {
+                ReadWriteRoutingDataSource.clearStickiness();
+            }
+        });
+    }
+
+    /**
+     * Encerra a reconstrução em andamento no encerramento da aplicação.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        rebuilder.shutdownNow();
+        rebuilder.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reconstrói os índices dos usuários informados, ou de todos quando null. A reconstrução é registrada
+     * antes da leitura do banco: toda alteração confirmada depois disso é também guardada nela e reaplicada
+     * sobre os índices lidos, que já podem contê-la; remover o estado anterior e adicionar o novo tem o mesmo
+     * resultado nos dois casos.
+     */
+    private void rebuild(Set<Long> userIds) {
+        Rebuild rebuild = new Rebuild(userIds);
+        synchronized (rebuilds) {
+            rebuilds.add(rebuild);
+        }
+        try {
+            Map<Long, UserIndex> built = userIds == null
+                    ? build(ToDoRepository::streamDto)
+                    : build(repository -> userIds.stream().flatMap(repository::streamDtoByUserId));
+            synchronized (rebuilds) {
+                rebuild.changes.forEach(change -> change.accept(built));
+                if (userIds == null) {
+                    indexes = built;
+                    return;
+                }
+                for (Long userId : userIds) {
+                    UserIndex index = built.get(userId);
+                    if (index != null) {
+                        indexes.put(userId, index);
+                    } else {
+                        indexes.remove(userId);
+                    }
+                }
+            }
+        } finally {
+            synchronized (rebuilds) {
+                rebuilds.remove(rebuild);
+            }
+        }
+    }
+
+    /**
+     * Aplica uma alteração aos índices atuais e a guarda nas reconstruções em andamento dos usuários envolvidos,
+     * que a reaplicam sobre os índices lidos do banco.
+     */
+    private void change(Set<Long> userIds, Consumer<Map<Long, UserIndex>> change) {
+        synchronized (rebuilds) {
+            change.accept(indexes);
+            rebuilds.forEach(rebuild -> rebuild.record(userIds, change));
+        }
+    }
+
+    /**
+     * Aplica a alteração de uma tarefa aos índices: remove o estado anterior e adiciona o novo.
+     */
+    private static void apply(Map<Long, UserIndex> target, ToDoDto before, ToDoDto after) {
+        if (before != null) {
+            UserIndex index = target.get(before.userId());
+            if (index != null) {
+                index.remove(before.id(), tokenize(before));
+            }
+        }
+        if (after != null) {
+            target.computeIfAbsent(after.userId(), id -> new UserIndex()).add(after.id(), tokenize(after));
+        }
+    }
+
+    /**
+     * Remove dos índices as tarefas informadas, agrupadas pelo usuário dono; o índice que fica vazio é descartado.
+     */
+    private static void remove(Map<Long, UserIndex> target, Map<Long, Set<Long>> removedToDoIds) {
+        removedToDoIds.forEach((userId, ids) -> {
+            UserIndex index = target.get(userId);
+            if (index != null && index.removeAll(ids)) {
+                target.remove(userId);
+            }
+        });
+    }
+
+    /**
+     * Lê as tarefas com um cursor do banco e monta os índices dos usuários correspondentes.
+     */
+    private Map<Long, UserIndex> build(Function<ToDoRepository, Stream<ToDoDto>> query) {
+        Map<Long, UserIndex> built = new ConcurrentHashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ToDoDto> toDos = query.apply(toDoRepository)) {
+                toDos.forEach(toDo -> built.computeIfAbsent(toDo.userId(), id -> new UserIndex()).add(toDo.id(), tokenize(toDo)));
+            }
+        });
+        return built;
+    }
+
+    private static List<String> tokenize(ToDoDto toDo) {
+        List<String> terms = tokenize(toDo.title());
+        terms.addAll(tokenize(toDo.description()));
+        return terms;
+    }
+
+    /**
+     * Separa o texto em termos em minúsculas e sem acentos, descartando as palavras muito frequentes.
+     */
+    private static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String term : NON_WORD.split(normalized)) {
+            if (!term.isEmpty() && !STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Reconstrução em andamento, com as alterações dos seus usuários confirmadas desde o início da leitura.
+     */
+    private static final class Rebuild {
+
+        private final Set<Long> userIds;
+        private final List<Consumer<Map<Long, UserIndex>>> changes = new ArrayList<>();
+
+        Rebuild(Set<Long> userIds) {
+            this.userIds = userIds;
+        }
+
+        void record(Set<Long> changedUserIds, Consumer<Map<Long, UserIndex>> change) {
+            if (userIds == null || changedUserIds.stream().anyMatch(userIds::contains)) {
+                changes.add(change);
+            }
+        }
+    }
+
+    /**
+     * Índice invertido das tarefas de um usuário: para cada termo, as tarefas que o contêm
+     * e quantas vezes, além da quantidade de termos de cada tarefa, usada na pontuação BM25.
+     */
+    private static final class UserIndex {
+
+        private static final double K1 = 1.2;
+        private static final double B = 0.75;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Integer> lengths = new HashMap<>();
+        private long totalLength;
+
+        void add(long id, List<String> terms) {
+            Map<String, Integer> frequencies = frequencies(terms);
+            lock.writeLock().lock();
+            try {
+                Integer previous = lengths.put(id, terms.size());
+                totalLength += terms.size() - (previous != null ? previous : 0);
+                frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).put(id, frequency));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id, List<String> terms) {
+            lock.writeLock().lock();
+            try {
+                Integer previous = lengths.remove(id);
+                if (previous != null) {
+                    totalLength -= previous;
+                }
+                for (String term : new LinkedHashSet<>(terms)) {
+                    Postings termPostings = postings.get(term);
+                    if (termPostings != null && termPostings.remove(id) && termPostings.size == 0) {
+                        postings.remove(term);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Remove várias tarefas sem conhecer os seus termos, percorrendo uma vez as listas de todos os termos do índice.
+         *
+         * @return true se o índice ficou sem tarefas.
+         */
+        boolean removeAll(Set<Long> ids) {
+            lock.writeLock().lock();
+            try {
+                for (Long id : ids) {
+                    Integer previous = lengths.remove(id);
+                    if (previous != null) {
+                        totalLength -= previous;
+                    }
+                }
+                postings.values().removeIf(termPostings -> termPostings.removeAll(ids) && termPostings.size == 0);
+                return lengths.isEmpty();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Retorna os IDs das tarefas que contêm ao menos um dos termos, da maior para a menor pontuação.
+         */
+        List<Long> search(List<String> terms, int maxResults) {
+            Map<Long, Double> scores = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                int documents = lengths.size();
+                double averageLength = documents > 0 ? (double) totalLength / documents : 1;
+                for (String term : terms) {
+                    Postings termPostings = postings.get(term);
+                    if (termPostings == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (documents - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                    for (int i = 0; i < termPostings.size; i++) {
+                        long id = termPostings.ids[i];
+                        int frequency = termPostings.frequencies[i];
+                        double norm = K1 * (1 - B + B * lengths.get(id) / averageLength);
+                        scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .limit(maxResults)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        private static Map<String, Integer> frequencies(List<String> terms) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            return frequencies;
+        }
+    }
+
+    /**
+     * Lista de tarefas de um termo, mantida em arrays ordenados pelo ID para ocupar pouca memória.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void put(long id, int frequency) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            ids[position] = id;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        /**
+         * Remove as tarefas informadas compactando os arrays em uma única passagem.
+         *
+         * @return true se alguma tarefa foi removida.
+         */
+        boolean removeAll(Set<Long> removed) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removed.contains(ids[i])) {
+                    ids[kept] = ids[i];
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            boolean changed = kept < size;
+            size = kept;
+            return changed;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
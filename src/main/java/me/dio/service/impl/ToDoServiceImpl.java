@@ -1,19 +1,54 @@
 package me.dio.service.impl;
 
+import jakarta.persistence.EntityManager;
+import me.dio.controller.exception.InvalidStatusTransitionException;
+import me.dio.controller.dto.CursorPageDto;
+import me.dio.controller.dto.DueDatePageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.controller.dto.ToDoExportDto;
 import me.dio.domain.model.Category;
 import me.dio.domain.model.Status;
 import me.dio.domain.model.ToDo;
 import me.dio.domain.model.User;
 import me.dio.domain.repository.CategoryRepository;
+import me.dio.domain.repository.ToDoArchiveRepository;
 import me.dio.domain.repository.ToDoRepository;
+import me.dio.domain.repository.ToDoRepository.ToDoVersion;
 import me.dio.domain.repository.UserRepository;
+import me.dio.domain.repository.VersionSummary;
+import me.dio.service.CategoryService;
 import me.dio.service.ToDoService;
+import me.dio.service.UserService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import me.dio.service.event.ToDoChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço para a entidade ToDo.
@@ -22,14 +57,57 @@ import java.util.NoSuchElementException;
 @Service
 public class ToDoServiceImpl implements ToDoService {
 
+    /**
+     * Quantidade de tarefas enviadas ao banco por lote JDBC na importação em lote.
+     */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
+    private static final DateTimeFormatter DUE_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Alteração de status de uma tarefa condicionada à versão lida, enviada via JDBC: um UPDATE em HQL
+     * esvaziaria toda a região das tarefas no cache de segundo nível.
+     */
+    private static final String UPDATE_STATUS_SQL = "update tb_todo set status = ?, version = version + 1 where id = ? and version = ?";
+
     private final ToDoRepository toDoRepository;
+    private final ToDoArchiveRepository toDoArchiveRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    /**
+     * Listagens e ETags por status, as consultas mais repetidas nos horários de pico, agrupadas
+     * quando idênticas e simultâneas.
+     */
+    private final SingleFlight<StatusPageKey, CursorPageDto<ToDoDto>> pagesByStatus;
+    private final SingleFlight<StatusPageKey, String> versionTagsByStatus;
 
-    public ToDoServiceImpl(ToDoRepository toDoRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public ToDoServiceImpl(ToDoRepository toDoRepository, ToDoArchiveRepository toDoArchiveRepository,
+                           UserRepository userRepository, CategoryRepository categoryRepository,
+                           UserService userService, CategoryService categoryService, EntityManager entityManager,
+                           ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${todo.single-flight.micro-ttl:0ms}") Duration microTtl) {
         this.toDoRepository = toDoRepository;
+        this.toDoArchiveRepository = toDoArchiveRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        // As chamadas que aguardam uma consulta em andamento não abrem transação nem ocupam conexão
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pagesByStatus = new SingleFlight<>("todos.by-status", microTtl, meterRegistry);
+        this.versionTagsByStatus = new SingleFlight<>("todos.by-status.version", microTtl, meterRegistry);
     }
 
     /**
@@ -37,73 +115,460 @@ public class ToDoServiceImpl implements ToDoService {
      */
     @Override
     public ToDo create(String title, String description, Status status, String dueDate, Long userId, Long categoryId) {
-        // Buscando o usuário pelo ID
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado com o ID: " + userId));
-
-        // Buscando a categoria pelo ID
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new NoSuchElementException("Categoria não encontrada com o ID: " + categoryId));
+        // Buscando o usuário e a categoria pelo ID, servidos pelo cache de segundo nível na maioria das chamadas
+        User user = userService.findById(userId);
+        Category category = categoryService.findById(categoryId);
 
-        // Criando o DateTimeFormatter para o formato dd/MM/yyyy
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        // Analisando a data e convertendo para LocalDate
-        LocalDate parsedDueDate = LocalDate.parse(dueDate, formatter);
+        // Analisando a data no formato dd/MM/yyyy e convertendo para LocalDate
+        LocalDate parsedDueDate = parseDueDate(dueDate);
 
         // Criando o ToDo
         ToDo toDo = new ToDo();
         toDo.setTitle(title);
         toDo.setDescription(description);
         toDo.setStatus(status);
-        toDo.setDueDate(parsedDueDate.toString());  // Armazenando a data no formato padrão (yyyy-MM-dd)
+        toDo.setDueDate(parsedDueDate);
         toDo.setUser(user);
         toDo.setCategory(category);
 
         // Salvando o ToDo no repositório
-        return toDoRepository.save(toDo);
+        ToDo savedToDo = toDoRepository.save(toDo);
+        eventPublisher.publishEvent(ToDoChangedEvent.created(new ToDoDto(savedToDo)));
+        return savedToDo;
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public int importAll(Iterator<ToDoDto> toDos) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(IMPORT_BATCH_SIZE);
+
+        // IDs já validados são reaproveitados pelos lotes seguintes
+        Set<Long> knownUserIds = new HashSet<>();
+        Set<Long> knownCategoryIds = new HashSet<>();
+        List<ToDoDto> chunk = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int imported = 0;
+
+        while (toDos.hasNext()) {
+            chunk.add(toDos.next());
+            if (chunk.size() == IMPORT_BATCH_SIZE || !toDos.hasNext()) {
+                imported += importChunk(chunk, knownUserIds, knownCategoryIds);
+                chunk.clear();
+            }
+        }
+        eventPublisher.publishEvent(new ToDoBulkChangedEvent(knownUserIds, knownCategoryIds));
+        return imported;
     }
     /**
      * {@inheritDoc}
      */
     @Override
-    public ToDo findById(Long id) {
+    public ToDoDto findById(Long id) {
+        // A entidade é servida pelo cache de segundo nível; usuário e categoria não são carregados, apenas seus IDs
         return toDoRepository.findById(id)
+                .map(ToDoDto::new)
                 .orElseThrow(() -> new NoSuchElementException("Tarefa não encontrada com o ID: " + id));
     }
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<ToDo> findByUserId(Long userId) {
-        return toDoRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public CursorPageDto<ToDoDto> findByUserId(Long userId, Long afterId, int limit, boolean includeArchived) {
+        int pageSize = pageSize(limit);
+        List<ToDoDto> toDos = toDoRepository.findDtoPageByUserId(userId, cursor(afterId), Limit.of(pageSize + 1));
+        if (includeArchived) {
+            toDos = merge(toDos, toDoArchiveRepository.findDtoPageByUserId(userId, cursor(afterId), Limit.of(pageSize + 1)), pageSize + 1, ToDoDto::id);
+        }
+        return CursorPageDto.of(toDos, pageSize, ToDoDto::id);
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String versionTagByUserId(Long userId, Long afterId, int limit, boolean includeArchived) {
+        int pageSize = pageSize(limit);
+        List<ToDoVersion> versions = toDoRepository.findVersionPageByUserId(userId, cursor(afterId), Limit.of(pageSize + 1));
+        if (includeArchived) {
+            versions = merge(versions, toDoArchiveRepository.findVersionPageByUserId(userId, cursor(afterId), Limit.of(pageSize + 1)), pageSize + 1, ToDoVersion::getId);
+        }
+        return versionTag(versions, pageSize);
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CursorPageDto<ToDoDto> findByStatus(Status status, Long afterId, int limit, boolean includeArchived) {
+        int pageSize = pageSize(limit);
+        return pagesByStatus.execute(new StatusPageKey(status, cursor(afterId), pageSize, includeArchived),
+                () -> readOnlyTransaction.execute(tx -> {
+                    List<ToDoDto> toDos = toDoRepository.findDtoPageByStatus(status, cursor(afterId), Limit.of(pageSize + 1));
+                    // Apenas tarefas encerradas são arquivadas: para os demais status o arquivo não é consultado
+                    if (includeArchived && Status.FINISHED.contains(status)) {
+                        toDos = merge(toDos, toDoArchiveRepository.findDtoPageByStatus(status, cursor(afterId), Limit.of(pageSize + 1)), pageSize + 1, ToDoDto::id);
+                    }
+                    return CursorPageDto.of(toDos, pageSize, ToDoDto::id);
+                }));
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String versionTagByStatus(Status status, Long afterId, int limit, boolean includeArchived) {
+        int pageSize = pageSize(limit);
+        return versionTagsByStatus.execute(new StatusPageKey(status, cursor(afterId), pageSize, includeArchived),
+                () -> readOnlyTransaction.execute(tx -> {
+                    List<ToDoVersion> versions = toDoRepository.findVersionPageByStatus(status, cursor(afterId), Limit.of(pageSize + 1));
+                    if (includeArchived && Status.FINISHED.contains(status)) {
+                        versions = merge(versions, toDoArchiveRepository.findVersionPageByStatus(status, cursor(afterId), Limit.of(pageSize + 1)), pageSize + 1, ToDoVersion::getId);
+                    }
+                    return versionTag(versions, pageSize);
+                }));
     }
     /**
      * {@inheritDoc}
      */
     @Override
-    public List<ToDo> findByStatus(Status status) {
-        return toDoRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public DueDatePageDto findOverdue(Long userId, String after, int limit) {
+        int pageSize = pageSize(limit);
+        LocalDate today = LocalDate.now();
+        DueDatePageDto.Cursor cursor = DueDatePageDto.Cursor.parse(after);
+        List<ToDoDto> toDos = userId != null
+                ? toDoRepository.findDtoPageOverdueByUserId(userId, Status.OPEN, today, cursor.dueDate(), cursor.id(), Limit.of(pageSize + 1))
+                : toDoRepository.findDtoPageOverdue(Status.OPEN, today, cursor.dueDate(), cursor.id(), Limit.of(pageSize + 1));
+        return DueDatePageDto.of(toDos, pageSize);
     }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DueDatePageDto findDueBetween(Status status, LocalDate from, LocalDate to, String after, int limit) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        int pageSize = pageSize(limit);
+        DueDatePageDto.Cursor cursor = DueDatePageDto.Cursor.parse(after);
+        List<ToDoDto> toDos = toDoRepository.findDtoPageDueBetween(status, from, to, cursor.dueDate(), cursor.id(), Limit.of(pageSize + 1));
+        return DueDatePageDto.of(toDos, pageSize);
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByUserId(Long userId, Consumer<ToDoDto> consumer) {
+        try (Stream<ToDoDto> toDos = toDoRepository.streamDtoByUserId(userId)) {
+            toDos.forEach(consumer);
+        }
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByStatus(Status status, Consumer<ToDoDto> consumer) {
+        try (Stream<ToDoDto> toDos = toDoRepository.streamDtoByStatus(status)) {
+            toDos.forEach(consumer);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * A transação somente leitura mantém uma visão consistente das tarefas durante toda a exportação.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Status status, Long userId, Long categoryId, LocalDate dueFrom, LocalDate dueTo,
+                       Consumer<ToDoExportDto> consumer) {
+        if (dueFrom != null && dueTo != null && dueFrom.isAfter(dueTo)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        try (Stream<ToDoExportDto> toDos = toDoRepository.streamExport(status, userId, categoryId, dueFrom, dueTo)) {
+            toDos.forEach(consumer);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public ToDo update(Long id, ToDo toDo) {
-        if (!toDoRepository.existsById(id)) {
-            throw new NoSuchElementException("Tarefa não encontrada com o ID: " + id);
+        ToDo existingToDo = toDoRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Tarefa não encontrada com o ID: " + id));
+        // A versão do UPDATE é a lida aqui: uma alteração concorrente ainda é detectada pelo Hibernate ao gravar
+        if (toDo.getVersion() != null && !toDo.getVersion().equals(existingToDo.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(ToDo.class, id);
         }
-        toDo.setId(id);
-        return toDoRepository.save(toDo);
+        ToDoDto before = new ToDoDto(existingToDo);
+
+        // Atualiza apenas os dados da tarefa, preservando o usuário e a categoria associados
+        existingToDo.setTitle(toDo.getTitle());
+        existingToDo.setDescription(toDo.getDescription());
+        existingToDo.setStatus(toDo.getStatus());
+        existingToDo.setDueDate(toDo.getDueDate());
+        ToDo updatedToDo = toDoRepository.save(existingToDo);
+        eventPublisher.publishEvent(ToDoChangedEvent.updated(before, new ToDoDto(updatedToDo)));
+        return updatedToDo;
     }
     /**
      * {@inheritDoc}
      */
     @Override
-    public void delete(Long id) {
-        if (!toDoRepository.existsById(id)) {
-            throw new NoSuchElementException("Tarefa não encontrada com o ID: " + id);
+    @Transactional
+    public ToDoDto updateStatus(Long id, Status status) {
+        ToDoDto current = toDoRepository.findDtoById(id)
+                .orElseThrow(() -> new NoSuchElementException("Tarefa não encontrada com o ID: " + id));
+        if (current.status() == status) {
+            return current;
+        }
+        checkTransition(current, status);
+
+        // UPDATE condicionado à versão lida, sem carregar a entidade: se outra requisição alterou a tarefa
+        // nesse meio tempo, nada é alterado
+        ToDoCacheInvalidation.evict(entityManager, List.of(id));
+        ToDoCacheInvalidation.invalidateQueries(entityManager);
+        if (jdbcTemplate.update(UPDATE_STATUS_SQL, status.name(), id, current.version()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(ToDo.class, id);
+        }
+        ToDoDto updated = current.withStatus(status);
+        eventPublisher.publishEvent(ToDoChangedEvent.updated(current, updated));
+        return updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public int updateStatus(Collection<Long> ids, Status status) {
+        Set<Long> uniqueIds = uniqueIds(ids);
+        List<ToDoDto> current = toDoRepository.findDtoByIdIn(uniqueIds);
+        if (current.size() != uniqueIds.size()) {
+            current.forEach(toDo -> uniqueIds.remove(toDo.id()));
+            throw new NoSuchElementException("Tarefa não encontrada com o ID: " + uniqueIds.iterator().next());
+        }
+
+        // Todas as transições são validadas antes de qualquer alteração
+        List<ToDoDto> changed = new ArrayList<>();
+        for (ToDoDto toDo : current) {
+            if (toDo.status() != status) {
+                checkTransition(toDo, status);
+                changed.add(toDo);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
         }
+
+        // Um UPDATE condicionado à versão por tarefa, enviados em um lote JDBC
+        ToDoCacheInvalidation.evict(entityManager, changed.stream().map(ToDoDto::id).toList());
+        ToDoCacheInvalidation.invalidateQueries(entityManager);
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, changed, changed.size(), (statement, toDo) -> {
+            statement.setString(1, status.name());
+            statement.setLong(2, toDo.id());
+            statement.setLong(3, toDo.version());
+        });
+        for (int i = 0; i < changed.size(); i++) {
+            if (counts[0][i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(ToDo.class, changed.get(i).id());
+            }
+        }
+        changed.forEach(toDo -> eventPublisher.publishEvent(ToDoChangedEvent.updated(toDo, toDo.withStatus(status))));
+        return changed.size();
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delete(Long id) {
+        ToDoDto existingToDo = findById(id);
         toDoRepository.deleteById(id);
+        eventPublisher.publishEvent(ToDoChangedEvent.deleted(existingToDo));
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public int delete(Collection<Long> ids) {
+        List<ToDo> toDos = findAllById(ids);
+        List<ToDoDto> deleted = toDos.stream().map(ToDoDto::new).toList();
+
+        // Os DELETEs condicionados à versão de cada tarefa são enviados em lote JDBC; as demais tarefas
+        // continuam no cache de segundo nível, o que não aconteceria com um DELETE em massa
+        toDoRepository.deleteAll(toDos);
+        toDoRepository.flush();
+        deleted.forEach(toDo -> eventPublisher.publishEvent(ToDoChangedEvent.deleted(toDo)));
+        return deleted.size();
+    }
+
+    /**
+     * Separa as próximas listagens por status das consultas iniciadas antes de uma alteração de tarefa,
+     * após o commit da transação.
+     *
+     * @param event Evento de alteração da tarefa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoChanged(ToDoChangedEvent event) {
+        pagesByStatus.invalidate();
+        versionTagsByStatus.invalidate();
+    }
+
+    /**
+     * Separa as próximas listagens por status das consultas iniciadas antes de uma alteração em lote.
+     *
+     * @param event Evento de alteração em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoBulkChanged(ToDoBulkChangedEvent event) {
+        pagesByStatus.invalidate();
+        versionTagsByStatus.invalidate();
+    }
+
+    /**
+     * Identificação da versão da página montada a partir das versões buscadas, igual à da página de ToDoDto
+     * com as mesmas tarefas.
+     */
+    private static String versionTag(List<ToDoVersion> versions, int pageSize) {
+        return VersionSummary.tag(CursorPageDto.of(versions, pageSize, ToDoVersion::getId), ToDoVersion::getId, ToDoVersion::getVersion);
+    }
+
+    /**
+     * Intercala pelo ID duas páginas ordenadas de tabelas sem IDs em comum, mantendo até {@code limit} registros.
+     */
+    private static <T> List<T> merge(List<T> hot, List<T> archived, int limit, Function<T, Long> idOf) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<T> merged = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < hot.size() || j < archived.size())) {
+            if (j == archived.size() || (i < hot.size() && idOf.apply(hot.get(i)) < idOf.apply(archived.get(j)))) {
+                merged.add(hot.get(i++));
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Carrega as tarefas de uma operação em lote, limitada a MAX_PAGE_SIZE IDs distintos,
+     * ou lança exceção para o primeiro ID inexistente.
+     */
+    private List<ToDo> findAllById(Collection<Long> ids) {
+        Set<Long> uniqueIds = uniqueIds(ids);
+        List<ToDo> toDos = toDoRepository.findAllById(uniqueIds);
+        if (toDos.size() != uniqueIds.size()) {
+            toDos.forEach(toDo -> uniqueIds.remove(toDo.getId()));
+            throw new NoSuchElementException("Tarefa não encontrada com o ID: " + uniqueIds.iterator().next());
+        }
+        return toDos;
+    }
+
+    /**
+     * IDs distintos de uma operação em lote, limitados a MAX_PAGE_SIZE.
+     */
+    private static Set<Long> uniqueIds(Collection<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.isEmpty() || uniqueIds.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Informe entre 1 e " + MAX_PAGE_SIZE + " IDs de tarefas.");
+        }
+        return uniqueIds;
+    }
+
+    /**
+     * Limita o tamanho da página solicitado ao intervalo [1, MAX_PAGE_SIZE].
+     */
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Converte o cursor recebido do cliente; a ausência de cursor indica a primeira página.
+     */
+    private static Long cursor(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+
+    /**
+     * Persiste um lote de tarefas, valida os usuários e categorias ainda não conhecidos com uma
+     * consulta cada e limpa o contexto de persistência ao final, mantendo a memória constante.
+     */
+    private int importChunk(List<ToDoDto> chunk, Set<Long> knownUserIds, Set<Long> knownCategoryIds) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (ToDoDto dto : chunk) {
+            if (dto.title() == null || dto.status() == null || dto.dueDate() == null || dto.userId() == null) {
+                throw new IllegalArgumentException("Tarefa inválida no lote: título, status, data de vencimento e usuário são obrigatórios.");
+            }
+            if (!knownUserIds.contains(dto.userId())) {
+                userIds.add(dto.userId());
+            }
+            if (dto.categoryId() != null && !knownCategoryIds.contains(dto.categoryId())) {
+                categoryIds.add(dto.categoryId());
+            }
+        }
+        if (!userIds.isEmpty()) {
+            resolveIds(userIds, userRepository.findExistingIds(userIds), knownUserIds, "Usuário não encontrado com o ID: ");
+        }
+        if (!categoryIds.isEmpty()) {
+            resolveIds(categoryIds, categoryRepository.findExistingIds(categoryIds), knownCategoryIds, "Categoria não encontrada com o ID: ");
+        }
+
+        for (ToDoDto dto : chunk) {
+            ToDo toDo = dto.toModel();
+            toDo.setUser(entityManager.getReference(User.class, dto.userId()));
+            if (dto.categoryId() != null) {
+                toDo.setCategory(entityManager.getReference(Category.class, dto.categoryId()));
+            }
+            entityManager.persist(toDo);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return chunk.size();
+    }
+
+    /**
+     * Registra os IDs encontrados como conhecidos ou lança exceção para o primeiro ID inexistente.
+     */
+    private static void resolveIds(Set<Long> requested, Set<Long> existing, Set<Long> known, String notFoundMessage) {
+        for (Long id : requested) {
+            if (!existing.contains(id)) {
+                throw new NoSuchElementException(notFoundMessage + id);
+            }
+        }
+        known.addAll(existing);
+    }
+
+    /**
+     * Lança exceção se a tarefa não puder passar do status atual para o novo status.
+     */
+    private static void checkTransition(ToDoDto toDo, Status status) {
+        if (!toDo.status().canTransitionTo(status)) {
+            throw new InvalidStatusTransitionException(toDo.id(), toDo.status(), status);
+        }
+    }
+
+    /**
+     * Converte a data de vencimento do formato dd/MM/yyyy para LocalDate.
+     */
+    static LocalDate parseDueDate(String dueDate) {
+        try {
+            return LocalDate.parse(dueDate, DUE_DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data de vencimento inválida, use o formato dd/MM/yyyy: " + dueDate, e);
+        }
+    }
+
+    /**
+     * Parâmetros de uma listagem por status, chave do agrupamento das consultas idênticas.
+     */
+    private record StatusPageKey(Status status, Long afterId, int pageSize, boolean includeArchived) {
     }
 }
@@ -0,0 +1,294 @@
+package me.dio.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.controller.dto.ToDoStatsDto;
+import me.dio.domain.model.Status;
+import me.dio.domain.repository.ToDoArchiveRepository;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.service.ToDoStatsService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import me.dio.service.event.ToDoChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do serviço de estatísticas de tarefas.
+ * Mantém contadores em memória por usuário e por categoria, carregados com uma consulta GROUP BY
+ * no primeiro acesso e atualizados incrementalmente pelos eventos de alteração de tarefas,
+ * de modo que o custo de uma consulta não cresce com a quantidade de tarefas.
+ * Os contadores expiram periodicamente e são recarregados do banco, corrigindo eventuais desvios.
+ * Uma carga não é guardada se alguma transação que altera tarefas do mesmo usuário ou categoria estava em
+ * andamento durante ela: não se sabe se a consulta viu essa alteração, e o incremento aplicado após o commit
+ * poderia ser perdido ou contado duas vezes.
+ * As tarefas arquivadas entram na contagem por status; por estarem encerradas, nunca estão vencidas.
+ */
+@Service
+public class ToDoStatsServiceImpl implements ToDoStatsService {
+
+    private final ToDoRepository toDoRepository;
+    private final ToDoArchiveRepository toDoArchiveRepository;
+    private final OwnerCounters userCounters;
+    private final OwnerCounters categoryCounters;
+
+    public ToDoStatsServiceImpl(ToDoRepository toDoRepository, ToDoArchiveRepository toDoArchiveRepository,
+                                @Value("${todo.stats.max-owners:100000}") long maxOwners,
+                                @Value("${todo.stats.refresh-after:30m}") Duration refreshAfter) {
+        this.toDoRepository = toDoRepository;
+        this.toDoArchiveRepository = toDoArchiveRepository;
+        this.userCounters = new OwnerCounters(Caffeine.newBuilder().maximumSize(maxOwners).expireAfterWrite(refreshAfter).build());
+        this.categoryCounters = new OwnerCounters(Caffeine.newBuilder().maximumSize(maxOwners).expireAfterWrite(refreshAfter).build());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ToDoStatsDto findUserStats(Long userId) {
+        return userCounters.get(userId, id -> new TaskCounters(
+                concat(toDoRepository.countByStatusForUser(id), toDoArchiveRepository.countByStatusForUser(id)),
+                toDoRepository.countByDueDateForUser(id, Status.OPEN))).toDto();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ToDoStatsDto findCategoryStats(Long categoryId) {
+        return categoryCounters.get(categoryId, id -> new TaskCounters(
+                concat(toDoRepository.countByStatusForCategory(id), toDoArchiveRepository.countByStatusForCategory(id)),
+                toDoRepository.countByDueDateForCategory(id, Status.OPEN))).toDto();
+    }
+
+    /**
+     * Registra, ao ser publicada, a alteração de uma tarefa como em andamento até o fim da sua transação,
+     * para que as cargas concorrentes dos mesmos contadores não sejam guardadas.
+     *
+     * @param event Evento de alteração da tarefa.
+     */
+    @EventListener
+    public void onToDoChanging(ToDoChangedEvent event) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (ToDoDto toDo : new ToDoDto[]{event.before(), event.after()}) {
+            if (toDo != null) {
+                userIds.add(toDo.userId());
+                if (toDo.categoryId() != null) {
+                    categoryIds.add(toDo.categoryId());
+                }
+            }
+        }
+        userCounters.beginWrite(userIds);
+        categoryCounters.beginWrite(categoryIds);
+        Runnable end = () -> {
+            userCounters.endWrite(userIds);
+            categoryCounters.endWrite(categoryIds);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            end.run();
+            return;
+        }
+        // afterCompletion é chamado depois dos listeners de commit, que já aplicaram a alteração
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                end.run();
+            }
+        });
+    }
+
+    /**
+     * Aplica aos contadores já carregados a alteração de uma tarefa, após o commit da transação.
+     *
+     * @param event Evento de alteração da tarefa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoChanged(ToDoChangedEvent event) {
+        if (event.before() != null) {
+            apply(event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(event.after(), 1);
+        }
+    }
+
+    /**
+     * Descarta os contadores dos usuários e categorias afetados por uma alteração em lote,
+     * que serão recarregados do banco no próximo acesso.
+     *
+     * @param event Evento de alteração em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onToDoBulkChanged(ToDoBulkChangedEvent event) {
+        userCounters.invalidate(event.affectsAllUsers() ? null : event.userIds());
+        categoryCounters.invalidate(event.affectsAllCategories() ? null : event.categoryIds());
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    private void apply(ToDoDto toDo, int delta) {
+        TaskCounters counters = userCounters.getIfPresent(toDo.userId());
+        if (counters != null) {
+            counters.add(toDo, delta);
+        }
+        if (toDo.categoryId() != null) {
+            counters = categoryCounters.getIfPresent(toDo.categoryId());
+            if (counters != null) {
+                counters.add(toDo, delta);
+            }
+        }
+    }
+
+    /**
+     * Contadores carregados de um tipo de dono (usuário ou categoria), com as alterações em andamento
+     * por dono e as cargas em andamento, que deixam de ser guardadas se uma alteração do mesmo dono
+     * começar durante elas.
+     */
+    private static final class OwnerCounters {
+
+        private final Cache<Long, TaskCounters> cache;
+        private final Map<Long, Integer> writesInFlight = new HashMap<>();
+        private final Set<Load> loads = new HashSet<>();
+
+        OwnerCounters(Cache<Long, TaskCounters> cache) {
+            this.cache = cache;
+        }
+
+        TaskCounters getIfPresent(Long ownerId) {
+            return cache.getIfPresent(ownerId);
+        }
+
+        /**
+         * Retorna os contadores guardados ou os carrega do banco. Cargas simultâneas do mesmo dono são
+         * feitas uma única vez; uma carga concorrente a uma alteração é devolvida, mas não guardada.
+         */
+        TaskCounters get(Long ownerId, Function<Long, TaskCounters> query) {
+            TaskCounters cached = cache.getIfPresent(ownerId);
+            if (cached != null) {
+                return cached;
+            }
+            Load[] started = new Load[1];
+            TaskCounters[] loaded = new TaskCounters[1];
+            try {
+                TaskCounters counters = cache.get(ownerId, id -> {
+                    started[0] = startLoad(id);
+                    loaded[0] = query.apply(id);
+                    return isDirty(started[0]) ? null : loaded[0];
+                });
+                return counters != null ? counters : loaded[0];
+            } finally {
+                // Uma alteração pode ter começado entre a verificação acima e a gravação no cache
+                if (started[0] != null && finishLoad(started[0]) && loaded[0] != null) {
+                    cache.asMap().remove(ownerId, loaded[0]);
+                }
+            }
+        }
+
+        synchronized void beginWrite(Set<Long> ownerIds) {
+            ownerIds.forEach(id -> writesInFlight.merge(id, 1, Integer::sum));
+            loads.stream().filter(load -> ownerIds.contains(load.ownerId)).forEach(load -> load.dirty = true);
+        }
+
+        synchronized void endWrite(Set<Long> ownerIds) {
+            ownerIds.forEach(id -> writesInFlight.computeIfPresent(id, (key, count) -> count == 1 ? null : count - 1));
+        }
+
+        /**
+         * Descarta os contadores dos donos informados, ou de todos quando null, inclusive os das cargas em andamento.
+         */
+        void invalidate(Set<Long> ownerIds) {
+            synchronized (this) {
+                loads.stream().filter(load -> ownerIds == null || ownerIds.contains(load.ownerId)).forEach(load -> load.dirty = true);
+            }
+            // Fora do lock: o cache bloqueia enquanto uma carga do mesmo dono está em andamento
+            if (ownerIds == null) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidateAll(ownerIds);
+            }
+        }
+
+        private synchronized Load startLoad(Long ownerId) {
+            Load load = new Load(ownerId, writesInFlight.containsKey(ownerId));
+            loads.add(load);
+            return load;
+        }
+
+        private synchronized boolean isDirty(Load load) {
+            return load.dirty;
+        }
+
+        private synchronized boolean finishLoad(Load load) {
+            loads.remove(load);
+            return load.dirty;
+        }
+    }
+
+    /**
+     * Carga em andamento dos contadores de um dono.
+     */
+    private static final class Load {
+
+        private final Long ownerId;
+        private boolean dirty;
+
+        Load(Long ownerId, boolean dirty) {
+            this.ownerId = ownerId;
+            this.dirty = dirty;
+        }
+    }
+
+    /**
+     * Contadores de tarefas de um usuário ou categoria: quantidade por status e, para as tarefas
+     * em aberto, quantidade por data de vencimento, usada para calcular as tarefas vencidas.
+     */
+    private static final class TaskCounters {
+
+        private final AtomicLongArray byStatus = new AtomicLongArray(Status.values().length);
+        private final ConcurrentSkipListMap<LocalDate, Long> openByDueDate = new ConcurrentSkipListMap<>();
+
+        TaskCounters(List<ToDoRepository.StatusCount> statusCounts, List<ToDoRepository.DueDateCount> dueDateCounts) {
+            statusCounts.forEach(count -> byStatus.addAndGet(count.getStatus().ordinal(), count.getTotal()));
+            dueDateCounts.forEach(count -> openByDueDate.put(count.getDueDate(), count.getTotal()));
+        }
+
+        void add(ToDoDto toDo, int delta) {
+            byStatus.addAndGet(toDo.status().ordinal(), delta);
+            if (Status.OPEN.contains(toDo.status())) {
+                openByDueDate.merge(toDo.dueDate(), (long) delta, (current, change) -> current + change == 0 ? null : current + change);
+            }
+        }
+
+        ToDoStatsDto toDto() {
+            Map<Status, Long> countsByStatus = new EnumMap<>(Status.class);
+            long total = 0;
+            for (Status status : Status.values()) {
+                long count = byStatus.get(status.ordinal());
+                countsByStatus.put(status, count);
+                total += count;
+            }
+            long overdue = openByDueDate.headMap(LocalDate.now()).values().stream().mapToLong(Long::longValue).sum();
+            return new ToDoStatsDto(countsByStatus, total, overdue);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package me.dio.service.impl;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.service.CategoryService;
+import me.dio.service.ToDoWriteBehindService;
+import me.dio.service.UserService;
+import me.dio.service.event.ToDoChangedEvent;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementação do modo write-behind de criação de tarefas.
+ * A tarefa validada recebe um ID da mesma sequence usada pelo Hibernate e é gravada no journal local;
+ * a resposta só é enviada após o fsync, feito em grupo para as requisições concorrentes. Uma thread
+ * em segundo plano envia o journal ao banco em lotes JDBC a partir do checkpoint, inclusive as linhas
+ * pendentes de uma execução anterior, e publica os eventos de criação após o commit de cada lote.
+ */
+@Service
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+public class ToDoWriteBehindServiceImpl implements ToDoWriteBehindService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoWriteBehindServiceImpl.class);
+
+    private static final String INSERT_SQL = "insert into tb_todo (id, title, description, status, due_date, user_id, category_id, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final ToDoRepository toDoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final BeforeExecutionGenerator idGenerator;
+    private final ToDoJournal journal;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Counter rejected;
+    private final Counter quarantined;
+    private ScheduledExecutorService flusher;
+
+    public ToDoWriteBehindServiceImpl(UserService userService, CategoryService categoryService, ToDoRepository toDoRepository,
+                                      JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                                      EntityManager entityManager, MeterRegistry meterRegistry,
+                                      @Value("${todo.write-behind.directory:data/write-behind}") Path directory,
+                                      @Value("${todo.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${todo.write-behind.flush-interval:200ms}") Duration flushInterval) throws IOException {
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.toDoRepository = toDoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.idGenerator = (BeforeExecutionGenerator) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(ToDo.class).getGenerator();
+        this.journal = new ToDoJournal(directory);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.rejected = Counter.builder("todo.write-behind.rejected")
+                .description("Journaled tasks discarded because the database refused them")
+                .register(meterRegistry);
+        this.quarantined = Counter.builder("todo.write-behind.quarantined")
+                .description("Journal lines moved to quarantine because they could not be read")
+                .register(meterRegistry);
+        Gauge.builder("todo.write-behind.backlog", journal, ToDoJournal::backlog)
+                .description("Journal bytes not yet written to the database")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ToDoDto submit(String title, String description, Status status, String dueDate, Long userId, Long categoryId) {
+        // Mesmas validações da criação síncrona, servidas pelo cache de segundo nível na maioria das chamadas
+        userService.findById(userId);
+        categoryService.findById(categoryId);
+        ToDoDto toDo = new ToDoDto(nextId(), title, description, status, ToDoServiceImpl.parseDueDate(dueDate), userId, categoryId, 0L);
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(toDo);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            journal.awaitDurable(journal.append(line));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a tarefa no journal.", e);
+        }
+        return toDo;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long backlog() {
+        return journal.backlog();
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "todo-write-behind"));
+        // O primeiro envio, imediato, grava as linhas pendentes de uma execução anterior
+        flusher.scheduleWithFixedDelay(this::flushAll, 0, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+        flusher = null;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Falha ao fechar o journal de tarefas.", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    /**
+     * Inicia antes e para depois do servidor web, para que nenhuma requisição encontre o journal fechado.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Envia o journal ao banco até esvaziá-lo. Falhas são registradas e o envio é retomado no próximo ciclo,
+     * a partir do mesmo checkpoint.
+     */
+    private void flushAll() {
+        try {
+            while (flush() == batchSize) {
+                // Continua enquanto houver lotes completos pendentes
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Falha ao enviar o journal de tarefas ao banco, nova tentativa em {}.", flushInterval, e);
+        }
+    }
+
+    /**
+     * Envia ao banco um lote do journal a partir do checkpoint e avança o checkpoint após o commit.
+     * Uma linha corrompida vai para a quarentena do journal em vez de bloquear o envio das seguintes.
+     *
+     * @return Quantidade de linhas lidas do journal.
+     */
+    private int flush() throws IOException {
+        ToDoJournal.Batch batch = journal.read(journal.checkpoint(), batchSize);
+        if (batch.lines().isEmpty()) {
+            return 0;
+        }
+        List<ToDoDto> toDos = new ArrayList<>(batch.lines().size());
+        for (String line : batch.lines()) {
+            ToDoDto toDo = parse(line);
+            if (toDo != null) {
+                toDos.add(toDo);
+            } else {
+                journal.quarantine(line);
+                quarantined.increment();
+            }
+        }
+
+        if (!toDos.isEmpty()) {
+            insertAll(toDos);
+        }
+        journal.checkpoint(batch.end());
+        return batch.lines().size();
+    }
+
+    /**
+     * Grava o lote em uma transação; se o banco recusar alguma tarefa, as demais são gravadas uma a uma.
+     */
+    private void insertAll(List<ToDoDto> toDos) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(toDos));
+        } catch (DataIntegrityViolationException e) {
+            // Alguma tarefa foi recusada (ex.: usuário excluído após o aceite): as demais são gravadas uma a uma
+            for (ToDoDto toDo : toDos) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(toDo)));
+                } catch (DataIntegrityViolationException refused) {
+                    rejected.increment();
+                    logger.error("Tarefa {} do journal descartada: {}", toDo.id(), refused.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê uma linha do journal.
+     *
+     * @return Tarefa da linha, ou null se a linha estiver corrompida ou sem algum campo obrigatório.
+     */
+    private ToDoDto parse(String line) {
+        try {
+            ToDoDto toDo = objectMapper.readValue(line, ToDoDto.class);
+            if (toDo != null && toDo.id() != null && toDo.title() != null && toDo.status() != null
+                    && toDo.dueDate() != null && toDo.userId() != null) {
+                return toDo;
+            }
+            logger.error("Linha do journal sem campos obrigatórios movida para a quarentena.");
+        } catch (JacksonException e) {
+            logger.error("Linha do journal ilegível movida para a quarentena: {}", e.getOriginalMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Insere as tarefas que ainda não estão no banco, o que torna o reenvio após uma falha idempotente,
+     * e publica os eventos de criação, entregues após o commit.
+     */
+    private void insert(List<ToDoDto> toDos) throws DataAccessException {
+        Set<Long> existingIds = toDoRepository.findExistingIds(toDos.stream().map(ToDoDto::id).toList());
+        List<ToDoDto> pending = toDos.stream().filter(toDo -> !existingIds.contains(toDo.id())).toList();
+        // As inserções via JDBC não passam pelo Hibernate; as tarefas novas ainda não estão no cache de segundo nível
+        ToDoCacheInvalidation.invalidateQueries(entityManager);
+        jdbcTemplate.batchUpdate(INSERT_SQL, pending, pending.size(), (statement, toDo) -> {
+            statement.setLong(1, toDo.id());
+            statement.setString(2, toDo.title());
+            statement.setString(3, toDo.description());
+            statement.setString(4, toDo.status().name());
+            statement.setDate(5, Date.valueOf(toDo.dueDate()));
+            statement.setLong(6, toDo.userId());
+            if (toDo.categoryId() != null) {
+                statement.setLong(7, toDo.categoryId());
+            } else {
+                statement.setNull(7, Types.BIGINT);
+            }
+        });
+        pending.forEach(toDo -> eventPublisher.publishEvent(ToDoChangedEvent.created(toDo)));
+    }
+
+    /**
+     * Obtém o próximo ID da sequence das tarefas pelo gerador do Hibernate, que reserva os IDs em blocos
+     * e é compartilhado com a criação síncrona, de modo que os IDs nunca se repetem. A consulta à sequence
+     * usa a conexão da própria requisição: uma segunda conexão por requisição esgotaria o pool sob carga.
+     */
+    private Long nextId() {
+        return transactionTemplate.execute(status -> (Long) idGenerator.generate(
+                entityManager.unwrap(SharedSessionContractImplementor.class), null, null, EventType.INSERT));
+    }
+}
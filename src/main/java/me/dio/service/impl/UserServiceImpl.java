@@ -1,12 +1,23 @@
 package me.dio.service.impl;
 
+import jakarta.persistence.EntityManager;
+import me.dio.domain.model.ToDo;
 import me.dio.domain.model.User;
+import me.dio.domain.repository.ToDoArchiveRepository;
 import me.dio.domain.repository.UserRepository;
 import me.dio.service.UserService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Implementação do serviço para a entidade User.
@@ -15,15 +26,31 @@ import java.util.NoSuchElementException;
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final String DELETE_SQL = "delete from tb_user where id = ?";
+
     private final UserRepository userRepository;
+    private final ToDoArchiveRepository toDoArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Construtor para injeção do repositório de usuários.
      *
      * @param userRepository Repositório de usuários a ser injetado.
+     * @param toDoArchiveRepository Repositório das tarefas arquivadas, removidas junto com o usuário.
+     * @param eventPublisher Publicador dos eventos de alteração de tarefas.
+     * @param entityManager EntityManager da transação, usado para invalidar o cache nas remoções via JDBC.
+     * @param jdbcTemplate JdbcTemplate das remoções que não carregam o usuário.
      */
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ToDoArchiveRepository toDoArchiveRepository,
+                           ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                           JdbcTemplate jdbcTemplate) {
         this.userRepository = userRepository;
+        this.toDoArchiveRepository = toDoArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     /**
@@ -50,10 +77,20 @@ public class UserServiceImpl implements UserService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String versionTag() {
+        return userRepository.summarize().tag();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -61,6 +98,9 @@ public class UserServiceImpl implements UserService {
     public User update(Long id, User user) throws NoSuchElementException {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado com o ID: " + id));
+        if (user.getVersion() != null && !user.getVersion().equals(existingUser.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(User.class, id);
+        }
             existingUser.setUsername(user.getUsername());
             existingUser.setEmail(user.getEmail());
             existingUser.setPassword(user.getPassword());
@@ -71,10 +111,31 @@ public class UserServiceImpl implements UserService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void delete(Long id) throws NoSuchElementException {
-        if (!userRepository.existsById(id)) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Usuário não encontrado com o ID: " + id));
+        // As tarefas do usuário, carregadas pela remoção em cascata, podem pertencer a qualquer categoria
+        Set<Long> removedToDoIds = user.getTodos().stream().map(ToDo::getId).collect(Collectors.toSet());
+        userRepository.delete(user);
+        // As tarefas arquivadas não têm chave estrangeira para o usuário e são removidas em um único DELETE
+        toDoArchiveRepository.deleteByUserId(id);
+        eventPublisher.publishEvent(ToDoBulkChangedEvent.removed(Map.of(id, removedToDoIds), Set.of(id), null));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void deleteWithoutToDos(Long id) throws NoSuchElementException {
+        // A chave estrangeira de tb_todo recusa o DELETE se uma tarefa foi criada depois das remoções
+        ToDoCacheInvalidation.evict(entityManager, User.class, List.of(id));
+        if (jdbcTemplate.update(DELETE_SQL, id) == 0) {
             throw new NoSuchElementException("Usuário não encontrado com o ID: " + id);
         }
-        userRepository.deleteById(id);
+        toDoArchiveRepository.deleteByUserId(id);
+        // As tarefas removidas antes já publicaram seus eventos; resta apenas o que envolvia as arquivadas
+        eventPublisher.publishEvent(ToDoBulkChangedEvent.removed(Map.of(), Set.of(id), null));
     }
 }
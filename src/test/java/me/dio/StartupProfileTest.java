@@ -0,0 +1,59 @@
+package me.dio;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * O perfil startup apenas valida o schema: a aplicação sobe sobre um banco preparado por uma inicialização
+ * anterior (a fase de release, no deploy) e se recusa a subir sobre um banco vazio.
+ */
+class StartupProfileTest {
+
+    @Test
+    void startsOnASchemaCreatedByAPreviousBoot() throws Exception {
+        String url = newDatabaseUrl();
+        start(url, "dev").close();
+
+        try (ConfigurableApplicationContext context = start(url, "dev", "startup")) {
+            assertThat(context.getEnvironment().getProperty("spring.jpa.hibernate.ddl-auto")).isEqualTo("validate");
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/categories")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void refusesToStartOnAnEmptyDatabase() {
+        assertThatThrownBy(() -> start(newDatabaseUrl(), "dev", "startup").close())
+                .hasStackTraceContaining("Schema-validation");
+    }
+
+    private static ConfigurableApplicationContext start(String url, String... profiles) {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles(profiles)
+                // Como argumentos de linha de comando, para prevalecerem sobre a URL do banco dos arquivos de perfil
+                .run("--spring.config.name=Application",
+                        "--spring.datasource.url=" + url,
+                        "--server.port=0",
+                        "--todo.admission.enabled=false",
+                        "--todo.archive.cron=-");
+    }
+
+    private static String newDatabaseUrl() {
+        return "jdbc:h2:mem:startup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    }
+}
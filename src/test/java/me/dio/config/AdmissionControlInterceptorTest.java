@@ -0,0 +1,78 @@
+package me.dio.config;
+
+import me.dio.domain.model.User;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class AdmissionControlInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @DynamicPropertySource
+    static void admission(DynamicPropertyRegistry registry) {
+        registry.add("todo.admission.enabled", () -> "true");
+        // Duas requisições de uma vez por usuário e, depois, uma a cada 10 segundos
+        registry.add("todo.admission.requests-per-second", () -> "0.1");
+        registry.add("todo.admission.burst", () -> "2");
+        // Seis requisições de uma vez por endereço, somados os usuários
+        registry.add("todo.admission.address-requests-per-second", () -> "0.1");
+        registry.add("todo.admission.address-burst", () -> "6");
+    }
+
+    @Test
+    void userOverTheBurstGets429WithRetryAfter() throws Exception {
+        User user = fixture.user();
+        User other = fixture.user();
+
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).with(from("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/overdue").param("userId", user.getId().toString()).with(from("10.0.0.1")))
+                .andExpect(status().isOk());
+        String retryAfter = mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertThat(Long.parseLong(retryAfter)).isBetween(1L, 10L);
+
+        // O limite é de cada usuário; as requisições sem usuário seguem apenas o limite do endereço
+        mockMvc.perform(get("/api/todos/user/{userId}", other.getId()).with(from("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories").with(from("10.0.0.1"))).andExpect(status().isOk());
+        // Outro endereço não consome o limite do usuário neste
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).with(from("10.0.0.2"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void addressRotatingUsersGets429() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            mockMvc.perform(get("/api/todos/user/{userId}", fixture.user().getId()).with(from("10.0.0.3")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/todos/user/{userId}", fixture.user().getId()).with(from("10.0.0.3")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        mockMvc.perform(get("/api/categories").with(from("10.0.0.4"))).andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
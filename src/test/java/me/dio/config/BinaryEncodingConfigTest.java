@@ -0,0 +1,92 @@
+package me.dio.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class BinaryEncodingConfigTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+    private static final MediaType SMILE = MediaType.parseMediaType(BinaryEncodingConfig.APPLICATION_SMILE_VALUE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper smile = new ObjectMapper(BinaryEncodingConfig.smileFactory());
+    private final ObjectMapper cbor = new ObjectMapper(BinaryEncodingConfig.cborFactory());
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.user();
+        category = fixture.category();
+    }
+
+    @Test
+    void acceptSelectsTheEncodingOfTheSameDocument() throws Exception {
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+        fixture.toDo(user, category, Status.COMPLETED, DUE);
+
+        for (String path : new String[]{"/api/todos/" + toDo.getId(), "/api/todos/user/" + user.getId()}) {
+            MockHttpServletResponse jsonResponse = fetch(path, MediaType.APPLICATION_JSON);
+            MockHttpServletResponse smileResponse = fetch(path, SMILE);
+            MockHttpServletResponse cborResponse = fetch(path, MediaType.APPLICATION_CBOR);
+
+            assertThat(smileResponse.getContentType()).startsWith(BinaryEncodingConfig.APPLICATION_SMILE_VALUE);
+            assertThat(cborResponse.getContentType()).startsWith(MediaType.APPLICATION_CBOR_VALUE);
+            JsonNode document = json.readTree(jsonResponse.getContentAsByteArray());
+            assertThat(smile.readTree(smileResponse.getContentAsByteArray())).isEqualTo(document);
+            assertThat(cbor.readTree(cborResponse.getContentAsByteArray())).isEqualTo(document);
+            assertThat(smileResponse.getContentAsByteArray().length).isLessThan(jsonResponse.getContentAsByteArray().length);
+        }
+    }
+
+    @Test
+    void eTagsAreWeakAndVaryByAccept() throws Exception {
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+
+        for (String path : new String[]{"/api/todos/" + toDo.getId(), "/api/todos/user/" + user.getId()}) {
+            MockHttpServletResponse jsonResponse = fetch(path, MediaType.APPLICATION_JSON);
+            MockHttpServletResponse cborResponse = fetch(path, MediaType.APPLICATION_CBOR);
+
+            assertThat(jsonResponse.getHeader(HttpHeaders.ETAG)).startsWith("W/\"");
+            assertThat(jsonResponse.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+            // A mesma versão nas duas codificações: o ETag de uma valida a outra
+            assertThat(cborResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(jsonResponse.getHeader(HttpHeaders.ETAG));
+            mockMvc.perform(get(path).accept(MediaType.APPLICATION_CBOR)
+                            .header(HttpHeaders.IF_NONE_MATCH, jsonResponse.getHeader(HttpHeaders.ETAG)))
+                    .andExpect(status().isNotModified());
+        }
+    }
+
+    private MockHttpServletResponse fetch(String path, MediaType accept) throws Exception {
+        return mockMvc.perform(get(path).accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+}
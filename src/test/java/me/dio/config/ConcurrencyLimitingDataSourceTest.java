@@ -0,0 +1,70 @@
+package me.dio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitingDataSourceTest {
+
+    private static final String URL = "jdbc:h2:mem:limiter;DB_CLOSE_DELAY=-1";
+
+    private final ConcurrencyLimitingDataSource dataSource =
+            new ConcurrencyLimitingDataSource(new DriverManagerDataSource(URL), 2, Duration.ofMillis(50));
+
+    @Test
+    void connectionsOverTheLimitWaitAndThenFail() throws SQLException {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertThat(dataSource.availablePermits()).isZero();
+            assertThatExceptionOfType(SQLTransientConnectionException.class).isThrownBy(dataSource::getConnection);
+            assertThat(first.isValid(1)).isTrue();
+            assertThat(second.isValid(1)).isTrue();
+        }
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void permitIsReleasedOnceEvenIfClosedTwice() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void failedOpenReleasesThePermit() {
+        ConcurrencyLimitingDataSource failing = new ConcurrencyLimitingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:limiter;INVALID_OPTION=1"), 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(failing::getConnection).isInstanceOf(SQLException.class);
+        assertThat(failing.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyHikariPoolsAreWrapped() {
+        BeanPostProcessor postProcessor = VirtualThreadConfig.concurrencyLimitingDataSourcePostProcessor(32, Duration.ofSeconds(1));
+        DataSource proxy = new LazyConnectionDataSourceProxy(new DriverManagerDataSource(URL));
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl(URL);
+            pool.setMaximumPoolSize(4);
+
+            Object wrapped = postProcessor.postProcessAfterInitialization(pool, "primaryDataSource");
+            assertThat(wrapped).isInstanceOf(ConcurrencyLimitingDataSource.class);
+            // O limite não passa do tamanho do pool
+            assertThat(((ConcurrencyLimitingDataSource) wrapped).availablePermits()).isEqualTo(4);
+            assertThat(postProcessor.postProcessAfterInitialization(proxy, "dataSource")).isSameAs(proxy);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package me.dio.config;
+
+import me.dio.domain.model.Category;
+import me.dio.domain.model.User;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ToDoRepository toDoRepository;
+
+    @Test
+    void repeatedCreationReturnsTheFirstResponse() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+
+        MvcResult first = mockMvc.perform(create(user, category, "Pagar contas").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult repeated = mockMvc.perform(create(user, category, "Pagar contas").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertThat(repeated.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(repeated.getResponse().getHeader(HttpHeaders.LOCATION)).isEqualTo(first.getResponse().getHeader(HttpHeaders.LOCATION));
+        assertThat(toDoRepository.countByUserId(user.getId())).isEqualTo(1);
+
+        mockMvc.perform(create(user, category, "Outra tarefa").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-1"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(create(user, category, "Pagar contas"))
+                .andExpect(status().isCreated());
+        assertThat(toDoRepository.countByUserId(user.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void clientErrorsAreReplayedToo() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+
+        // Apenas os erros 5xx e 429 podem ser repetidos; um 400 continuaria igual na repetição
+        mockMvc.perform(create(user, category, "Data inválida", "2026-10-10").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        mockMvc.perform(create(user, category, "Data inválida", "2026-10-10").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+        mockMvc.perform(create(user, category, "Chave vazia").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, " "))
+                .andExpect(status().isBadRequest());
+        assertThat(toDoRepository.countByUserId(user.getId())).isZero();
+    }
+
+    @Test
+    void concurrentRepetitionsWaitForTheFirstRequest() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+        int attempts = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MvcResult>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(create(user, category, "Pagar contas").header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-3"))
+                            .andReturn();
+                }));
+            }
+            start.countDown();
+
+            Set<String> bodies = new HashSet<>();
+            int replayed = 0;
+            for (Future<MvcResult> result : results) {
+                MockHttpServletResponse response = result.get(30, TimeUnit.SECONDS).getResponse();
+                assertThat(response.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+                bodies.add(response.getContentAsString());
+                replayed += response.getHeader(IdempotencyFilter.REPLAYED_HEADER) != null ? 1 : 0;
+            }
+            assertThat(bodies).hasSize(1);
+            assertThat(replayed).isEqualTo(attempts - 1);
+            assertThat(toDoRepository.countByUserId(user.getId())).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void repeatedUserCreationReplaysTheJsonBody() throws Exception {
+        String body = "{\"username\":\"idempotente\",\"email\":\"idempotente@dio.me\",\"password\":\"123\"}";
+
+        String first = mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-4"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "chave-4"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().string(first));
+    }
+
+    private static MockHttpServletRequestBuilder create(User user, Category category, String title) {
+        return create(user, category, title, ToDoFixture.dueDate(LocalDate.of(2026, 10, 10)));
+    }
+
+    private static MockHttpServletRequestBuilder create(User user, Category category, String title, String dueDate) {
+        return post("/api/todos")
+                .param("title", title)
+                .param("status", "PENDING")
+                .param("dueDate", dueDate)
+                .param("userId", user.getId().toString())
+                .param("categoryId", category.getId().toString());
+    }
+}
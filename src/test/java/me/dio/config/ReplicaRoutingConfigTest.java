@@ -0,0 +1,158 @@
+package me.dio.config;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.User;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Perfil "replica" com duas instâncias do H2 em memória, como no teste local descrito em Application-replica.yml:
+ * a réplica recebe uma cópia do primário e depois não é mais atualizada, de modo que cada leitura mostra
+ * de qual banco veio.
+ */
+@ApiTest
+@ActiveProfiles({"dev", "replica"})
+class ReplicaRoutingConfigTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routing;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("todo.replica.url", () -> REPLICA_URL);
+        registry.add("todo.replica.lag-query", () -> "select seconds from replica_lag");
+        // A verificação agendada só roda na inicialização; o teste a chama depois de preparar a réplica
+        registry.add("todo.replica.check-interval", () -> "1h");
+    }
+
+    @Test
+    void readsGoToTheReplicaUnlessStickyOrLagging() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+        copyPrimaryToReplica();
+        routing.checkReplica();
+        assertThat(routing.isReplicaAvailable()).isTrue();
+
+        // Gravada apenas no primário
+        Cookie sticky = mockMvc.perform(post("/api/todos")
+                        .param("title", "Só no primário")
+                        .param("status", "PENDING")
+                        .param("dueDate", ToDoFixture.dueDate(LocalDate.of(2026, 10, 10)))
+                        .param("userId", user.getId().toString())
+                        .param("categoryId", category.getId().toString()))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()))
+                .andExpect(jsonPath("$.items", hasSize(0)));
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).cookie(sticky))
+                .andExpect(jsonPath("$.items", hasSize(1)));
+
+        setReplicaLag(60);
+        routing.checkReplica();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()))
+                .andExpect(jsonPath("$.items", hasSize(1)));
+    }
+
+    @Test
+    void searchIndexRebuildsReadThePrimary() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+        copyPrimaryToReplica();
+        routing.checkReplica();
+        assertThat(routing.isReplicaAvailable()).isTrue();
+
+        // A importação em lote reconstrói o índice do usuário fora da requisição, numa thread própria
+        Cookie sticky = mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Relatório importado\",\"status\":\"PENDING\",\"dueDate\":\"2026-10-10\","
+                                + "\"userId\":" + user.getId() + ",\"categoryId\":" + category.getId() + "}]"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+        ToDoFixture.eventually(() -> searchCount(user, sticky), found -> found == 1);
+    }
+
+    private int searchCount(User user, Cookie sticky) {
+        try {
+            String body = mockMvc.perform(get("/api/todos/search")
+                            .param("q", "relatorio")
+                            .param("userId", user.getId().toString())
+                            .cookie(sticky))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            return JsonPath.<List<?>>read(body, "$.items").size();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Substitui o conteúdo da réplica por uma cópia do esquema e dos dados do primário e cria nela a tabela consultada como atraso.
+     */
+    private void copyPrimaryToReplica() throws Exception {
+        Path script = Files.createTempFile("primary", ".sql");
+        try {
+            new JdbcTemplate(primary).execute("script to '" + script + "'");
+            try (Connection connection = DriverManager.getConnection(REPLICA_URL, "dio", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("drop all objects");
+                statement.execute("runscript from '" + script + "'");
+                statement.execute("create table replica_lag (seconds double precision)");
+                statement.execute("insert into replica_lag values (0)");
+            }
+        } finally {
+            Files.delete(script);
+        }
+    }
+
+    private void setReplicaLag(double seconds) throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "dio", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("update replica_lag set seconds = " + seconds);
+        }
+    }
+}
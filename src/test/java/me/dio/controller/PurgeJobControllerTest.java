@@ -0,0 +1,111 @@
+package me.dio.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.domain.repository.ToDoRepository;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static me.dio.support.ToDoFixture.eventually;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class PurgeJobControllerTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ToDoRepository toDoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void chunks(DynamicPropertyRegistry registry) {
+        // Lotes menores que as tarefas de cada remoção
+        registry.add("todo.purge.chunk-size", () -> "2");
+    }
+
+    @Test
+    void userPurgeRemovesTheUserAndAllTheirTasks() throws Exception {
+        User user = fixture.user();
+        User other = fixture.user();
+        Category category = fixture.category();
+        for (int i = 0; i < 3; i++) {
+            fixture.toDo(user, category, Status.PENDING, DUE);
+        }
+        ToDo otherToDo = fixture.toDo(other, category, Status.PENDING, DUE);
+        mockMvc.perform(get("/api/todos/{id}", otherToDo.getId())).andExpect(status().isOk());
+
+        JsonNode job = awaitJob(mockMvc.perform(post("/api/users/{id}/purge", user.getId()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.target").value("USER"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION));
+
+        assertThat(job.get("total").asLong()).isEqualTo(3);
+        assertThat(job.get("deleted").asLong()).isEqualTo(3);
+        mockMvc.perform(get("/api/users/{id}", user.getId())).andExpect(status().isNotFound());
+        assertThat(toDoRepository.countByUserId(user.getId())).isZero();
+        assertThat(toDoRepository.countByUserId(other.getId())).isEqualTo(1);
+        // As tarefas são removidas via JDBC, sem esvaziar a região das tarefas no cache de segundo nível
+        assertThat(entityManagerFactory.getCache().contains(ToDo.class, otherToDo.getId())).isTrue();
+    }
+
+    @Test
+    void categoryPurgeKeepsTheTasksOfOtherCategories() throws Exception {
+        User user = fixture.user();
+        Category purged = fixture.category();
+        Category kept = fixture.category();
+        fixture.toDo(user, purged, Status.PENDING, DUE);
+        fixture.toDo(user, purged, Status.COMPLETED, DUE);
+        fixture.toDo(user, kept, Status.PENDING, DUE);
+
+        JsonNode job = awaitJob(mockMvc.perform(post("/api/categories/{id}/purge", purged.getId()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION));
+
+        assertThat(job.get("deleted").asLong()).isEqualTo(2);
+        assertThat(toDoRepository.countByCategoryId(purged.getId())).isZero();
+        assertThat(toDoRepository.countByUserId(user.getId())).isEqualTo(1);
+        mockMvc.perform(get("/api/purge-jobs/{jobId}", "inexistente")).andExpect(status().isNotFound());
+    }
+
+    private JsonNode awaitJob(String location) throws Exception {
+        JsonNode job = eventually(() -> {
+            try {
+                return objectMapper.readTree(mockMvc.perform(get(location)).andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, current -> !current.get("state").asText().equals("RUNNING"));
+        assertThat(job.get("state").asText()).isEqualTo("COMPLETED");
+        return job;
+    }
+}
@@ -0,0 +1,116 @@
+package me.dio.controller;
+
+import me.dio.config.ReactiveServer;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ApiTest
+@ActiveProfiles({"dev", "reactive"})
+class ReactiveToDoRouterTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+
+    @Autowired
+    private ReactiveServer reactiveServer;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    private WebTestClient client;
+    private User user;
+    private Category category;
+
+    @DynamicPropertySource
+    static void reactiveDatabase(DynamicPropertyRegistry registry) {
+        // O R2DBC precisa ler o mesmo banco em memória criado pelo JPA
+        String database = "test-" + UUID.randomUUID();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        registry.add("todo.reactive.url", () -> "r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1");
+        registry.add("todo.reactive.port", () -> "0");
+    }
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveServer.getPort()).build();
+        user = fixture.user();
+        category = fixture.category();
+    }
+
+    @Test
+    void userListingIsPagedByCursor() {
+        ToDo first = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo second = fixture.toDo(user, category, Status.COMPLETED, DUE);
+        ToDo third = fixture.toDo(user, category, Status.PENDING, DUE);
+
+        client.get().uri("/api/todos/user/{userId}?limit=2", user.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].id").isEqualTo(first.getId().intValue())
+                .jsonPath("$.items[1].id").isEqualTo(second.getId().intValue())
+                .jsonPath("$.nextCursor").isEqualTo(second.getId().intValue());
+
+        client.get().uri("/api/todos/user/{userId}?limit=2&after={after}", user.getId(), second.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].id").isEqualTo(third.getId().intValue())
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    void userListingStreamsNdjson() {
+        ToDo first = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo second = fixture.toDo(user, category, Status.IN_PROGRESS, DUE);
+
+        assertThat(client.get().uri("/api/todos/user/{userId}", user.getId())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ToDoDto.class)
+                .getResponseBody()
+                .map(ToDoDto::id)
+                .collectList()
+                .block())
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void errorsMatchTheMvcApi() {
+        client.get().uri("/api/todos/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        client.get().uri("/api/todos/status/{status}", "UNKNOWN")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/api/todos/due?status=PENDING&from=2026-10-10&to=2026-10-01")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
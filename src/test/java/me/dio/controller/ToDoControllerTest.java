@@ -0,0 +1,394 @@
+package me.dio.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static me.dio.support.ToDoFixture.eventually;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class ToDoControllerTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.user();
+        category = fixture.category();
+    }
+
+    @Test
+    void userListingIsPagedByCursor() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(fixture.toDo(user, category, Status.PENDING, DUE).getId());
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String after = null;
+        do {
+            MockHttpServletRequestBuilder page = get("/api/todos/user/{userId}", user.getId()).param("limit", "2");
+            if (after != null) {
+                page.param("after", after);
+            }
+            JsonNode body = json(mockMvc.perform(page).andExpect(status().isOk()).andReturn());
+            body.get("items").forEach(item -> paged.add(item.get("id").asLong()));
+            after = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+        } while (after != null);
+
+        assertThat(paged).isEqualTo(ids);
+    }
+
+    @Test
+    void userListingStreamsNdjson() throws Exception {
+        ToDo first = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo second = fixture.toDo(user, category, Status.COMPLETED, DUE);
+
+        MvcResult started = mockMvc.perform(get("/api/todos/user/{userId}", user.getId())
+                        .accept(ToDoController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertThat(ids).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void statusPatchFollowsTheAllowedTransitions() throws Exception {
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+
+        mockMvc.perform(patch("/api/todos/{id}/status", toDo.getId()).param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.version").value(toDo.getVersion() + 1));
+        mockMvc.perform(patch("/api/todos/{id}/status", toDo.getId()).param("status", "COMPLETED"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/todos/{id}/status", toDo.getId()).param("status", "IN_PROGRESS"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/todos/{id}", toDo.getId()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void bulkStatusPatchChangesAllOrNone() throws Exception {
+        ToDo pending = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo cancelled = fixture.toDo(user, category, Status.CANCELLED, DUE);
+        ToDo inProgress = fixture.toDo(user, category, Status.IN_PROGRESS, DUE);
+
+        mockMvc.perform(patch("/api/todos/status")
+                        .param("ids", pending.getId() + "," + cancelled.getId())
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/todos/{id}", pending.getId()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        mockMvc.perform(patch("/api/todos/status")
+                        .param("ids", pending.getId() + "," + inProgress.getId())
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+        mockMvc.perform(get("/api/todos/{id}", inProgress.getId()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void dueListingIsPagedByDueDateAndId() throws Exception {
+        // Datas exclusivas deste teste, pois a listagem não é filtrada por usuário
+        LocalDate from = LocalDate.of(2031, 3, 1);
+        ToDo later = fixture.toDo(user, category, Status.PENDING, from.plusDays(2));
+        ToDo first = fixture.toDo(user, category, Status.PENDING, from);
+        ToDo second = fixture.toDo(user, category, Status.PENDING, from);
+
+        JsonNode firstPage = json(mockMvc.perform(get("/api/todos/due")
+                        .param("status", "PENDING").param("from", from.toString()).param("to", from.plusDays(2).toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk()).andReturn());
+        assertThat(firstPage.get("items").findValuesAsText("id"))
+                .containsExactly(first.getId().toString(), second.getId().toString());
+        assertThat(firstPage.get("nextCursor").asText()).isEqualTo(from + "_" + second.getId());
+
+        JsonNode lastPage = json(mockMvc.perform(get("/api/todos/due")
+                        .param("status", "PENDING").param("from", from.toString()).param("to", from.plusDays(2).toString())
+                        .param("limit", "2").param("after", firstPage.get("nextCursor").asText()))
+                .andExpect(status().isOk()).andReturn());
+        assertThat(lastPage.get("items").findValuesAsText("id")).containsExactly(later.getId().toString());
+        assertThat(lastPage.get("nextCursor").isNull()).isTrue();
+
+        mockMvc.perform(get("/api/todos/overdue").param("after", "ontem"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchImportAcceptsJsonArraysAndNdjson() throws Exception {
+        String row = "{\"title\":\"Importada %d\",\"status\":\"PENDING\",\"dueDate\":\"2026-10-10\",\"userId\":%d,\"categoryId\":%d}";
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + row.formatted(1, user.getId(), category.getId()) + ","
+                                + row.formatted(2, user.getId(), category.getId()) + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(2));
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(ToDoController.APPLICATION_NDJSON_VALUE)
+                        .content(row.formatted(3, user.getId(), category.getId()) + "\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        JsonNode page = json(mockMvc.perform(get("/api/todos/user/{userId}", user.getId())).andReturn());
+        assertThat(page.get("items").findValuesAsText("title")).containsExactly("Importada 1", "Importada 2", "Importada 3");
+    }
+
+    @Test
+    void batchImportIsAllOrNothing() throws Exception {
+        String row = "{\"title\":\"Importada\",\"status\":\"PENDING\",\"dueDate\":\"2026-10-10\",\"userId\":%d}";
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(ToDoController.APPLICATION_NDJSON_VALUE)
+                        .content(row.formatted(user.getId()) + "\n" + row.formatted(Long.MAX_VALUE) + "\n"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Sem status\",\"dueDate\":\"2026-10-10\",\"userId\":" + user.getId() + "}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()))
+                .andExpect(jsonPath("$.items").isEmpty());
+    }
+
+    @Test
+    void exportWritesTheFilteredTasks() throws Exception {
+        ToDo pending = fixture.toDo(user, category, "Relatório", "Linha com, vírgula", Status.PENDING, DUE);
+        ToDo completed = fixture.toDo(user, category, Status.COMPLETED, DUE.plusDays(1));
+
+        String csv = mockMvc.perform(get("/api/todos/export").param("userId", user.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(csv.lines().toList()).hasSize(3);
+        assertThat(csv.lines().findFirst()).hasValue("id,title,description,status,dueDate,userId,username,categoryId,categoryName,version");
+        assertThat(csv).contains(pending.getId() + ",Relatório,\"Linha com, vírgula\",PENDING,2026-10-10,"
+                + user.getId() + "," + user.getUsername());
+
+        String ndjson = mockMvc.perform(get("/api/todos/export")
+                        .param("format", "ndjson")
+                        .param("userId", user.getId().toString())
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(1);
+        JsonNode row = objectMapper.readTree(lines.get(0));
+        assertThat(row.get("id").asLong()).isEqualTo(completed.getId());
+        assertThat(row.get("categoryName").asText()).isEqualTo(category.getName());
+
+        mockMvc.perform(get("/api/todos/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchRanksTheBestMatchesFirst() throws Exception {
+        ToDo both = fixture.toDo(user, category, "Relatório financeiro", "Fechar o relatório financeiro do trimestre",
+                Status.PENDING, DUE);
+        ToDo one = fixture.toDo(user, category, "Reunião de equipe", "Levar o relatorio impresso", Status.PENDING, DUE);
+        fixture.toDo(user, category, "Comprar café", null, Status.PENDING, DUE);
+        User other = fixture.user();
+        fixture.toDo(other, category, "Relatório financeiro", null, Status.PENDING, DUE);
+
+        JsonNode page = json(mockMvc.perform(get("/api/todos/search")
+                        .param("q", "relatorio financeiro")
+                        .param("userId", user.getId().toString()))
+                .andExpect(status().isOk()).andReturn());
+
+        assertThat(page.get("items").findValuesAsText("id"))
+                .containsExactly(both.getId().toString(), one.getId().toString());
+
+        mockMvc.perform(get("/api/todos/search").param("q", "de para").param("userId", user.getId().toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void categoryDeleteRemovesOnlyItsTasksFromTheSearchIndex() throws Exception {
+        Category other = fixture.category();
+        fixture.toDo(user, category, "Relatório de custos", null, Status.PENDING, DUE);
+        ToDo kept = fixture.toDo(user, other, "Relatório de vendas", null, Status.PENDING, DUE);
+        assertThat(search("relatorio")).hasSize(2);
+
+        mockMvc.perform(delete("/api/categories/{id}", category.getId()))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(search("relatorio")).containsExactly(kept.getId().toString());
+        assertThat(search("custos")).isEmpty();
+    }
+
+    @Test
+    void conditionalRequestsUseTheVersion() throws Exception {
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+
+        String eTag = mockMvc.perform(get("/api/todos/{id}", toDo.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/todos/{id}", toDo.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        String listingETag = mockMvc.perform(get("/api/todos/user/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, listingETag))
+                .andExpect(status().isNotModified());
+
+        String changed = objectMapper.writeValueAsString(new ToDoDto(null, "Revisada", null, Status.IN_PROGRESS, DUE,
+                user.getId(), category.getId(), null));
+        String updatedETag = mockMvc.perform(put("/api/todos/{id}", toDo.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(changed))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Revisada"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(updatedETag).isNotEqualTo(eTag);
+
+        // A versão do If-Match já foi substituída pela alteração anterior
+        mockMvc.perform(put("/api/todos/{id}", toDo.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(changed))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, listingETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listingTagCoversOnlyTheReturnedPage() throws Exception {
+        ToDo first = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo beyond = fixture.toDo(user, category, Status.PENDING, DUE);
+
+        String pageETag = mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value(first.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        // Com If-None-Match o ETag vem da consulta das versões da página, igual ao calculado sobre a página retornada
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"outra\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, pageETag));
+
+        mockMvc.perform(patch("/api/todos/{id}/status", beyond.getId()).param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).param("limit", "2")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/todos/{id}/status", first.getId()).param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()).param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk());
+
+        String statusETag = mockMvc.perform(get("/api/todos/status/{status}", "IN_PROGRESS").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/todos/status/{status}", "IN_PROGRESS").param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, statusETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void changeFeedResumesFromTheLastEventId() throws Exception {
+        MvcResult live = mockMvc.perform(get("/api/todos/changes").param("userId", user.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ToDo first = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo second = fixture.toDo(user, category, Status.PENDING, DUE);
+        List<String> ids = eventually(() -> eventIds(live), received -> received.size() == 2);
+        assertThat(ids.get(0)).matches("\\d+-\\d+");
+
+        MvcResult resumed = mockMvc.perform(get("/api/todos/changes")
+                        .param("userId", user.getId().toString())
+                        .header("Last-Event-ID", ids.get(0)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(eventually(() -> eventIds(resumed), received -> !received.isEmpty())).containsExactly(ids.get(1));
+        assertThat(resumed.getResponse().getContentAsString()).contains("event:CREATED", "\"toDoId\":" + second.getId())
+                .doesNotContain("\"toDoId\":" + first.getId() + ",");
+
+        MvcResult stale = mockMvc.perform(get("/api/todos/changes")
+                        .param("userId", user.getId().toString())
+                        .param("since", "1-" + ids.get(0).substring(ids.get(0).indexOf('-') + 1)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        eventually(() -> eventIds(stale), received -> !received.isEmpty());
+        assertThat(stale.getResponse().getContentAsString()).contains("event:RESYNC");
+    }
+
+    private static List<String> eventIds(MvcResult feed) {
+        try {
+            String content = feed.getResponse().getContentAsString();
+            // Apenas os eventos já escritos por inteiro, terminados por uma linha em branco
+            return content.substring(0, content.lastIndexOf("\n\n") + 1).lines()
+                    .filter(line -> line.startsWith("id:"))
+                    .map(line -> line.substring(3))
+                    .toList();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private List<String> search(String q) throws Exception {
+        return json(mockMvc.perform(get("/api/todos/search").param("q", q).param("userId", user.getId().toString()))
+                .andExpect(status().isOk()).andReturn()).get("items").findValuesAsText("id");
+    }
+}
@@ -0,0 +1,156 @@
+package me.dio.domain.repository;
+
+import me.dio.controller.dto.DueDatePageDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.controller.dto.ToDoExportDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class ToDoRepositoryTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ToDoRepository toDoRepository;
+
+    private User ana;
+    private User bruno;
+    private Category work;
+    private Category home;
+
+    @BeforeEach
+    void setUp() {
+        ana = entityManager.persist(TestData.user("ana"));
+        bruno = entityManager.persist(TestData.user("bruno"));
+        work = entityManager.persist(TestData.category("trabalho"));
+        home = entityManager.persist(TestData.category("casa"));
+    }
+
+    @Test
+    void userPagesFollowTheIdWithoutGapsOrRepeats() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(persist(ana, work, Status.PENDING, DUE).getId());
+            persist(bruno, work, Status.PENDING, DUE);
+        }
+
+        List<Long> paged = new ArrayList<>();
+        long after = 0;
+        List<ToDoDto> page;
+        do {
+            page = toDoRepository.findDtoPageByUserId(ana.getId(), after, Limit.of(2));
+            page.forEach(toDo -> paged.add(toDo.id()));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).id();
+        } while (page.size() == 2);
+
+        assertThat(paged).isEqualTo(ids);
+    }
+
+    @Test
+    void dueDatePagesKeepTiesOnTheSameDateInIdOrder() {
+        ToDo later = persist(ana, work, Status.PENDING, DUE.plusDays(1));
+        ToDo first = persist(ana, work, Status.PENDING, DUE);
+        ToDo second = persist(ana, work, Status.PENDING, DUE);
+        ToDo third = persist(ana, work, Status.PENDING, DUE);
+        ToDo earliest = persist(ana, work, Status.PENDING, DUE.minusDays(1));
+        persist(ana, work, Status.COMPLETED, DUE);
+
+        List<Long> paged = new ArrayList<>();
+        String after = null;
+        do {
+            DueDatePageDto.Cursor cursor = DueDatePageDto.Cursor.parse(after);
+            DueDatePageDto page = DueDatePageDto.of(toDoRepository.findDtoPageDueBetween(Status.PENDING,
+                    DUE.minusDays(1), DUE.plusDays(1), cursor.dueDate(), cursor.id(), Limit.of(3)), 2);
+            page.items().forEach(toDo -> paged.add(toDo.id()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertThat(paged).containsExactly(earliest.getId(), first.getId(), second.getId(), third.getId(), later.getId());
+    }
+
+    @Test
+    void keysetPagesAreReadInIndexOrder() {
+        // O H2 indica no plano o índice usado e a condição atendida por ele
+        assertThat(plan("select id from tb_todo where user_id = 1 and id > 0 order by id limit 50"))
+                .containsIgnoringCase("idx_todo_user_id: user_id = ");
+        assertThat(plan("select id from tb_todo where status = 'PENDING' and id > 0 order by id limit 50"))
+                .containsIgnoringCase("idx_todo_status_id: status = ");
+    }
+
+    @Test
+    void archiveCandidatesAreProjectedWithTheirOwners() {
+        ToDo completed = persist(ana, work, Status.COMPLETED, DUE.minusYears(1));
+        ToDo cancelled = persist(bruno, null, Status.CANCELLED, DUE.minusYears(1));
+        persist(ana, work, Status.PENDING, DUE.minusYears(1));
+        persist(ana, work, Status.COMPLETED, DUE);
+
+        List<ToDoRepository.ToDoOwnership> candidates = toDoRepository.findForUpdateByStatusInAndDueDateBefore(
+                Status.FINISHED, DUE.minusMonths(1), Limit.of(10));
+
+        assertThat(candidates)
+                .extracting(ToDoRepository.ToDoOwnership::getId, ToDoRepository.ToDoOwnership::getUserId,
+                        ToDoRepository.ToDoOwnership::getCategoryId)
+                .containsExactlyInAnyOrder(
+                        tuple(completed.getId(), ana.getId(), work.getId()),
+                        tuple(cancelled.getId(), bruno.getId(), null));
+    }
+
+    @Test
+    void exportAppliesOnlyTheFiltersGiven() {
+        ToDo anaWork = persist(ana, work, Status.PENDING, DUE);
+        ToDo anaNoCategory = persist(ana, null, Status.PENDING, DUE.plusDays(5));
+        ToDo anaHome = persist(ana, home, Status.COMPLETED, DUE.minusDays(5));
+        ToDo brunoWork = persist(bruno, work, Status.PENDING, DUE);
+
+        assertThat(exportedIds(null, null, null, null, null))
+                .containsExactly(anaWork.getId(), anaNoCategory.getId(), anaHome.getId(), brunoWork.getId());
+        assertThat(exportedIds(Status.PENDING, ana.getId(), null, null, null))
+                .containsExactly(anaWork.getId(), anaNoCategory.getId());
+        assertThat(exportedIds(null, null, work.getId(), null, null))
+                .containsExactly(anaWork.getId(), brunoWork.getId());
+        assertThat(exportedIds(null, ana.getId(), null, DUE.minusDays(1), DUE.plusDays(10)))
+                .containsExactly(anaWork.getId(), anaNoCategory.getId());
+
+        try (Stream<ToDoExportDto> rows = toDoRepository.streamExport(null, null, null, DUE.plusDays(1), null)) {
+            ToDoExportDto row = rows.findFirst().orElseThrow();
+            assertThat(row.username()).isEqualTo(ana.getUsername());
+            assertThat(row.categoryId()).isNull();
+            assertThat(row.categoryName()).isNull();
+        }
+    }
+
+    private String plan(String sql) {
+        return (String) entityManager.getEntityManager().createNativeQuery("explain " + sql).getSingleResult();
+    }
+
+    private List<Long> exportedIds(Status status, Long userId, Long categoryId, LocalDate dueFrom, LocalDate dueTo) {
+        try (Stream<ToDoExportDto> rows = toDoRepository.streamExport(status, userId, categoryId, dueFrom, dueTo)) {
+            return rows.map(ToDoExportDto::id).toList();
+        }
+    }
+
+    private ToDo persist(User user, Category category, Status status, LocalDate dueDate) {
+        return entityManager.persistAndFlush(TestData.toDo(user, category, "Tarefa", status, dueDate));
+    }
+}
@@ -0,0 +1,80 @@
+package me.dio.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class RequestMetricsFilterTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void threshold(DynamicPropertyRegistry registry) {
+        // A listagem consulta o banco; a tarefa por ID vem do cache de segundo nível, sem nenhum comando SQL
+        registry.add("todo.metrics.n-plus-one-threshold", () -> "0");
+    }
+
+    @Test
+    void requestsOverTheThresholdAreFlagged() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestMetricsFilter.N_PLUS_ONE_HEADER, startsWith("statements=")));
+        mockMvc.perform(get("/api/todos/{id}", toDo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RequestMetricsFilter.N_PLUS_ONE_HEADER));
+    }
+
+    @Test
+    void countsAreRecordedPerEndpoint() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+        fixture.toDo(user, category, Status.PENDING, DUE);
+        fixture.toDo(user, category, Status.PENDING, DUE);
+        DistributionSummary rows = summary("todo.request.rows");
+        long count = rows != null ? rows.count() : 0;
+        double total = rows != null ? rows.totalAmount() : 0;
+
+        mockMvc.perform(get("/api/todos/user/{userId}", user.getId())).andExpect(status().isOk());
+
+        rows = summary("todo.request.rows");
+        assertThat(rows.count()).isEqualTo(count + 1);
+        assertThat(rows.totalAmount() - total).isEqualTo(2);
+        assertThat(summary("todo.request.statements").max()).isPositive();
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.find(name).tag("uri", "/api/todos/user/{userId}").tag("method", "GET").summary();
+    }
+}
@@ -0,0 +1,122 @@
+package me.dio.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.config.CacheConfig;
+import me.dio.domain.model.Category;
+import me.dio.service.CategoryService;
+import me.dio.support.ApiTest;
+import me.dio.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@ApiTest
+class CategoryServiceImplTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cache names;
+
+    @DynamicPropertySource
+    static void singleFlight(DynamicPropertyRegistry registry) {
+        // Listagens reaproveitadas até a próxima alteração de categoria
+        registry.add("todo.single-flight.micro-ttl", () -> "1h");
+    }
+
+    @BeforeEach
+    void setUp() {
+        names = cacheManager.getCache(CacheConfig.CATEGORY_NAMES);
+    }
+
+    @Test
+    void nameCheckIsCachedAndEvictedOnCreate() {
+        Category category = TestData.category("cache");
+        String name = category.getName();
+
+        categoryService.create(category);
+        // A verificação da criação ficou em cache como "não existe" e foi removida ao fim da criação
+        assertThat(names.get(name)).isNull();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> categoryService.create(named(name)));
+        assertThat(names.get(name, Boolean.class)).isTrue();
+    }
+
+    @Test
+    void renameAndDeleteReleaseTheCachedNames() {
+        Category category = categoryService.create(TestData.category("renomear"));
+        String oldName = category.getName();
+        assertThatIllegalArgumentException().isThrownBy(() -> categoryService.create(named(oldName)));
+
+        String newName = oldName + "-novo";
+        categoryService.update(category.getId(), named(newName));
+        assertThat(names.get(oldName)).isNull();
+        Category reused = categoryService.create(named(oldName));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> categoryService.create(named(newName)));
+        categoryService.delete(category.getId());
+        assertThat(names.get(newName)).isNull();
+        assertThat(categoryService.create(named(newName)).getId()).isNotEqualTo(category.getId());
+        assertThat(reused.getName()).isEqualTo(oldName);
+    }
+
+    @Test
+    void listingIsReusedUntilACategoryChanges() {
+        categoryService.findAll();
+        double executed = executedListings();
+
+        List<Category> listing = categoryService.findAll();
+        assertThat(categoryService.findAll()).isSameAs(listing);
+        assertThat(executedListings()).isEqualTo(executed);
+
+        Category created = categoryService.create(TestData.category("listagem"));
+        assertThat(categoryService.findAll()).extracting(Category::getId).contains(created.getId());
+        assertThat(executedListings()).isEqualTo(executed + 1);
+    }
+
+    @Test
+    void listingReadBeforeTheCommitIsNotServedAfterIt() {
+        Category category = categoryService.create(TestData.category("remover"));
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            categoryService.delete(category.getId());
+            // Uma leitura de outra thread antes do commit ainda vê a categoria e guarda a listagem no micro-TTL
+            List<Category> beforeCommit = CompletableFuture.supplyAsync(categoryService::findAll).join();
+            assertThat(beforeCommit).extracting(Category::getId).contains(category.getId());
+        });
+
+        assertThat(categoryService.findAll()).extracting(Category::getId).doesNotContain(category.getId());
+    }
+
+    private double executedListings() {
+        return meterRegistry.get("todo.singleflight.calls")
+                .tags("query", "categories.all", "outcome", "executed")
+                .counter().count();
+    }
+
+    private static Category named(String name) {
+        Category category = new Category();
+        category.setName(name);
+        return category;
+    }
+}
@@ -0,0 +1,86 @@
+package me.dio.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.service.ToDoArchiveService;
+import me.dio.service.ToDoSearchService;
+import me.dio.service.ToDoService;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ApiTest
+class ToDoArchiveServiceImplTest {
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ToDoArchiveService toDoArchiveService;
+
+    @Autowired
+    private ToDoService toDoService;
+
+    @Autowired
+    private ToDoSearchService toDoSearchService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void movesOnlyFinishedTasksPastTheRetention() {
+        User user = fixture.user();
+        Category category = fixture.category();
+        LocalDate old = LocalDate.now().minusDays(200);
+        ToDo completed = fixture.toDo(user, category, Status.COMPLETED, old);
+        ToDo cancelled = fixture.toDo(user, category, Status.CANCELLED, old);
+        ToDo pending = fixture.toDo(user, category, Status.PENDING, old);
+        ToDo recent = fixture.toDo(user, category, Status.COMPLETED, LocalDate.now().minusDays(10));
+
+        assertThat(toDoArchiveService.archive()).isGreaterThanOrEqualTo(2);
+
+        assertThat(toDoService.findByUserId(user.getId(), null, 10, false).items())
+                .extracting(ToDoDto::id)
+                .containsExactly(pending.getId(), recent.getId());
+        assertThat(toDoService.findByUserId(user.getId(), null, 10, true).items())
+                .extracting(ToDoDto::id)
+                .containsExactlyInAnyOrder(completed.getId(), cancelled.getId(), pending.getId(), recent.getId());
+        // Uma segunda execução não encontra mais nada deste usuário
+        toDoArchiveService.archive();
+        assertThat(toDoService.findByUserId(user.getId(), null, 10, true).items()).hasSize(4);
+    }
+
+    @Test
+    void archivedTasksLeaveOnlyTheirOwnCacheEntriesAndPostings() {
+        User user = fixture.user();
+        User other = fixture.user();
+        Category category = fixture.category();
+        LocalDate old = LocalDate.now().minusDays(200);
+        ToDo archived = fixture.toDo(user, category, "Relatório arquivado", null, Status.COMPLETED, old);
+        ToDo kept = fixture.toDo(other, category, "Relatório em aberto", null, Status.PENDING, old);
+        toDoService.findById(kept.getId());
+        assertThat(searchIds(user, "relatorio")).containsExactly(archived.getId());
+
+        toDoArchiveService.archive();
+
+        // Sem reconstrução do índice: a tarefa arquivada já não é encontrada quando o arquivamento retorna
+        assertThat(searchIds(user, "relatorio")).isEmpty();
+        assertThat(searchIds(other, "relatorio")).containsExactly(kept.getId());
+        assertThat(entityManagerFactory.getCache().contains(ToDo.class, archived.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(ToDo.class, kept.getId())).isTrue();
+    }
+
+    private List<Long> searchIds(User user, String query) {
+        return toDoSearchService.search(query, user.getId(), null, 10).items().stream().map(ToDoDto::id).toList();
+    }
+}
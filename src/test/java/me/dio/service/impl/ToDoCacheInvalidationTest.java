@@ -0,0 +1,102 @@
+package me.dio.service.impl;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.service.ToDoService;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ApiTest
+class ToDoCacheInvalidationTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 10, 10);
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ToDoService toDoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Cache cache;
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cache = entityManagerFactory.getCache();
+        user = fixture.user();
+        category = fixture.category();
+    }
+
+    @Test
+    void taskByIdIsServedFromTheSecondLevelCache() {
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+        toDoService.findById(toDo.getId());
+
+        statistics.clear();
+        assertThat(toDoService.findById(toDo.getId()).id()).isEqualTo(toDo.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void statusPatchEvictsOnlyTheChangedTasks() {
+        ToDo changed = fixture.toDo(user, category, Status.PENDING, DUE);
+        ToDo untouched = fixture.toDo(user, category, Status.PENDING, DUE);
+        toDoService.findById(changed.getId());
+        toDoService.findById(untouched.getId());
+        assertThat(cache.contains(ToDo.class, changed.getId())).isTrue();
+
+        toDoService.updateStatus(changed.getId(), Status.IN_PROGRESS);
+
+        assertThat(cache.contains(ToDo.class, changed.getId())).isFalse();
+        assertThat(cache.contains(ToDo.class, untouched.getId())).isTrue();
+        assertThat(toDoService.findById(changed.getId()).status()).isEqualTo(Status.IN_PROGRESS);
+
+        toDoService.updateStatus(List.of(untouched.getId()), Status.COMPLETED);
+        assertThat(cache.contains(ToDo.class, untouched.getId())).isFalse();
+        assertThat(toDoService.findById(untouched.getId()).status()).isEqualTo(Status.COMPLETED);
+    }
+
+    @Test
+    void cachedStatusPagesSeeTheJdbcUpdates() {
+        ToDo toDo = fixture.toDo(user, category, Status.PENDING, DUE);
+        // O cursor anterior ao ID isola a página das tarefas dos demais testes no mesmo banco
+        Long after = toDo.getId() - 1;
+        assertThat(ids(toDoService.findByStatus(Status.PENDING, after, 1, false).items())).containsExactly(toDo.getId());
+
+        statistics.clear();
+        toDoService.findByStatus(Status.PENDING, after, 1, false);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        toDoService.updateStatus(toDo.getId(), Status.IN_PROGRESS);
+
+        assertThat(ids(toDoService.findByStatus(Status.PENDING, after, 1, false).items())).doesNotContain(toDo.getId());
+        assertThat(ids(toDoService.findByStatus(Status.IN_PROGRESS, after, 1, false).items())).containsExactly(toDo.getId());
+    }
+
+    private static List<Long> ids(List<ToDoDto> toDos) {
+        return toDos.stream().map(ToDoDto::id).toList();
+    }
+}
@@ -0,0 +1,152 @@
+package me.dio.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.dio.controller.dto.ToDoChangeDto;
+import me.dio.controller.dto.ToDoDto;
+import me.dio.domain.model.Status;
+import me.dio.service.ToDoChangeService;
+import me.dio.service.event.ToDoBulkChangedEvent;
+import me.dio.service.event.ToDoChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToDoChangeServiceImplTest {
+
+    private static final long ANA = 1L;
+    private static final long BRUNO = 2L;
+
+    private final ToDoChangeServiceImpl changes = new ToDoChangeServiceImpl(4, 16, new SyncTaskExecutor(), new SimpleMeterRegistry());
+
+    @Test
+    void replaysOnlyTheSubscribersChangesAfterTheGivenId() {
+        Recorder live = subscribe(ANA, null);
+        changes.onToDoChanged(ToDoChangedEvent.created(toDo(10, ANA, "Nova")));
+        changes.onToDoChanged(ToDoChangedEvent.created(toDo(11, BRUNO, "De outro usuário")));
+        changes.onToDoChanged(ToDoChangedEvent.updated(toDo(10, ANA, "Nova"), toDo(10, ANA, "Revisada")));
+        changes.onToDoChanged(ToDoChangedEvent.deleted(toDo(10, ANA, "Revisada")));
+
+        assertThat(live.types()).containsExactly(ToDoChangeDto.Type.CREATED, ToDoChangeDto.Type.UPDATED, ToDoChangeDto.Type.DELETED);
+
+        Recorder resumed = subscribe(ANA, live.received.get(0).eventId());
+        assertThat(resumed.received).containsExactlyElementsOf(live.received.subList(1, 3));
+        assertThat(resumed.received.get(0).toDo().title()).isEqualTo("Revisada");
+    }
+
+    @Test
+    void idFromAnotherRunGetsResync() {
+        changes.onToDoChanged(ToDoChangedEvent.created(toDo(10, ANA, "Nova")));
+        Recorder live = subscribe(ANA, null);
+        changes.onToDoChanged(ToDoChangedEvent.created(toDo(12, ANA, "Outra")));
+        String eventId = live.received.get(0).eventId();
+        long epoch = live.received.get(0).epoch();
+
+        // Mesmo offset, mas de uma execução anterior do serviço: o buffer desta execução não o contém
+        assertThat(subscribe(ANA, (epoch - 1) + eventId.substring(eventId.indexOf('-'))).types())
+                .containsExactly(ToDoChangeDto.Type.RESYNC);
+        assertThat(subscribe(ANA, "desconhecido").types()).containsExactly(ToDoChangeDto.Type.RESYNC);
+    }
+
+    @Test
+    void overwrittenChangesGetResync() {
+        Recorder live = subscribe(ANA, null);
+        for (int i = 0; i < 6; i++) {
+            changes.onToDoChanged(ToDoChangedEvent.created(toDo(20 + i, ANA, "Tarefa " + i)));
+        }
+
+        Recorder resumed = subscribe(ANA, live.received.get(0).eventId());
+        assertThat(resumed.types()).containsExactly(ToDoChangeDto.Type.RESYNC);
+        // O RESYNC traz o offset mais recente, a partir do qual o cliente retoma depois de recarregar
+        assertThat(resumed.received.get(0).offset()).isEqualTo(live.received.get(5).offset());
+    }
+
+    @Test
+    void bulkChangesAreSentAsResyncToTheAffectedUsers() {
+        Recorder ana = subscribe(ANA, null);
+        Recorder bruno = subscribe(BRUNO, null);
+
+        changes.onToDoBulkChanged(new ToDoBulkChangedEvent(Set.of(ANA), Set.of()));
+
+        assertThat(ana.types()).containsExactly(ToDoChangeDto.Type.RESYNC);
+        assertThat(bruno.received).isEmpty();
+    }
+
+    @Test
+    void busySubscriberYieldsTheSenderAfterABatch() {
+        Deque<Runnable> sender = new ArrayDeque<>();
+        ToDoChangeServiceImpl queued = new ToDoChangeServiceImpl(256, 64, sender::add, new SimpleMeterRegistry());
+        Recorder ana = new Recorder();
+        Recorder bruno = new Recorder();
+        queued.subscribe(ANA, null, ana);
+        queued.subscribe(BRUNO, null, bruno);
+        for (int i = 0; i < 40; i++) {
+            queued.onToDoChanged(ToDoChangedEvent.created(toDo(100 + i, ANA, "Tarefa " + i)));
+        }
+        queued.onToDoChanged(ToDoChangedEvent.created(toDo(200, BRUNO, "De outro usuário")));
+
+        // O primeiro lote de Ana é enviado e o restante volta para o fim da fila, depois do envio para Bruno
+        sender.poll().run();
+        assertThat(ana.received).hasSize(32);
+        sender.poll().run();
+        assertThat(bruno.received).hasSize(1);
+        sender.poll().run();
+        assertThat(ana.received).hasSize(40);
+        assertThat(sender).isEmpty();
+    }
+
+    @Test
+    void subscriberWithAFullQueueIsDisconnected() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ToDoChangeServiceImpl stalled = new ToDoChangeServiceImpl(256, 2, runnable -> { }, meterRegistry);
+        Recorder ana = new Recorder();
+        stalled.subscribe(ANA, null, ana);
+        for (int i = 0; i < 3; i++) {
+            stalled.onToDoChanged(ToDoChangedEvent.created(toDo(100 + i, ANA, "Tarefa " + i)));
+        }
+
+        assertThat(ana.closed).isTrue();
+        assertThat(meterRegistry.get("todo.changes.dropped.subscribers").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("todo.changes.subscribers").gauge().value()).isZero();
+    }
+
+    private Recorder subscribe(long userId, String since) {
+        Recorder recorder = new Recorder();
+        changes.subscribe(userId, since, recorder);
+        return recorder;
+    }
+
+    private static ToDoDto toDo(long id, long userId, String title) {
+        return new ToDoDto(id, title, null, Status.PENDING, LocalDate.of(2026, 10, 10), userId, null, 0L);
+    }
+
+    /**
+     * Assinante que guarda as alterações recebidas; o executor síncrono as entrega na própria thread do teste.
+     */
+    private static final class Recorder implements ToDoChangeService.Subscriber {
+
+        private final List<ToDoChangeDto> received = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void send(ToDoChangeDto change) {
+            received.add(change);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<ToDoChangeDto.Type> types() {
+            return received.stream().map(ToDoChangeDto::type).toList();
+        }
+    }
+}
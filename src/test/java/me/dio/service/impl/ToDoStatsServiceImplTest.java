@@ -0,0 +1,97 @@
+package me.dio.service.impl;
+
+import me.dio.controller.dto.ToDoStatsDto;
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.service.ToDoService;
+import me.dio.service.ToDoStatsService;
+import me.dio.support.ApiTest;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ApiTest
+class ToDoStatsServiceImplTest {
+
+    private static final LocalDate PAST = LocalDate.now().minusDays(3);
+    private static final LocalDate FUTURE = LocalDate.now().plusDays(3);
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ToDoStatsService toDoStatsService;
+
+    @Autowired
+    private ToDoService toDoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = fixture.user();
+        category = fixture.category();
+    }
+
+    @Test
+    void loadedCountersFollowEveryChange() {
+        ToDo overdue = fixture.toDo(user, category, Status.PENDING, PAST);
+        ToDo upcoming = fixture.toDo(user, category, Status.IN_PROGRESS, FUTURE);
+        assertStats(toDoStatsService.findUserStats(user.getId()), 1, 1, 0, 2, 1);
+
+        fixture.toDo(user, category, Status.PENDING, PAST);
+        toDoService.updateStatus(overdue.getId(), Status.COMPLETED);
+        toDoService.delete(upcoming.getId());
+
+        assertStats(toDoStatsService.findUserStats(user.getId()), 1, 0, 1, 2, 1);
+        assertStats(toDoStatsService.findCategoryStats(category.getId()), 1, 0, 1, 2, 1);
+    }
+
+    @Test
+    void loadedCountersAreNotQueriedAgain() {
+        fixture.toDo(user, category, Status.PENDING, FUTURE);
+        assertThat(toDoStatsService.findUserStats(user.getId()).total()).isEqualTo(1);
+
+        // Gravada por fora dos serviços, sem evento: os contadores já carregados não a veem
+        long id = Long.MAX_VALUE - user.getId();
+        jdbcTemplate.update("insert into tb_todo (id, title, status, due_date, user_id, version) values (?, 'Direta', 'PENDING', ?, ?, 0)",
+                id, FUTURE, user.getId());
+        assertThat(toDoStatsService.findUserStats(user.getId()).total()).isEqualTo(1);
+        jdbcTemplate.update("delete from tb_todo where id = ?", id);
+    }
+
+    @Test
+    void bulkChangesReloadTheAffectedCounters() {
+        ToDo first = fixture.toDo(user, category, Status.PENDING, FUTURE);
+        ToDo second = fixture.toDo(user, category, Status.PENDING, FUTURE);
+        assertThat(toDoStatsService.findUserStats(user.getId()).countsByStatus().get(Status.PENDING)).isEqualTo(2);
+
+        toDoService.updateStatus(List.of(first.getId(), second.getId()), Status.CANCELLED);
+
+        ToDoStatsDto stats = toDoStatsService.findUserStats(user.getId());
+        assertThat(stats.countsByStatus().get(Status.PENDING)).isZero();
+        assertThat(stats.countsByStatus().get(Status.CANCELLED)).isEqualTo(2);
+    }
+
+    private static void assertStats(ToDoStatsDto stats, long pending, long inProgress, long completed, long total, long overdue) {
+        assertThat(stats.countsByStatus())
+                .containsEntry(Status.PENDING, pending)
+                .containsEntry(Status.IN_PROGRESS, inProgress)
+                .containsEntry(Status.COMPLETED, completed);
+        assertThat(stats.total()).isEqualTo(total);
+        assertThat(stats.overdue()).isEqualTo(overdue);
+    }
+}
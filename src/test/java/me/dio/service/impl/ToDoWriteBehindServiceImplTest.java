@@ -0,0 +1,129 @@
+package me.dio.service.impl;
+
+import me.dio.domain.model.Category;
+import me.dio.domain.model.User;
+import me.dio.service.CategoryService;
+import me.dio.service.ToDoService;
+import me.dio.service.ToDoWriteBehindService;
+import me.dio.service.UserService;
+import me.dio.support.ApiTest;
+import me.dio.support.TestData;
+import me.dio.support.ToDoFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static me.dio.support.ToDoFixture.eventually;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ApiTest
+class ToDoWriteBehindServiceImplTest {
+
+    private static final String CORRUPT_LINE = "{\"id\":1000003,\"title\":\"Sem fim";
+
+    /**
+     * Journal de uma execução anterior interrompida: duas tarefas aceitas e não enviadas ao banco e uma linha
+     * corrompida entre elas. O banco de cada contexto é novo, então o usuário e a categoria criados pela
+     * {@link Seed} recebem o ID 1.
+     */
+    private static final Path DIRECTORY = journal(
+            "{\"id\":1000001,\"title\":\"Pendente 1\",\"status\":\"PENDING\",\"dueDate\":\"2026-10-10\",\"userId\":1,\"categoryId\":1}",
+            CORRUPT_LINE,
+            "{\"id\":1000002,\"title\":\"Pendente 2\",\"status\":\"PENDING\",\"dueDate\":\"2026-10-11\",\"userId\":1,\"categoryId\":1}");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ToDoFixture fixture;
+
+    @Autowired
+    private ToDoService toDoService;
+
+    @Autowired
+    private ToDoWriteBehindService toDoWriteBehindService;
+
+    @DynamicPropertySource
+    static void writeBehind(DynamicPropertyRegistry registry) {
+        registry.add("todo.write-behind.enabled", () -> "true");
+        registry.add("todo.write-behind.directory", DIRECTORY::toString);
+    }
+
+    @Test
+    void pendingLinesFromThePreviousRunAreReplayedAndCorruptOnesQuarantined() throws IOException {
+        eventually(toDoWriteBehindService::backlog, backlog -> backlog == 0);
+
+        assertThat(toDoService.findById(1000001L).title()).isEqualTo("Pendente 1");
+        assertThat(toDoService.findById(1000002L).title()).isEqualTo("Pendente 2");
+        assertThat(Files.readAllLines(DIRECTORY.resolve("todo.quarantine"))).containsExactly(CORRUPT_LINE);
+    }
+
+    @Test
+    void acceptedTaskIsReadableOnceFlushed() throws Exception {
+        User user = fixture.user();
+        Category category = fixture.category();
+
+        String location = mockMvc.perform(post("/api/todos")
+                        .param("title", "Aceita")
+                        .param("status", "PENDING")
+                        .param("dueDate", ToDoFixture.dueDate(LocalDate.of(2026, 10, 10)))
+                        .param("userId", user.getId().toString())
+                        .param("categoryId", category.getId().toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        eventually(() -> statusOf(location), status -> status == 200);
+        mockMvc.perform(get(location)).andExpect(jsonPath("$.title").value("Aceita"));
+    }
+
+    private int statusOf(String location) {
+        try {
+            return mockMvc.perform(get(location)).andReturn().getResponse().getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path journal(String... lines) {
+        try {
+            Path directory = Files.createTempDirectory("write-behind");
+            Files.write(directory.resolve("todo.journal"), List.of(lines));
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Cria o usuário e a categoria do journal depois da criação dos beans e antes do início do envio
+     * em segundo plano, que grava as linhas pendentes assim que começa.
+     */
+    @TestConfiguration
+    static class Seed {
+
+        @Bean
+        SmartInitializingSingleton journalOwner(UserService userService, CategoryService categoryService) {
+            return () -> {
+                userService.create(TestData.user("journal"));
+                categoryService.create(TestData.category("journal"));
+            };
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package me.dio.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Teste da aplicação completa com o perfil dev e MockMvc, com o {@link ToDoFixture} disponível para injeção.
+ * O Tomcat é iniciado de fato: o URI classpath: do cache de segundo nível (hibernate-cache.conf) é resolvido
+ * pelo tratador de URLs que ele registra, como na execução da aplicação.
+ * Cada contexto usa um banco H2 próprio, para que contextos com propriedades diferentes não recriem o esquema
+ * de outro ainda em cache. O controle de admissão fica desligado, exceto nos testes que o ativam por
+ * {@code @DynamicPropertySource}, que tem precedência sobre as propriedades daqui.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.name=Application",
+        "spring.datasource.url=jdbc:h2:mem:test-${random.uuid};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "todo.admission.enabled=false",
+        "todo.archive.cron=-"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+@Import(ToDoFixture.class)
+public @interface ApiTest {
+}
@@ -0,0 +1,62 @@
+package me.dio.support;
+
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entidades de teste ainda não gravadas, compartilhadas pelos testes de repositório e de API.
+ * Nomes e e-mails recebem um sufixo sequencial, de modo que os testes que compartilham um banco não colidem.
+ */
+public final class TestData {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestData() {
+    }
+
+    /**
+     * @param name Nome do usuário, completado com um sufixo único.
+     * @return Usuário com nome e e-mail únicos.
+     */
+    public static User user(String name) {
+        long n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername(name + "-" + n);
+        user.setEmail(name + "-" + n + "@teste.dio.me");
+        user.setPassword("segredo");
+        return user;
+    }
+
+    /**
+     * @param name Nome da categoria, completado com um sufixo único.
+     * @return Categoria com nome único.
+     */
+    public static Category category(String name) {
+        Category category = new Category();
+        category.setName(name + "-" + SEQUENCE.incrementAndGet());
+        return category;
+    }
+
+    /**
+     * @param user Dono da tarefa.
+     * @param category Categoria da tarefa (opcional).
+     * @param title Título da tarefa.
+     * @param status Status da tarefa.
+     * @param dueDate Vencimento da tarefa.
+     * @return Tarefa sem descrição.
+     */
+    public static ToDo toDo(User user, Category category, String title, Status status, LocalDate dueDate) {
+        ToDo toDo = new ToDo();
+        toDo.setTitle(title);
+        toDo.setStatus(status);
+        toDo.setDueDate(dueDate);
+        toDo.setUser(user);
+        toDo.setCategory(category);
+        return toDo;
+    }
+}
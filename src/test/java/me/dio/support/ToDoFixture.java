@@ -0,0 +1,89 @@
+package me.dio.support;
+
+import me.dio.domain.model.Category;
+import me.dio.domain.model.Status;
+import me.dio.domain.model.ToDo;
+import me.dio.domain.model.User;
+import me.dio.service.CategoryService;
+import me.dio.service.ToDoService;
+import me.dio.service.UserService;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Massa de dados dos testes de API, gravada pelos serviços da aplicação: os eventos de alteração chegam
+ * à busca, às estatísticas e ao feed de alterações como em produção.
+ * Cada chamada cria registros novos; os testes filtram pelo usuário ou pela categoria que criaram.
+ */
+@TestComponent
+public class ToDoFixture {
+
+    private static final DateTimeFormatter DUE_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final ToDoService toDoService;
+
+    public ToDoFixture(UserService userService, CategoryService categoryService, ToDoService toDoService) {
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.toDoService = toDoService;
+    }
+
+    public User user() {
+        return userService.create(TestData.user("usuario"));
+    }
+
+    public Category category() {
+        return categoryService.create(TestData.category("categoria"));
+    }
+
+    public ToDo toDo(User user, Category category, Status status, LocalDate dueDate) {
+        return toDo(user, category, "Tarefa", null, status, dueDate);
+    }
+
+    public ToDo toDo(User user, Category category, String title, String description, Status status, LocalDate dueDate) {
+        return toDoService.create(title, description, status, dueDate(dueDate), user.getId(), category.getId());
+    }
+
+    /**
+     * @param dueDate Data de vencimento.
+     * @return Data no formato dd/MM/yyyy aceito pela criação de tarefas.
+     */
+    public static String dueDate(LocalDate dueDate) {
+        return dueDate.format(DUE_DATE_FORMATTER);
+    }
+
+    /**
+     * Repete a consulta até o resultado atender à condição, para o que é feito em segundo plano
+     * (remoções, journal do write-behind, reconstrução da busca).
+     *
+     * @param probe Consulta do estado atual.
+     * @param done Condição esperada.
+     * @return Último resultado da consulta.
+     * @throws AssertionError se a condição não for atendida em 10 segundos.
+     */
+    public static <T> T eventually(Supplier<T> probe, Predicate<T> done) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        T value = probe.get();
+        while (!done.test(value)) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condição não atendida em " + TIMEOUT.toSeconds() + "s; último valor: " + value);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+            value = probe.get();
+        }
+        return value;
+    }
+}